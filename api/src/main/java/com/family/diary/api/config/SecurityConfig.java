@@ -21,8 +21,10 @@ import com.family.diary.common.enums.errors.ResponseErrorCode;
 import com.family.diary.common.utils.common.CommonResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -49,6 +51,36 @@ public class SecurityConfig {
 
     private final JwtRequestFilter jwtRequestFilter;
 
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
+    /**
+     * Actuator运维端点权限配置
+     * 运维端点只在独立的管理端口上提供，管理端口仅绑定内网地址，由网络隔离保证访问控制，不走用户Token认证；
+     * 管理端口未单独配置时不匹配任何请求，运维端点由业务过滤链拒绝
+     *
+     * @param http http
+     * @return SecurityFilterChain
+     * @throws Exception Exception
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http) throws Exception {
+        var separatePort = managementPort > 0 && managementPort != serverPort;
+        http
+                .securityMatcher(request -> separatePort && request.getLocalPort() == managementPort)
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                );
+
+        return http.build();
+    }
+
     /**
      * 路由权限配置
      *
@@ -57,6 +89,7 @@ public class SecurityConfig {
      * @throws Exception Exception
      */
     @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
@@ -64,8 +97,10 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Swagger UI 放行
                         .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
-                        // Actuator 健康检查放行
-                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        // 存活与就绪探针放行（由管理端口的health端点映射到业务端口）
+                        .requestMatchers("/livez", "/readyz").permitAll()
+                        // Actuator 端点只在内网管理端口提供，业务端口一律拒绝
+                        .requestMatchers("/actuator/**").denyAll()
                         // 业务接口放行
                         .requestMatchers("/v1/register").permitAll() // 注册放行
                         .requestMatchers("/v1/login").permitAll() // 登录放行
@@ -15,7 +15,11 @@
 
 package com.family.diary.api.config;
 
+import com.family.diary.api.filters.common.RateLimitFilter;
 import com.family.diary.api.filters.common.TraceIdFilter;
+import com.family.diary.api.service.token.TokenService;
+import com.family.diary.common.models.ratelimit.RateLimitProperties;
+import com.family.diary.common.utils.ratelimit.RedisRateLimiter;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -40,6 +44,22 @@ public class WebFilterConfig {
         return registration;
     }
 
+    /**
+     * rateLimitFilterRegistration紧随TraceIdFilter执行，在认证与业务处理之前尽早拒绝超限请求
+     *
+     * @param rateLimitFilter rateLimitFilter
+     * @return FilterRegistrationBean
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(rateLimitFilter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        registration.addUrlPatterns("/*");
+        registration.setName("rateLimitFilter");
+        return registration;
+    }
+
     /**
      * 显示声明TraceIdFilter的构造方法
      *
@@ -49,4 +69,18 @@ public class WebFilterConfig {
     public TraceIdFilter traceIdFilter() {
         return new TraceIdFilter();
     }
+
+    /**
+     * 显示声明RateLimitFilter的构造方法
+     *
+     * @param rateLimiter  分布式限流器
+     * @param properties   限流属性值
+     * @param tokenService Token服务（按openId限流时解析Access Token）
+     * @return RateLimitFilter对象
+     */
+    @Bean
+    public RateLimitFilter rateLimitFilter(RedisRateLimiter rateLimiter, RateLimitProperties properties,
+                                           TokenService tokenService) {
+        return new RateLimitFilter(rateLimiter, properties, tokenService);
+    }
 }
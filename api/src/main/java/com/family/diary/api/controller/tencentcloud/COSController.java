@@ -18,13 +18,17 @@ package com.family.diary.api.controller.tencentcloud;
 import com.family.diary.api.dto.request.tencentcloud.cos.COSAvatarUploadRequest;
 import com.family.diary.api.mapper.tencentcloud.cos.COSAvatarUploadMapper;
 import com.family.diary.api.service.tencentcloud.COSService;
+import com.family.diary.common.enums.image.ImageVariant;
 import com.family.diary.common.utils.common.CommonResponse;
+import com.family.diary.domain.entity.user.UserEntity;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -34,7 +38,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 /**
  * COS对象存储服务Controller
@@ -68,19 +74,42 @@ public class COSController {
         return CommonResponse.ok(tempAvatarUrl);
     }
 
+    /**
+     * 以multipart/form-data方式上传头像，文件由容器落盘后流式转发到COS，不在堆内保留完整图片
+     * 头像归属于当前登录用户（取自已验签Token的主体），不接受客户端指定openId
+     *
+     * @param currentUser 当前登录用户（由Spring Security注入）
+     * @param file        头像文件
+     * @return 头像临时链接
+     */
+    @Operation(summary = "上传头像文件",
+            description = "以multipart/form-data方式上传当前登录用户的头像到腾讯云COS，返回临时访问链接，需要Bearer Token认证")
+    @PostMapping(value = "/avatar/upload/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CommonResponse<String>> uploadAvatarFile(
+            @Parameter(hidden = true) @AuthenticationPrincipal UserEntity currentUser,
+            @Parameter(description = "头像文件，支持PNG、JPEG、GIF、WebP、BMP", required = true)
+            @RequestPart("file") MultipartFile file) {
+        log.info("开始流式上传头像，大小：{} 字节", file.getSize());
+        var tempAvatarUrl = cosService.uploadAvatarStreamToCOS(currentUser.getOpenId(), file, file.getSize());
+        return CommonResponse.ok(tempAvatarUrl);
+    }
+
     /**
      * 获取头像临时链接
      *
      * @param openId 用户Open ID
+     * @param size   图片规格
      * @return 头像临时链接
      */
-    @Operation(summary = "获取头像链接", description = "根据用户OpenID获取头像的临时访问链接")
+    @Operation(summary = "获取头像链接", description = "根据用户OpenID获取头像的临时访问链接，可按需指定图片规格")
     @GetMapping("/avatar/url")
     public ResponseEntity<CommonResponse<String>> getAvatarUrl(
             @Parameter(description = "用户OpenID", required = true, example = "oXxx_xxxxxxxxxxxxx")
-            @RequestParam @Valid @NotEmpty(message = "openid不能为空") String openId) {
+            @RequestParam @Valid @NotEmpty(message = "openid不能为空") String openId,
+            @Parameter(description = "图片规格：original、large、medium、thumbnail，默认原图", example = "thumbnail")
+            @RequestParam(required = false) String size) {
         log.info("开始获取头像URL");
-        var tempAvatarUrl = cosService.getAvatarUrl(openId);
+        var tempAvatarUrl = cosService.getAvatarUrl(openId, ImageVariant.fromCode(size));
         return CommonResponse.ok(tempAvatarUrl);
     }
 }
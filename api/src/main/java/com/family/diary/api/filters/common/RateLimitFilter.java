@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.api.filters.common;
+
+import com.family.diary.api.service.token.TokenService;
+import com.family.diary.common.constants.common.JWTConstants;
+import com.family.diary.common.constants.response.ResponseMessageConstants;
+import com.family.diary.common.enums.errors.ResponseErrorCode;
+import com.family.diary.common.enums.ratelimit.RateLimitKeyType;
+import com.family.diary.common.models.jwt.VerifiedToken;
+import com.family.diary.common.models.ratelimit.RateLimitPolicy;
+import com.family.diary.common.models.ratelimit.RateLimitProperties;
+import com.family.diary.common.utils.common.CommonResponse;
+import com.family.diary.common.utils.ratelimit.RedisRateLimiter;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分布式限流Filter
+ * 按配置的策略（路径 + 维度）对请求限流，被限流时返回429并携带Retry-After
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private static final String REAL_IP_HEADER = "X-Real-IP";
+
+    private final RedisRateLimiter rateLimiter;
+
+    private final RateLimitProperties properties;
+
+    private final TokenService tokenService;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * 受信任代理地址匹配器（按需构建一次）
+     */
+    private volatile List<IpAddressMatcher> trustedProxyMatchers;
+
+    @Value("${jwt.token-header}")
+    private String tokenHeader;
+
+    @Value("${jwt.token-prefix}")
+    private String tokenPrefix;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled() || properties.getPolicies().isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        var path = resolvePath(request);
+        for (RateLimitPolicy policy : properties.getPolicies()) {
+            if (!matches(policy, request.getMethod(), path)) {
+                continue;
+            }
+            var key = resolveKey(policy.getKeyType(), request, path);
+            var decision = rateLimiter.tryAcquire(policy, key);
+            if (!decision.allowed()) {
+                log.warn("请求被限流, policy: {}, key: {}, uri: {}", policy.getName(), key, request.getRequestURI());
+                var retryAfterSeconds = Math.max(1L, (decision.retryAfterMs() + 999L) / 1000L);
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                CommonResponse.writeErrorResponse(
+                        response,
+                        ResponseErrorCode.TOO_MANY_REQUESTS,
+                        ResponseMessageConstants.TOO_MANY_REQUESTS,
+                        Map.of("retryAfterMs", decision.retryAfterMs())
+                );
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean matches(RateLimitPolicy policy, String method, String path) {
+        if (!policy.getMethods().isEmpty()
+                && policy.getMethods().stream().noneMatch(allowed -> allowed.equalsIgnoreCase(method))) {
+            return false;
+        }
+        return policy.getPatterns().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    /**
+     * 解析限流维度对应的调用方标识
+     *
+     * @param keyType 限流维度
+     * @param request 请求
+     * @param path    去掉context path后的路径
+     * @return 调用方标识
+     */
+    private String resolveKey(RateLimitKeyType keyType, HttpServletRequest request, String path) {
+        return switch (keyType) {
+            case ROUTE -> "route:" + request.getMethod() + path;
+            case OPEN_ID -> {
+                var openId = resolveOpenId(request);
+                yield openId != null ? "openid:" + openId : "ip:" + resolveClientIp(request);
+            }
+            case IP -> "ip:" + resolveClientIp(request);
+        };
+    }
+
+    /**
+     * 解析调用方openId：只使用验签通过的Access Token主体，不读取任何请求参数
+     * （读取参数会让容器在限流判定前解析并落盘整个multipart请求体）
+     *
+     * @param request 请求
+     * @return 验签通过的openId，缺失或无效时为null
+     */
+    private String resolveOpenId(HttpServletRequest request) {
+        var verifiedToken = resolveVerifiedToken(request);
+        return verifiedToken != null ? verifiedToken.subject() : null;
+    }
+
+    /**
+     * 验签Authorization中的Access Token，结果写入请求属性供JwtRequestFilter复用
+     * 只信任验签通过的主体，避免伪造他人openId耗尽其令牌桶
+     *
+     * @param request 请求
+     * @return 已验签的Token，缺失或无效时为null
+     */
+    private VerifiedToken resolveVerifiedToken(HttpServletRequest request) {
+        var authorizationHeader = request.getHeader(tokenHeader);
+        if (authorizationHeader == null || !authorizationHeader.startsWith(tokenPrefix)) {
+            return null;
+        }
+        try {
+            var verifiedToken = tokenService.parseToken(
+                    authorizationHeader.substring(tokenPrefix.trim().length() + 1));
+            request.setAttribute(JWTConstants.REQUEST_ATTRIBUTE_VERIFIED_TOKEN, verifiedToken);
+            return verifiedToken;
+        } catch (JwtException | IllegalArgumentException e) {
+            // Token过期或无效交由JwtRequestFilter处理
+            return null;
+        }
+    }
+
+    /**
+     * 解析客户端IP
+     * 直连地址不是受信任代理时直接使用直连地址；否则自右向左遍历X-Forwarded-For，
+     * 取第一个不受信任的地址（最左侧的地址由客户端自行填写，不可信）
+     *
+     * @param request 请求
+     * @return 客户端IP
+     */
+    private String resolveClientIp(HttpServletRequest request) {
+        var remoteAddr = request.getRemoteAddr();
+        if (!properties.isTrustForwardedHeaders() || !isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
+        }
+        var forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+        if (StringUtils.hasText(forwardedFor)) {
+            var hops = forwardedFor.split(",");
+            var clientIp = remoteAddr;
+            for (int i = hops.length - 1; i >= 0; i--) {
+                var hop = hops[i].trim();
+                if (!StringUtils.hasText(hop)) {
+                    continue;
+                }
+                clientIp = hop;
+                if (!isTrustedProxy(hop)) {
+                    break;
+                }
+            }
+            return clientIp;
+        }
+        var realIp = request.getHeader(REAL_IP_HEADER);
+        return StringUtils.hasText(realIp) ? realIp.trim() : remoteAddr;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher matcher : trustedProxyMatchers()) {
+            try {
+                if (matcher.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // 非法地址一律视为不受信任
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private List<IpAddressMatcher> trustedProxyMatchers() {
+        var matchers = trustedProxyMatchers;
+        if (matchers == null) {
+            matchers = properties.getTrustedProxies().stream()
+                    .filter(StringUtils::hasText)
+                    .map(proxy -> new IpAddressMatcher(proxy.trim()))
+                    .toList();
+            trustedProxyMatchers = matchers;
+        }
+        return matchers;
+    }
+
+    private String resolvePath(HttpServletRequest request) {
+        var requestUri = request.getRequestURI();
+        var contextPath = request.getContextPath();
+        if (contextPath != null && !contextPath.isEmpty() && requestUri.startsWith(contextPath)) {
+            return requestUri.substring(contextPath.length());
+        }
+        return requestUri;
+    }
+}
@@ -43,12 +43,14 @@ import java.util.Map;
 public class TraceIdFilter extends OncePerRequestFilter {
 
     /**
-     * 不需要 TraceId 的路径（Swagger、Actuator 等）
+     * 不需要 TraceId 的路径（Swagger、Actuator、探活等）
      */
     private static final List<String> EXCLUDED_PATHS = List.of(
             "/swagger-ui",
             "/v3/api-docs",
-            "/actuator"
+            "/actuator",
+            "/livez",
+            "/readyz"
     );
 
     @Value("${log-trace.trace-header}")
@@ -16,12 +16,14 @@
 package com.family.diary.api.filters.jwt;
 
 import com.family.diary.api.service.user.UserService;
+import com.family.diary.common.constants.common.JWTConstants;
 import com.family.diary.common.constants.response.ResponseMessageConstants;
 import com.family.diary.common.enums.errors.ResponseErrorCode;
+import com.family.diary.common.models.jwt.VerifiedToken;
 import com.family.diary.common.utils.common.CommonResponse;
 import com.family.diary.api.service.token.TokenService;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -69,21 +71,24 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final var authorizationHeader = request.getHeader(tokenHeader);
 
-        String openId = null;
-        String jwt = null;
+        VerifiedToken verifiedToken = null;
         boolean tokenExpired = false;
 
         // 检查Authorization Header是否存在且以"Bearer "开头
         if (authorizationHeader != null && authorizationHeader.startsWith(tokenPrefix)) {
-            jwt = authorizationHeader.substring(tokenPrefix.trim().length() + 1); // 去掉"Bearer "前缀
+            var jwt = authorizationHeader.substring(tokenPrefix.trim().length() + 1); // 去掉"Bearer "前缀
             try {
-                openId = tokenService.extractOpenId(jwt);
+                // 整个请求只验签一次，后续校验复用解析结果（前置的限流Filter可能已完成验签）
+                var parsed = request.getAttribute(JWTConstants.REQUEST_ATTRIBUTE_VERIFIED_TOKEN);
+                if (parsed instanceof VerifiedToken verified && jwt.equals(verified.token())) {
+                    verifiedToken = verified;
+                } else {
+                    verifiedToken = tokenService.parseToken(jwt);
+                }
             } catch (ExpiredJwtException e) {
-                log.warn("Access Token已过期", e);
+                log.warn("Access Token已过期, openId: {}", e.getClaims().getSubject());
                 tokenExpired = true;
-                // 从过期的token中提取openId
-                openId = e.getClaims().getSubject();
-            } catch (MalformedJwtException e) {
+            } catch (JwtException | IllegalArgumentException e) {
                 log.warn("JWT Token无效", e);
             }
         }
@@ -94,12 +99,13 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             return;
         }
 
-        // 如果提取到了用户名，并且当前没有认证
-        if (openId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = userService.findByOpenId(openId);
+        // 如果Token验签通过，并且当前没有认证
+        if (verifiedToken != null && verifiedToken.subject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null
+                && tokenService.validateAccessToken(verifiedToken)) {
+            var userDetails = userService.findPrincipalByOpenId(verifiedToken.subject());
 
-            // 验证Access Token
-            if (userDetails != null && tokenService.validateAccessToken(jwt, openId)) {
+            if (userDetails != null) {
                 // 创建认证对象
                 var authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, new ArrayList<>());
@@ -22,6 +22,7 @@ import com.family.diary.api.service.token.TokenService;
 import com.family.diary.api.service.token.model.TokenPair;
 import com.family.diary.common.constants.response.ResponseMessageConstants;
 import com.family.diary.common.exceptions.UnauthorizedException;
+import com.family.diary.common.models.jwt.VerifiedToken;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import lombok.RequiredArgsConstructor;
@@ -47,10 +48,10 @@ public class TokenAppServiceImpl implements TokenAppService {
         log.info("收到Token刷新请求");
 
         String refreshToken = request.getRefreshToken();
-        String openId;
+        VerifiedToken verifiedToken;
 
         try {
-            openId = tokenService.extractOpenId(refreshToken);
+            verifiedToken = tokenService.parseToken(refreshToken);
         } catch (ExpiredJwtException e) {
             log.warn("Refresh Token已过期");
             throw new UnauthorizedException(ResponseMessageConstants.REFRESH_TOKEN_EXPIRED);
@@ -62,12 +63,13 @@ public class TokenAppServiceImpl implements TokenAppService {
             throw new UnauthorizedException(ResponseMessageConstants.REFRESH_TOKEN_INVALID);
         }
 
-        if (!tokenService.validateRefreshToken(refreshToken, openId)) {
-            log.warn("Refresh Token验证失败, openId: {}", openId);
-            throw new UnauthorizedException(ResponseMessageConstants.REFRESH_TOKEN_INVALID);
-        }
-
-        TokenPair tokens = tokenService.issueTokens(openId);
+        // 比较并交换与新Token对写入在Redis中原子完成，并发刷新不会互相覆盖
+        String openId = verifiedToken.subject();
+        TokenPair tokens = tokenService.rotateTokens(verifiedToken)
+                .orElseThrow(() -> {
+                    log.warn("Refresh Token验证失败, openId: {}", openId);
+                    return new UnauthorizedException(ResponseMessageConstants.REFRESH_TOKEN_INVALID);
+                });
 
         log.info("Token刷新成功, openId: {}", openId);
 
@@ -15,8 +15,10 @@
 
 package com.family.diary.api.service.tencentcloud;
 
+import com.family.diary.common.enums.image.ImageVariant;
 import com.family.diary.common.exceptions.BaseException;
 import com.family.diary.domain.entity.tencentcloud.cos.COSAvatarUploadEntity;
+import org.springframework.core.io.InputStreamSource;
 
 /**
  * COS对象服务Service
@@ -34,11 +36,31 @@ public interface COSService {
      */
     String uploadAvatarToCOS(COSAvatarUploadEntity entity) throws BaseException;
 
+    /**
+     * 以流式方式上传头像到腾讯云COS，图片类型由文件头魔数识别
+     *
+     * @param openid 用户的唯一标识
+     * @param image  头像数据源
+     * @param size   头像大小（字节）
+     * @return 上传后的临时图片URL
+     * @throws BaseException 如果图片过大、格式不支持或上传失败
+     */
+    String uploadAvatarStreamToCOS(String openid, InputStreamSource image, long size) throws BaseException;
+
     /**
      * 获取用户头像的临时URL
      *
      * @param openid 用户的唯一标识
-     * @return 用户头像的URL
+     * @return 用户头像的URL，用户没有头像时返回null
      */
     String getAvatarUrl(String openid);
+
+    /**
+     * 获取用户头像指定规格的临时URL
+     *
+     * @param openid  用户的唯一标识
+     * @param variant 图片规格，为null时返回原图
+     * @return 用户头像的URL，用户没有头像时返回null
+     */
+    String getAvatarUrl(String openid, ImageVariant variant);
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.api.service.tencentcloud.cache;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.constants.tencentcloud.COSConstants;
+import com.family.diary.common.utils.redis.RedisLoadingCache;
+import com.family.diary.domain.entity.tencentcloud.cos.AvatarEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * 用户头像元数据缓存
+ * 未上传头像的用户同样缓存一个占位值（负缓存），避免每次都回源数据库与COS；上传头像时直接覆盖
+ * 缓存值格式为 版本号|格式|更新时间|已生成规格|对象Key
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class AvatarMetadataCache {
+    /**
+     * 负缓存占位值，表示用户没有头像
+     */
+    static final String ABSENT = "-";
+
+    private static final String SEPARATOR = "|";
+
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile(Pattern.quote(SEPARATOR));
+
+    private static final int FIELD_COUNT = 5;
+
+    private final RedisLoadingCache redisLoadingCache;
+
+    private final Duration ttl;
+
+    public AvatarMetadataCache(RedisLoadingCache redisLoadingCache,
+                               @Value("${tencent-cloud.cos.avatar.metadata-ttl:1h}") Duration ttl) {
+        this.redisLoadingCache = redisLoadingCache;
+        this.ttl = ttl;
+    }
+
+    /**
+     * 获取头像元数据，未命中时通过loader加载并缓存（包括不存在的结果）
+     *
+     * @param openId 微信OpenID
+     * @param loader 加载函数，用户没有头像时返回null
+     * @return 头像元数据，用户没有头像时返回null
+     */
+    public AvatarEntity get(String openId, Function<String, AvatarEntity> loader) {
+        var value = redisLoadingCache.getOrLoad(buildCacheKey(openId), ttl, () -> encode(loader.apply(openId)));
+        var avatar = decode(openId, value);
+        if (avatar == null && value != null && !ABSENT.equals(value)) {
+            // 缓存值无法解析（如字段调整前写入的旧格式），按未命中处理并覆盖
+            avatar = loader.apply(openId);
+            if (avatar != null) {
+                put(avatar);
+            }
+        }
+        return avatar;
+    }
+
+    /**
+     * 写入头像元数据，覆盖旧值或负缓存
+     *
+     * @param avatar 头像元数据
+     */
+    public void put(AvatarEntity avatar) {
+        var success = redisLoadingCache.put(buildCacheKey(avatar.getOpenId()), ttl, encode(avatar));
+        if (!success) {
+            log.warn("Redis 缓存头像元数据失败，openid: {}", avatar.getOpenId());
+        }
+    }
+
+    /**
+     * 删除头像元数据缓存，用于数据库中的元数据被异步更新（如规格生成完成）后让下次读取重新加载
+     *
+     * @param openId 微信OpenID
+     */
+    public void evict(String openId) {
+        redisLoadingCache.evict(buildCacheKey(openId));
+    }
+
+    static String encode(AvatarEntity avatar) {
+        if (avatar == null) {
+            return ABSENT;
+        }
+        return String.join(SEPARATOR,
+                String.valueOf(avatar.getVersion()),
+                avatar.getFormat(),
+                avatar.getUpdatedAt() != null ? avatar.getUpdatedAt().toString() : "",
+                avatar.getVariants() != null ? avatar.getVariants() : "",
+                avatar.getObjectKey());
+    }
+
+    static AvatarEntity decode(String openId, String value) {
+        if (value == null || value.isEmpty() || ABSENT.equals(value)) {
+            return null;
+        }
+        var fields = SEPARATOR_PATTERN.split(value, FIELD_COUNT);
+        if (fields.length != FIELD_COUNT) {
+            log.warn("头像元数据缓存格式错误，openid: {}，值: {}", openId, value);
+            return null;
+        }
+        return AvatarEntity.builder()
+                .openId(openId)
+                .version(Long.parseLong(fields[0]))
+                .format(fields[1])
+                .createdAt(null)
+                .updatedAt(fields[2].isEmpty() ? null : LocalDateTime.parse(fields[2]))
+                .variants(fields[3].isEmpty() ? null : fields[3])
+                .objectKey(fields[4])
+                .build();
+    }
+
+    private String buildCacheKey(String openId) {
+        return COSConstants.AVATARS_METADATA_CACHE_KEY_PREFIX + RedisConstants.REDIS_KEY_CONNECTOR + openId;
+    }
+}
@@ -16,21 +16,32 @@
 package com.family.diary.api.service.tencentcloud.impl;
 
 import com.family.diary.api.service.tencentcloud.COSService;
+import com.family.diary.api.service.tencentcloud.cache.AvatarMetadataCache;
 import com.family.diary.common.clients.cos.CosStorageClient;
 import com.family.diary.common.constants.common.ImageConstants;
 import com.family.diary.common.constants.tencentcloud.COSConstants;
 import com.family.diary.common.enums.errors.ExceptionErrorCode;
+import com.family.diary.common.enums.image.ImageVariant;
 import com.family.diary.common.exceptions.BaseException;
+import com.family.diary.common.utils.common.ImageTypeSniffer;
 import com.family.diary.common.utils.common.ImageUtils;
-import com.family.diary.common.utils.redis.RedisUtil;
+import com.family.diary.common.utils.image.ImageVariantPipeline;
+import com.family.diary.common.utils.redis.RedisLoadingCache;
+import com.family.diary.domain.entity.tencentcloud.cos.AvatarEntity;
 import com.family.diary.domain.entity.tencentcloud.cos.COSAvatarUploadEntity;
+import com.family.diary.domain.repository.tencentcloud.cos.AvatarRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.logging.log4j.util.Strings;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 /**
  * COS对象服务Service实现类
@@ -42,12 +53,32 @@ import java.util.concurrent.TimeUnit;
 @Service
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class COSServiceImpl implements COSService {
+    /**
+     * 头像链接缓存Key包含元数据版本号，头像不变时链接保持稳定，便于客户端与CDN缓存；
+     * 有效期需小于链接本身的有效期（MAX_VALID_TIME）
+     */
+    private static final Duration AVATAR_CACHE_TTL = Duration.ofHours(12);
+
+    /**
+     * 元数据上线前头像可能的历史格式，按顺序探测
+     */
+    private static final List<String> LEGACY_AVATAR_FORMATS = List.of(ImageConstants.IMAGE_PNG_FORMAT,
+            ImageConstants.IMAGE_JPEG_FORMAT, ImageConstants.IMAGE_JPG_FORMAT, ImageConstants.IMAGE_GIF_FORMAT);
+
+    private static final long MAX_IMAGE_SIZE_BYTES = ImageConstants.MAX_IMAGE_SIZE_MB * 1024L * 1024L;
+
     private final CosStorageClient cosStorageClient;
 
-    private final RedisUtil redisUtil;
+    private final RedisLoadingCache redisLoadingCache;
 
     private final ImageUtils imageUtils;
 
+    private final ImageVariantPipeline imageVariantPipeline;
+
+    private final AvatarRepository avatarRepository;
+
+    private final AvatarMetadataCache avatarMetadataCache;
+
     @Override
     public String uploadAvatarToCOS(COSAvatarUploadEntity entity) throws BaseException {
         var openid = entity.getOpenId();
@@ -60,44 +91,176 @@ public class COSServiceImpl implements COSService {
             log.error("上传头像到 COS 失败，文件存储路径：{}", filePath);
             throw new BaseException(ExceptionErrorCode.COMMON_ERROR, "上传头像到 COS 失败");
         }
-        saveAvatarCache(openid, imageUrl);
+        saveAvatar(openid, filePath, fileFormat);
         log.info("上传图片到 COS 成功，文件存储路径：{}，临时访问地址：{}", filePath, imageUrl);
         return imageUrl;
     }
 
+    @Override
+    public String uploadAvatarStreamToCOS(String openid, InputStreamSource image, long size) throws BaseException {
+        if (size <= 0) {
+            throw new BaseException(ExceptionErrorCode.INVALID_PARAM, "头像文件不能为空");
+        }
+        if (size > MAX_IMAGE_SIZE_BYTES) {
+            throw new BaseException(ExceptionErrorCode.PAYLOAD_TOO_LARGE,
+                    String.format("头像大小不能超过 %dMB", ImageConstants.MAX_IMAGE_SIZE_MB));
+        }
+        var contentType = sniffContentType(image);
+        var fileFormat = contentType.replace(ImageConstants.IMAGE_PREFIX, Strings.EMPTY);
+        var filePath = buildFilePathWithId(openid, COSConstants.AVATARS_DIR, fileFormat);
+        var imageUrl = cosStorageClient.uploadImage(image, size, contentType, filePath);
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            log.error("流式上传头像到 COS 失败，文件存储路径：{}", filePath);
+            throw new BaseException(ExceptionErrorCode.COMMON_ERROR, "上传头像到 COS 失败");
+        }
+        saveAvatar(openid, filePath, fileFormat);
+        log.info("流式上传图片到 COS 成功，文件存储路径：{}，大小：{} 字节", filePath, size);
+        return imageUrl;
+    }
+
     @Override
     public String getAvatarUrl(String openid) {
-        log.info("试图获取用户头像的临时链接，openid:{}", openid);
-        var cacheKey = getAvatarCacheKey(openid);
-        // 使用 RedisUtil 从缓存中获取
-        var cachedUrl = (String) redisUtil.get(cacheKey);
-        if (cachedUrl != null && !cachedUrl.isEmpty()) {
-            log.info("从 Redis 缓存中获取到用户头像链接，openid:{}", openid);
-            return cachedUrl;
+        return getAvatarUrl(openid, null);
+    }
+
+    @Override
+    public String getAvatarUrl(String openid, ImageVariant variant) {
+        var avatar = avatarMetadataCache.get(openid, this::loadAvatarMetadata);
+        if (avatar == null) {
+            return null;
         }
-        // 缓存未命中，生成新链接并缓存
-        log.info("Redis 缓存未命中，生成新的头像链接，openid:{}", openid);
-        var filePath = buildFilePathWithId(openid, COSConstants.AVATARS_DIR, ImageConstants.IMAGE_PNG_FORMAT);
-        var avatarUrl = cosStorageClient.generatePresignedUrl(filePath, ImageConstants.MAX_VALID_TIME);
-        if (avatarUrl != null && !avatarUrl.isBlank()) {
-            saveAvatarCache(openid, avatarUrl);
+        // 当前版本的规格图尚未生成（或生成失败）时回退到原图，不为该规格缓存原图链接
+        var resolved = variant != null && ImageVariant.parseCodes(avatar.getVariants()).contains(variant)
+                ? variant
+                : null;
+        // 缓存过期时每个节点最多一个请求重新签名，其余请求返回旧链接或等待结果
+        return redisLoadingCache.getOrLoad(getAvatarCacheKey(openid, avatar.getVersion(), resolved), AVATAR_CACHE_TTL,
+                () -> {
+                    log.info("头像链接缓存未命中，生成新的头像链接，openid:{}，版本：{}，规格：{}",
+                            openid, avatar.getVersion(), resolved);
+                    var objectKey = resolved == null
+                            ? avatar.getObjectKey()
+                            : resolved.deriveKey(avatar.getObjectKey(), avatar.getVersion());
+                    return cosStorageClient.generatePresignedUrl(objectKey, ImageConstants.MAX_VALID_TIME);
+                });
+    }
+
+    private String sniffContentType(InputStreamSource image) {
+        try (var inputStream = image.getInputStream()) {
+            var contentType = ImageTypeSniffer.sniff(inputStream);
+            if (contentType == null) {
+                throw new BaseException(ExceptionErrorCode.UNSUPPORTED_MEDIA_TYPE, "不支持的图片格式");
+            }
+            return contentType;
+        } catch (IOException e) {
+            throw new BaseException(ExceptionErrorCode.INVALID_PARAM, "读取头像文件失败", e);
         }
-        return avatarUrl;
     }
 
     private String buildFilePathWithId(String id, String dir, String fileFormat) {
         return String.format("%s/%s.%s", dir, id, fileFormat);
     }
 
-    private void saveAvatarCache(String openid, String avatarUrl) {
-        var cacheKey = getAvatarCacheKey(openid);
-        var success = redisUtil.setWithExpire(cacheKey, avatarUrl, 3600, TimeUnit.SECONDS);
+    /**
+     * 上传成功后保存头像元数据（版本号递增），刷新元数据缓存与新版本的链接缓存，并提交规格生成
+     * 上传返回的链接有效期较短，缓存的链接按MAX_VALID_TIME重新签名（本地计算，无网络开销）
+     */
+    private void saveAvatar(String openid, String filePath, String fileFormat) {
+        var avatar = avatarRepository.upsert(openid, filePath, fileFormat);
+        avatarMetadataCache.put(avatar);
+        saveAvatarCache(openid, avatar.getVersion(),
+                cosStorageClient.generatePresignedUrl(filePath, ImageConstants.MAX_VALID_TIME));
+        submitVariants(avatar);
+    }
+
+    /**
+     * 提交当前版本的规格生成，完成后将已生成的规格记录到元数据并淘汰元数据缓存，
+     * 此后对应规格的请求才会指向规格图；期间已重新上传（版本号变化）时放弃记录，并删除本次生成的规格图。
+     * 读取只会使用当前版本记录的规格，因此无论本次生成成功、被放弃还是失败，上一版本的规格图都在结束后删除
+     */
+    private void submitVariants(AvatarEntity avatar) {
+        var openid = avatar.getOpenId();
+        var version = avatar.getVersion();
+        // 生成失败已由流水线记录日志，此处只记录成功生成的规格
+        imageVariantPipeline.submit(avatar.getObjectKey(), version).whenComplete((keys, e) -> {
+            if (keys != null && !keys.isEmpty()) {
+                recordVariants(openid, version, keys);
+            }
+            deleteVariants(openid, previousVariantKeys(avatar.getObjectKey(), version));
+        });
+    }
+
+    private void recordVariants(String openid, long version, Map<ImageVariant, String> keys) {
+        try {
+            if (avatarRepository.updateVariants(openid, version, ImageVariant.joinCodes(keys.keySet()))) {
+                avatarMetadataCache.evict(openid);
+            } else {
+                log.info("头像已更新，放弃记录旧版本规格，openid: {}，版本：{}", openid, version);
+                deleteVariants(openid, List.copyOf(keys.values()));
+            }
+        } catch (Exception e) {
+            log.warn("记录头像规格失败，openid: {}，版本：{}", openid, version, e);
+        }
+    }
+
+    /**
+     * 从数据库加载头像元数据；元数据上线前上传的头像没有记录，按历史格式在COS中探测一次并补录
+     */
+    private AvatarEntity loadAvatarMetadata(String openid) {
+        var avatar = avatarRepository.findByOpenId(openid);
+        if (avatar != null) {
+            return avatar;
+        }
+        for (var format : LEGACY_AVATAR_FORMATS) {
+            var objectKey = buildFilePathWithId(openid, COSConstants.AVATARS_DIR, format);
+            if (cosStorageClient.exists(objectKey)) {
+                log.info("补录历史头像元数据，openid: {}，文件存储路径：{}", openid, objectKey);
+                var legacyAvatar = avatarRepository.upsert(openid, objectKey, format);
+                submitVariants(legacyAvatar);
+                return legacyAvatar;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 上一版本全部规格图的对象Key；规格图Key只取原图Key去掉扩展名的部分，原图格式变化不影响推导
+     */
+    private List<String> previousVariantKeys(String objectKey, long version) {
+        if (version <= 1) {
+            return List.of();
+        }
+        return Arrays.stream(ImageVariant.values())
+                .map(variant -> variant.deriveKey(objectKey, version - 1))
+                .toList();
+    }
+
+    /**
+     * 删除不再使用的规格图，失败只记录日志，不影响当前版本
+     */
+    private void deleteVariants(String openid, List<String> objectKeys) {
+        if (objectKeys.isEmpty()) {
+            return;
+        }
+        try {
+            cosStorageClient.deleteObjects(objectKeys);
+        } catch (Exception e) {
+            log.warn("删除头像旧规格图失败，openid: {}，对象：{}", openid, objectKeys, e);
+        }
+    }
+
+    private void saveAvatarCache(String openid, long version, String avatarUrl) {
+        var success = redisLoadingCache.put(getAvatarCacheKey(openid, version, null), AVATAR_CACHE_TTL, avatarUrl);
         if (!success) {
             log.warn("Redis 缓存头像链接失败，openid: {}", openid);
         }
     }
 
-    private String getAvatarCacheKey(String openid) {
-        return String.format("%s:%s", COSConstants.AVATARS_CACHE_KEY_PREFIX, openid);
+    private String getAvatarCacheKey(String openid, long version, ImageVariant variant) {
+        if (variant == null) {
+            return String.format("%s:%s:v%d", COSConstants.AVATARS_CACHE_KEY_PREFIX, openid, version);
+        }
+        return String.format("%s:%s:v%d:%s", COSConstants.AVATARS_CACHE_KEY_PREFIX, openid, version,
+                variant.getCode());
     }
 }
@@ -16,6 +16,9 @@
 package com.family.diary.api.service.token;
 
 import com.family.diary.api.service.token.model.TokenPair;
+import com.family.diary.common.models.jwt.VerifiedToken;
+
+import java.util.Optional;
 
 /**
  * Token服务接口
@@ -33,30 +36,36 @@ public interface TokenService {
     TokenPair issueTokens(String openId);
 
     /**
-     * 从Token中解析openId
+     * 解析并验签Token，后续校验复用该结果
      *
      * @param token token
-     * @return openId
+     * @return 已验签的Token
      */
-    String extractOpenId(String token);
+    VerifiedToken parseToken(String token);
 
     /**
      * 校验Access Token
      *
-     * @param token  token
-     * @param openId openId
+     * @param token 已验签的Token
      * @return true/false
      */
-    boolean validateAccessToken(String token, String openId);
+    boolean validateAccessToken(VerifiedToken token);
 
     /**
      * 校验Refresh Token
      *
-     * @param token  token
-     * @param openId openId
+     * @param token 已验签的Token
      * @return true/false
      */
-    boolean validateRefreshToken(String token, String openId);
+    boolean validateRefreshToken(VerifiedToken token);
+
+    /**
+     * 使用Refresh Token原子轮换Token对
+     *
+     * @param refreshToken 已验签的Refresh Token
+     * @return 新的TokenPair，Refresh Token无效或已被轮换时为空
+     */
+    Optional<TokenPair> rotateTokens(VerifiedToken refreshToken);
 
     /**
      * 使当前用户的所有Token失效
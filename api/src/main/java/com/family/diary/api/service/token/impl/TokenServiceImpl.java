@@ -17,11 +17,15 @@ package com.family.diary.api.service.token.impl;
 
 import com.family.diary.api.service.token.TokenService;
 import com.family.diary.api.service.token.model.TokenPair;
+import com.family.diary.common.enums.jwt.TokenType;
+import com.family.diary.common.models.jwt.VerifiedToken;
 import com.family.diary.common.utils.web.jwt.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 /**
  * Token服务实现类
  *
@@ -36,24 +40,32 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public TokenPair issueTokens(String openId) {
-        String accessToken = jwtUtil.generateAccessToken(openId);
-        String refreshToken = jwtUtil.generateRefreshToken(openId);
-        return new TokenPair(accessToken, refreshToken);
+        var tokens = jwtUtil.generateTokens(openId);
+        return new TokenPair(tokens.get(TokenType.ACCESS), tokens.get(TokenType.REFRESH));
+    }
+
+    @Override
+    public VerifiedToken parseToken(String token) {
+        return jwtUtil.parse(token);
     }
 
     @Override
-    public String extractOpenId(String token) {
-        return jwtUtil.extractOpenId(token);
+    public boolean validateAccessToken(VerifiedToken token) {
+        return jwtUtil.validateAccessToken(token);
     }
 
     @Override
-    public boolean validateAccessToken(String token, String openId) {
-        return jwtUtil.validateAccessToken(token, openId);
+    public boolean validateRefreshToken(VerifiedToken token) {
+        return jwtUtil.validateRefreshToken(token);
     }
 
     @Override
-    public boolean validateRefreshToken(String token, String openId) {
-        return jwtUtil.validateRefreshToken(token, openId);
+    public Optional<TokenPair> rotateTokens(VerifiedToken refreshToken) {
+        var result = jwtUtil.rotateTokens(refreshToken);
+        if (!result.isSuccessful()) {
+            return Optional.empty();
+        }
+        return Optional.of(new TokenPair(result.accessToken(), result.refreshToken()));
     }
 
     @Override
@@ -47,4 +47,20 @@ public interface UserService {
      * @return 用户实体
      */
     UserEntity findByOpenId(String openId);
+
+    /**
+     * 通过微信OpenID查询用户Principal（优先读取缓存，不含密码）
+     *
+     * @param openId 微信用户OpenID
+     * @return 不含密码的用户快照
+     */
+    UserEntity findPrincipalByOpenId(String openId);
+
+    /**
+     * 更新用户密文密码
+     *
+     * @param openId          微信用户OpenID
+     * @param encodedPassword 密文密码
+     */
+    void updatePassword(String openId, String encodedPassword);
 }
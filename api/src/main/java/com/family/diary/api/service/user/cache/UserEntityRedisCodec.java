@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.api.service.user.cache;
+
+import com.family.diary.common.enums.status.UserEmotionStatus;
+import com.family.diary.common.enums.status.UserFlagStatus;
+import com.family.diary.common.utils.redis.codec.BinaryRedisCodec;
+import com.family.diary.domain.entity.user.UserEntity;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 用户Principal快照的二进制编解码器
+ * 字段按固定顺序写入，不包含密码；字段布局变化时需递增VERSION
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public class UserEntityRedisCodec extends BinaryRedisCodec<UserEntity> {
+
+    private static final byte VERSION = 1;
+
+    @Override
+    protected byte version() {
+        return VERSION;
+    }
+
+    @Override
+    protected void write(UserEntity user, DataOutputStream out) throws IOException {
+        writeLong(out, user.getId());
+        writeDateTime(out, user.getCreatedAt());
+        writeDateTime(out, user.getUpdatedAt());
+        writeDateTime(out, user.getDeletedAt());
+        writeString(out, user.getOpenId());
+        writeString(out, user.getUsername());
+        writeDate(out, user.getBirthday());
+        writeString(out, user.getPhone());
+        writeString(out, user.getDescription());
+        writeEnum(out, user.getStatus());
+        writeEnum(out, user.getFlag());
+    }
+
+    @Override
+    protected UserEntity read(DataInputStream in) throws IOException {
+        return UserEntity.builder()
+                .id(readLong(in))
+                .createdAt(readDateTime(in))
+                .updatedAt(readDateTime(in))
+                .deletedAt(readDateTime(in))
+                .openId(readString(in))
+                .username(readString(in))
+                .birthday(readDate(in))
+                .phone(readString(in))
+                .description(readString(in))
+                .status(readEnum(in, UserEmotionStatus.class))
+                .flag(readEnum(in, UserFlagStatus.class))
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "user-principal";
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.api.service.user.cache;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.utils.redis.RedisUtil;
+import com.family.diary.common.utils.redis.codec.CompressingRedisCodec;
+import com.family.diary.common.utils.redis.codec.InstrumentedRedisCodec;
+import com.family.diary.common.utils.redis.codec.RedisCodec;
+import com.family.diary.common.utils.redis.invalidation.LocalCacheInvalidationBus;
+import com.family.diary.common.utils.redis.invalidation.LocalCacheInvalidationListener;
+import com.family.diary.domain.entity.user.UserEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 用户Principal两级缓存（本地 + Redis）
+ * 缓存不含密码的用户快照，供认证过滤器构建认证对象，稳态下的认证请求不再访问MySQL
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class UserPrincipalCache {
+
+    private static final String METRIC_PREFIX = "user.principal";
+
+    private final RedisUtil redisUtil;
+
+    private final LocalCacheInvalidationBus invalidationBus;
+
+    private final RedisCodec<UserEntity> codec;
+
+    private final boolean enabled;
+
+    private final Duration redisTtl;
+
+    private final Cache<String, UserEntity> localCache;
+
+    private final Counter redisHitCounter;
+
+    private final Counter redisMissCounter;
+
+    private final Timer loadTimer;
+
+    /**
+     * 失效版本号：每次失效自增，用于丢弃失效期间并发写入的旧快照
+     */
+    private final AtomicLong invalidationVersion = new AtomicLong();
+
+    public UserPrincipalCache(RedisUtil redisUtil,
+                              LocalCacheInvalidationBus invalidationBus,
+                              MeterRegistry meterRegistry,
+                              @Value("${user.principal-cache.enabled:true}") boolean enabled,
+                              @Value("${user.principal-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${user.principal-cache.local-ttl:60s}") Duration localTtl,
+                              @Value("${user.principal-cache.redis-ttl:30m}") Duration redisTtl,
+                              @Value("${user.principal-cache.compression-threshold:512}") int compressionThreshold) {
+        this.redisUtil = redisUtil;
+        this.invalidationBus = invalidationBus;
+        this.codec = new InstrumentedRedisCodec<>(
+                new CompressingRedisCodec<>(new UserEntityRedisCodec(), compressionThreshold), meterRegistry);
+        this.enabled = enabled;
+        this.redisTtl = redisTtl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, METRIC_PREFIX + ".local");
+        this.redisHitCounter = Counter.builder(METRIC_PREFIX + ".redis")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.redisMissCounter = Counter.builder(METRIC_PREFIX + ".redis")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder(METRIC_PREFIX + ".load")
+                .description("缓存未命中时从数据库加载用户的耗时")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 注册到本地缓存失效总线，Key为openId
+     */
+    @PostConstruct
+    public void register() {
+        if (enabled) {
+            invalidationBus.register(METRIC_PREFIX,
+                    LocalCacheInvalidationListener.of(localCache, invalidationVersion::incrementAndGet));
+        }
+    }
+
+    /**
+     * 获取用户Principal快照，依次查询本地缓存、Redis、数据库
+     * 返回的快照为共享只读对象，调用方不应修改
+     *
+     * @param openId 微信OpenID
+     * @param loader 数据库加载函数
+     * @return 不含密码的用户快照，用户不存在时返回null
+     */
+    public UserEntity get(String openId, Function<String, UserEntity> loader) {
+        if (!enabled) {
+            var user = loader.apply(openId);
+            return user != null ? toSnapshot(user) : null;
+        }
+
+        var local = localCache.getIfPresent(openId);
+        if (local != null) {
+            return local;
+        }
+
+        var version = invalidationVersion.get();
+        var cached = readRedis(openId);
+        if (cached != null) {
+            redisHitCounter.increment();
+            putLocal(openId, cached, version);
+            return cached;
+        }
+        redisMissCounter.increment();
+
+        var start = System.nanoTime();
+        var user = loader.apply(openId);
+        loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (user == null) {
+            return null;
+        }
+
+        var snapshot = toSnapshot(user);
+        writeRedis(openId, snapshot);
+        putLocal(openId, snapshot, version);
+        return snapshot;
+    }
+
+    /**
+     * 失效用户的Principal缓存（Redis与所有节点的本地缓存）
+     *
+     * @param openId 微信OpenID
+     */
+    public void invalidate(String openId) {
+        if (!enabled) {
+            return;
+        }
+        invalidationBus.invalidate(METRIC_PREFIX, openId);
+        try {
+            redisUtil.delete(buildCacheKey(openId));
+        } catch (Exception e) {
+            log.error("删除用户Principal缓存失败, openId: {}", openId, e);
+        }
+    }
+
+    private void putLocal(String openId, UserEntity snapshot, long version) {
+        if (invalidationVersion.get() != version) {
+            return;
+        }
+        localCache.put(openId, snapshot);
+        // 写入期间发生了失效，回滚本次写入
+        if (invalidationVersion.get() != version) {
+            localCache.invalidate(openId);
+        }
+    }
+
+    private UserEntity readRedis(String openId) {
+        var cacheKey = buildCacheKey(openId);
+        try {
+            return redisUtil.getTyped(cacheKey, codec);
+        } catch (SerializationException e) {
+            log.warn("用户Principal缓存反序列化失败，删除缓存, openId: {}", openId);
+            redisUtil.delete(cacheKey);
+            return null;
+        } catch (Exception e) {
+            log.warn("读取用户Principal缓存失败, openId: {}", openId, e);
+            return null;
+        }
+    }
+
+    private void writeRedis(String openId, UserEntity snapshot) {
+        redisUtil.setTyped(buildCacheKey(openId), snapshot, codec, redisTtl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private String buildCacheKey(String openId) {
+        return RedisConstants.USER_PRINCIPAL_CACHE_KEY_PREFIX + RedisConstants.REDIS_KEY_CONNECTOR + openId;
+    }
+
+    /**
+     * 构建不含密码的用户快照
+     *
+     * @param user 用户实体
+     * @return 用户快照
+     */
+    private UserEntity toSnapshot(UserEntity user) {
+        return UserEntity.builder()
+                .id(user.getId())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .deletedAt(user.getDeletedAt())
+                .openId(user.getOpenId())
+                .username(user.getUsername())
+                .birthday(user.getBirthday())
+                .phone(user.getPhone())
+                .description(user.getDescription())
+                .status(user.getStatus())
+                .flag(user.getFlag())
+                .build();
+    }
+}
@@ -67,7 +67,27 @@ public class AuthServiceImpl implements AuthService {
             log.error("OpenID为 {} 的用户密码错误，登录失败", openId);
             throw new UnauthorizedException("用户密码错误，登录失败！");
         }
+        rehashIfNeeded(user, password);
         log.info("OpenID为 {} 的用户登录成功", openId);
         return user;
     }
+
+    /**
+     * BCrypt cost配置变更后，在登录成功时以新cost透明地重新加密密码
+     * 重新加密失败不影响本次登录，下次登录时会再次尝试
+     *
+     * @param user        已通过密码校验的用户
+     * @param rawPassword 明文密码
+     */
+    private void rehashIfNeeded(UserEntity user, String rawPassword) {
+        if (!passwordUtil.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            userService.updatePassword(user.getOpenId(), passwordUtil.encode(rawPassword));
+            log.info("OpenID为 {} 的用户密码已按新的BCrypt cost重新加密", user.getOpenId());
+        } catch (Exception e) {
+            log.warn("OpenID为 {} 的用户密码重新加密失败，将在下次登录时重试", user.getOpenId(), e);
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package com.family.diary.api.service.user.impl;
 
 import com.family.diary.api.service.user.UserService;
+import com.family.diary.api.service.user.cache.UserPrincipalCache;
 import com.family.diary.common.exceptions.ConflictException;
 import com.family.diary.common.exceptions.database.InsertException;
 import com.family.diary.common.exceptions.database.QueryException;
@@ -39,6 +40,8 @@ import org.springframework.stereotype.Service;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
 
+    private final UserPrincipalCache userPrincipalCache;
+
     @Override
     public UserEntity create(UserEntity user) {
         int result;
@@ -52,6 +55,7 @@ public class UserServiceImpl implements UserService {
             log.error("创建用户失败, openId: {}", user.getOpenId());
             throw new InsertException("User creation failed");
         }
+        userPrincipalCache.invalidate(user.getOpenId());
         try {
             return findByOpenId(user.getOpenId());
         } catch (QueryException e) {
@@ -73,4 +77,16 @@ public class UserServiceImpl implements UserService {
     public UserEntity findByOpenId(String openId) {
         return userRepository.findByOpenId(openId);
     }
+
+    @Override
+    public UserEntity findPrincipalByOpenId(String openId) {
+        return userPrincipalCache.get(openId, userRepository::findByOpenId);
+    }
+
+    @Override
+    public void updatePassword(String openId, String encodedPassword) {
+        if (userRepository.updatePassword(openId, encodedPassword) == 0) {
+            log.warn("更新密码未命中任何用户, openId: {}", openId);
+        }
+    }
 }
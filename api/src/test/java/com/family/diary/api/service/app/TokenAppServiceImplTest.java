@@ -4,7 +4,9 @@ import com.family.diary.api.dto.request.token.TokenRefreshRequest;
 import com.family.diary.api.service.app.impl.TokenAppServiceImpl;
 import com.family.diary.api.service.token.TokenService;
 import com.family.diary.api.service.token.model.TokenPair;
+import com.family.diary.common.enums.jwt.TokenType;
 import com.family.diary.common.exceptions.UnauthorizedException;
+import com.family.diary.common.models.jwt.VerifiedToken;
 import io.jsonwebtoken.MalformedJwtException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +14,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
@@ -30,9 +35,10 @@ class TokenAppServiceImplTest {
         var request = new TokenRefreshRequest();
         request.setRefreshToken("refresh");
 
-        when(tokenService.extractOpenId("refresh")).thenReturn("openid");
-        when(tokenService.validateRefreshToken("refresh", "openid")).thenReturn(true);
-        when(tokenService.issueTokens("openid")).thenReturn(new TokenPair("access", "refresh2"));
+        var verifiedToken = new VerifiedToken("refresh", "openid", TokenType.REFRESH,
+                Instant.now(), Instant.now().plusSeconds(60));
+        when(tokenService.parseToken("refresh")).thenReturn(verifiedToken);
+        when(tokenService.rotateTokens(verifiedToken)).thenReturn(Optional.of(new TokenPair("access", "refresh2")));
 
         var response = tokenAppService.refresh(request);
 
@@ -45,7 +51,20 @@ class TokenAppServiceImplTest {
         var request = new TokenRefreshRequest();
         request.setRefreshToken("bad");
 
-        when(tokenService.extractOpenId("bad")).thenThrow(new MalformedJwtException("bad"));
+        when(tokenService.parseToken("bad")).thenThrow(new MalformedJwtException("bad"));
+
+        assertThrows(UnauthorizedException.class, () -> tokenAppService.refresh(request));
+    }
+
+    @Test
+    void refreshWithRotatedTokenThrowsUnauthorized() {
+        var request = new TokenRefreshRequest();
+        request.setRefreshToken("stale");
+
+        var verifiedToken = new VerifiedToken("stale", "openid", TokenType.REFRESH,
+                Instant.now(), Instant.now().plusSeconds(60));
+        when(tokenService.parseToken("stale")).thenReturn(verifiedToken);
+        when(tokenService.rotateTokens(verifiedToken)).thenReturn(Optional.empty());
 
         assertThrows(UnauthorizedException.class, () -> tokenAppService.refresh(request));
     }
@@ -0,0 +1,98 @@
+package com.family.diary.api.service.tencentcloud.cache;
+
+import com.family.diary.common.utils.redis.RedisLoadingCache;
+import com.family.diary.domain.entity.tencentcloud.cos.AvatarEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AvatarMetadataCacheTest {
+
+    private final Map<String, String> store = new HashMap<>();
+
+    private AvatarMetadataCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        var redisLoadingCache = mock(RedisLoadingCache.class);
+        when(redisLoadingCache.getOrLoad(anyString(), any(), any())).thenAnswer(invocation ->
+                store.computeIfAbsent(invocation.getArgument(0),
+                        key -> ((Supplier<String>) invocation.getArgument(2)).get()));
+        when(redisLoadingCache.put(anyString(), any(), anyString())).thenAnswer(invocation -> {
+            store.put(invocation.getArgument(0), invocation.getArgument(2));
+            return true;
+        });
+        cache = new AvatarMetadataCache(redisLoadingCache, Duration.ofHours(1));
+    }
+
+    @Test
+    void missingAvatarIsNegativelyCached() {
+        var loads = new AtomicInteger();
+
+        assertNull(cache.get("openid", openId -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get("openid", openId -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+
+        assertEquals(1, loads.get());
+        assertEquals(AvatarMetadataCache.ABSENT, store.get("avatar:meta:openid"));
+    }
+
+    @Test
+    void putOverridesNegativeEntry() {
+        cache.get("openid", openId -> null);
+        var avatar = avatar(3L);
+
+        cache.put(avatar);
+
+        assertEquals(avatar, cache.get("openid", openId -> null));
+    }
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        var avatar = avatar(7L);
+        var withVariants = avatar(8L).setVariants("large,thumbnail");
+
+        assertEquals(avatar, AvatarMetadataCache.decode("openid", AvatarMetadataCache.encode(avatar)));
+        assertEquals(withVariants, AvatarMetadataCache.decode("openid", AvatarMetadataCache.encode(withVariants)));
+        assertNull(AvatarMetadataCache.decode("openid", "broken"));
+    }
+
+    @Test
+    void unreadableEntryIsReloaded() {
+        store.put("avatar:meta:openid", "3|jpeg||images/user/avatars/openid.jpeg");
+        var avatar = avatar(3L);
+
+        assertEquals(avatar, cache.get("openid", openId -> avatar));
+        assertEquals(AvatarMetadataCache.encode(avatar), store.get("avatar:meta:openid"));
+    }
+
+    private static AvatarEntity avatar(long version) {
+        return AvatarEntity.builder()
+                .openId("openid")
+                .objectKey("images/user/avatars/openid.jpeg")
+                .format("jpeg")
+                .version(version)
+                .createdAt(null)
+                .updatedAt(LocalDateTime.of(2026, 10, 17, 9, 0))
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.family.diary.api.service.user.cache;
+
+import com.family.diary.common.enums.status.UserEmotionStatus;
+import com.family.diary.common.enums.status.UserFlagStatus;
+import com.family.diary.common.utils.redis.codec.CompressingRedisCodec;
+import com.family.diary.domain.entity.user.UserEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserEntityRedisCodecTest {
+
+    private final UserEntityRedisCodec codec = new UserEntityRedisCodec();
+
+    @Test
+    void roundTripKeepsSnapshotFields() {
+        var user = UserEntity.builder()
+                .id(42L)
+                .createdAt(LocalDateTime.of(2026, 10, 17, 8, 30, 15, 123_000_000))
+                .updatedAt(LocalDateTime.of(2026, 10, 17, 9, 0))
+                .openId("openid")
+                .username("用户")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .status(UserEmotionStatus.HAPPY)
+                .flag(UserFlagStatus.NORMAL)
+                .build();
+
+        var decoded = codec.decode(codec.encode(user));
+
+        assertEquals(user, decoded);
+        assertNull(decoded.getDeletedAt());
+        assertNull(decoded.getPassword());
+    }
+
+    @Test
+    void compressesLargePayloadsAndRoundTrips() {
+        var compressing = new CompressingRedisCodec<>(codec, 64);
+        var user = UserEntity.builder()
+                .openId("openid")
+                .description("日记".repeat(500))
+                .build();
+
+        var encoded = compressing.encode(user);
+
+        assertTrue(encoded.length < codec.encode(user).length);
+        assertEquals(user, compressing.decode(encoded));
+    }
+
+    @Test
+    void rejectsLegacyJsonValues() {
+        var compressing = new CompressingRedisCodec<>(codec, 512);
+        var json = "{\"openId\":\"openid\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(SerializationException.class, () -> compressing.decode(json));
+    }
+}
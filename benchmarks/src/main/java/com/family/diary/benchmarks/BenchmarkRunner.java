@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * 运行全部基准并以JSON格式输出结果，便于在版本之间对比回归
+ * 用法：java -jar benchmarks/target/benchmarks.jar [结果文件路径] [基准名称正则]
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private static final String DEFAULT_INCLUDE = "com\\.family\\.diary\\.benchmarks\\..*Benchmark";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var resultFile = args.length > 0 ? args[0] : DEFAULT_RESULT_FILE;
+        var include = args.length > 1 ? args[1] : DEFAULT_INCLUDE;
+
+        var options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.benchmarks.cos;
+
+import com.family.diary.common.utils.tencentcloud.CosUrlSigner;
+import com.qcloud.cos.COSClient;
+import com.qcloud.cos.ClientConfig;
+import com.qcloud.cos.auth.BasicCOSCredentials;
+import com.qcloud.cos.model.GeneratePresignedUrlRequest;
+import com.qcloud.cos.region.Region;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.qcloud.cos.http.HttpMethodName.GET;
+
+/**
+ * COS预签名URL生成基准：离线签名器批量签名 vs COSClient.generatePresignedUrl逐个签名并替换域名
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CosUrlSignerBenchmark {
+
+    private static final String SECRET_ID = "AKIDbenchmarkbenchmarkbenchmark";
+
+    private static final String SECRET_KEY = "benchmark-secret-key-benchmark";
+
+    private static final String BUCKET = "benchmark-1250000000";
+
+    private static final String REGION = "ap-guangzhou";
+
+    private static final String HOST = "cos.example.com";
+
+    private static final String DEFAULT_HOST = BUCKET + ".cos." + REGION + ".myqcloud.com";
+
+    private static final long EXPIRATION_SECONDS = 7200L;
+
+    /**
+     * 单次签名的对象数量（列表接口一页的图片数）
+     */
+    @Param({"1", "100"})
+    public int batchSize;
+
+    private CosUrlSigner signer;
+
+    private COSClient cosClient;
+
+    private List<String> objectKeys;
+
+    @Setup
+    public void setUp() {
+        signer = new CosUrlSigner(SECRET_ID, SECRET_KEY, HOST);
+        cosClient = new COSClient(new BasicCOSCredentials(SECRET_ID, SECRET_KEY), new ClientConfig(new Region(REGION)));
+        objectKeys = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            objectKeys.add("images/user/avatars/benchmark-open-id-" + i + ".png");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        cosClient.shutdown();
+    }
+
+    @Benchmark
+    public List<String> offlineSigner() {
+        return signer.signAll(objectKeys, EXPIRATION_SECONDS);
+    }
+
+    @Benchmark
+    public List<String> cosClient() {
+        var urls = new ArrayList<String>(objectKeys.size());
+        for (var objectKey : objectKeys) {
+            var request = new GeneratePresignedUrlRequest(BUCKET, objectKey);
+            request.setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_SECONDS * 1000));
+            request.setMethod(GET);
+            urls.add(cosClient.generatePresignedUrl(request, false).toString().replace(DEFAULT_HOST, HOST));
+        }
+        return urls;
+    }
+}
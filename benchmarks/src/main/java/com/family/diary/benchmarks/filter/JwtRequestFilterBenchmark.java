@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.benchmarks.filter;
+
+import com.family.diary.api.filters.jwt.JwtRequestFilter;
+import com.family.diary.api.service.token.impl.TokenServiceImpl;
+import com.family.diary.api.service.user.UserService;
+import com.family.diary.benchmarks.support.BenchmarkFixtures;
+import com.family.diary.benchmarks.support.InMemoryTokenStore;
+import com.family.diary.domain.entity.user.UserEntity;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JwtRequestFilter完整认证路径的基准（验签、Token存储校验、Principal查询、写入SecurityContext）
+ * Token存储为内存实现，用户服务与Servlet对象为Mock
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+    private JwtRequestFilter filter;
+
+    private HttpServletRequest request;
+
+    private HttpServletResponse response;
+
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        var jwtUtil = BenchmarkFixtures.jwtUtil(new InMemoryTokenStore(), true);
+        var accessToken = jwtUtil.generateAccessToken(BenchmarkFixtures.OPEN_ID);
+
+        var userService = mock(UserService.class);
+        when(userService.findPrincipalByOpenId(BenchmarkFixtures.OPEN_ID))
+                .thenReturn(UserEntity.builder().openId(BenchmarkFixtures.OPEN_ID).username("benchmark").build());
+
+        filter = new JwtRequestFilter(userService, new TokenServiceImpl(jwtUtil));
+        BenchmarkFixtures.setField(filter, "tokenHeader", BenchmarkFixtures.TOKEN_HEADER);
+        BenchmarkFixtures.setField(filter, "tokenPrefix", BenchmarkFixtures.TOKEN_PREFIX);
+
+        request = mock(HttpServletRequest.class);
+        when(request.getHeader(BenchmarkFixtures.TOKEN_HEADER)).thenReturn(BenchmarkFixtures.TOKEN_PREFIX + accessToken);
+        response = mock(HttpServletResponse.class);
+        chain = mock(FilterChain.class);
+    }
+
+    @Benchmark
+    public Object doFilter() throws ServletException, IOException {
+        try {
+            // doFilter委托给doFilterInternal，OncePerRequestFilter的前置判断开销可忽略
+            filter.doFilter(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.benchmarks.jwt;
+
+import com.family.diary.benchmarks.support.BenchmarkFixtures;
+import com.family.diary.benchmarks.support.InMemoryTokenStore;
+import com.family.diary.common.utils.web.jwt.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil签发与校验Access Token的基准
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    /**
+     * 是否启用Access Token本地缓存
+     */
+    @Param({"false", "true"})
+    public boolean accessTokenCacheEnabled;
+
+    private JwtUtil jwtUtil;
+
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkFixtures.jwtUtil(new InMemoryTokenStore(), accessTokenCacheEnabled);
+        accessToken = jwtUtil.generateAccessToken(BenchmarkFixtures.OPEN_ID);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken(BenchmarkFixtures.OPEN_ID);
+    }
+
+    @Benchmark
+    public boolean validateAccessToken() {
+        return jwtUtil.validateAccessToken(jwtUtil.parse(accessToken));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.benchmarks.mapper;
+
+import com.family.diary.common.enums.status.UserEmotionStatus;
+import com.family.diary.common.enums.status.UserFlagStatus;
+import com.family.diary.common.mapper.CommonConvertMapperImpl;
+import com.family.diary.common.mapper.user.UserConvertMapperImpl;
+import com.family.diary.domain.entity.user.UserEntity;
+import com.family.diary.infrastructure.mapper.user.UserMapper;
+import com.family.diary.infrastructure.mapper.user.UserMapperImpl;
+import com.family.diary.infrastructure.po.user.UserPo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct生成的UserMapper.toUserEntity基准
+ * 通过最小Spring容器装配生成的实现类，保证uses引用的转换Mapper被正确注入
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+
+    private UserMapper userMapper;
+
+    private UserPo userPo;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(
+                UserMapperImpl.class, CommonConvertMapperImpl.class, UserConvertMapperImpl.class);
+        userMapper = context.getBean(UserMapper.class);
+
+        userPo = new UserPo()
+                .setOpenId("benchmark-open-id")
+                .setUsername("benchmark")
+                .setPassword("$2a$10$abcdefghijklmnopqrstuv")
+                .setBirthday(LocalDate.of(1990, 1, 1))
+                .setPhone("13800000000")
+                .setDescription("benchmark user")
+                .setStatus(UserEmotionStatus.HAPPY.getDescription())
+                .setFlag(UserFlagStatus.NORMAL.getDescription());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserEntity toUserEntity() {
+        return userMapper.toUserEntity(userPo);
+    }
+}
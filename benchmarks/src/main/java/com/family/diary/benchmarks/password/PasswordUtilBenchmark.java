@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.benchmarks.password;
+
+import com.family.diary.common.utils.common.PasswordUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordUtil.matches的基准（包含提交到哈希线程池与等待结果的开销）
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordUtilBenchmark {
+
+    private static final String RAW_PASSWORD = "benchmark-password";
+
+    /**
+     * BCrypt cost
+     */
+    @Param({"10"})
+    public int strength;
+
+    private PasswordUtil passwordUtil;
+
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        passwordUtil = new PasswordUtil(new SimpleMeterRegistry(), strength, 4, 64, Duration.ofSeconds(30));
+        encodedPassword = passwordUtil.encode(RAW_PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordUtil.shutdown();
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordUtil.matches(RAW_PASSWORD, encodedPassword);
+    }
+}
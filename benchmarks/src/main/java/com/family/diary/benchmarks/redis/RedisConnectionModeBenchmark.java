@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.benchmarks.redis;
+
+import com.family.diary.common.config.redis.RedisConfig;
+import com.family.diary.common.enums.redis.RedisConnectionMode;
+import com.family.diary.common.models.redis.LettuceProperties;
+import com.family.diary.common.models.redis.PoolProperties;
+import com.family.diary.common.models.redis.RedisProperties;
+import io.lettuce.core.resource.ClientResources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis连接策略对比基准（SHARED多路复用连接 vs POOLED连接池），需要可访问的Redis实例
+ * 通过系统属性benchmark.redis.host / benchmark.redis.port / benchmark.redis.password指定，默认localhost:6379
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class RedisConnectionModeBenchmark {
+
+    private static final String KEY = "benchmark:connection-mode";
+
+    private static final String COUNTER_KEY = KEY + ":counter";
+
+    @Param({"SHARED", "POOLED"})
+    public RedisConnectionMode mode;
+
+    /**
+     * 连接池最大连接数
+     */
+    @Param({"16"})
+    public int maxActive;
+
+    private ClientResources clientResources;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Setup
+    public void setUp() {
+        var pool = new PoolProperties();
+        pool.setEnabled(true);
+        pool.setMaxActive(maxActive);
+        pool.setMaxIdle(maxActive);
+        pool.setMaxWait(Duration.ofSeconds(2));
+
+        var lettuce = new LettuceProperties();
+        lettuce.setConnectionMode(mode);
+        lettuce.setPool(pool);
+
+        var properties = new RedisProperties();
+        properties.setHost(System.getProperty("benchmark.redis.host", "localhost"));
+        properties.setPort(Integer.getInteger("benchmark.redis.port", 6379));
+        properties.setPassword(System.getProperty("benchmark.redis.password"));
+        properties.setLettuce(lettuce);
+
+        var config = new RedisConfig(properties);
+        clientResources = config.lettuceClientResources();
+        connectionFactory = config.redisConnectionFactory(clientResources);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = config.redisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+        redisTemplate.opsForValue().set(KEY, "value");
+    }
+
+    @TearDown
+    public void tearDown() {
+        redisTemplate.delete(List.of(KEY, COUNTER_KEY));
+        connectionFactory.destroy();
+        clientResources.shutdown();
+    }
+
+    @Benchmark
+    public Object get() {
+        return redisTemplate.opsForValue().get(KEY);
+    }
+
+    @Benchmark
+    public Long increment() {
+        return redisTemplate.opsForValue().increment(COUNTER_KEY);
+    }
+}
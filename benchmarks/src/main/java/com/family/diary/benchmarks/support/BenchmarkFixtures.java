@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.benchmarks.support;
+
+import com.family.diary.common.enums.jwt.TokenRevocationMode;
+import com.family.diary.common.utils.redis.RedisUtil;
+import com.family.diary.common.utils.redis.invalidation.LocalCacheInvalidationBus;
+import com.family.diary.common.utils.web.jwt.AccessTokenCache;
+import com.family.diary.common.utils.web.jwt.JwtUtil;
+import com.family.diary.common.utils.web.jwt.TokenGenerationStore;
+import com.family.diary.common.utils.web.jwt.TokenStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.util.ReflectionUtils;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * 基准测试公共夹具：在不启动Spring容器、不连接Redis的前提下组装被测组件
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public final class BenchmarkFixtures {
+
+    public static final String OPEN_ID = "benchmark-open-id";
+
+    public static final String TOKEN_HEADER = "Authorization";
+
+    public static final String TOKEN_PREFIX = "Bearer ";
+
+    private static final String SECRET_KEY = "benchmark-secret-key-benchmark-secret-key-benchmark-secret-key-0001";
+
+    private static final String TOKEN_REDIS_PREFIX = "jwt-openid";
+
+    private static final long CACHE_MAXIMUM_SIZE = 10_000L;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * 构建使用指定Token存储的JwtUtil，Redis相关依赖均为Mock
+     *
+     * @param tokenStore   Token存储
+     * @param cacheEnabled 是否启用Access Token本地缓存
+     * @return 已初始化的JwtUtil
+     */
+    public static JwtUtil jwtUtil(TokenStore tokenStore, boolean cacheEnabled) {
+        var redisUtil = mock(RedisUtil.class);
+        var listenerContainer = mock(RedisMessageListenerContainer.class);
+        var meterRegistry = new SimpleMeterRegistry();
+
+        var invalidationBus = new LocalCacheInvalidationBus(redisUtil, listenerContainer,
+                mock(ClientResources.class), new ObjectMapper(), meterRegistry, Duration.ofMillis(5), 1000);
+        var accessTokenCache = new AccessTokenCache(invalidationBus, meterRegistry, cacheEnabled, CACHE_MAXIMUM_SIZE);
+        var tokenGenerationStore = new TokenGenerationStore(redisUtil, invalidationBus, meterRegistry,
+                TokenRevocationMode.TOKEN, TOKEN_REDIS_PREFIX, CACHE_MAXIMUM_SIZE, Duration.ofSeconds(30));
+
+        accessTokenCache.register();
+        var jwtUtil = new JwtUtil(tokenStore, accessTokenCache, tokenGenerationStore);
+        setField(jwtUtil, "SECRET_KEY", SECRET_KEY);
+        setField(jwtUtil, "JWT_REDIS_KEY_PREFIX", TOKEN_REDIS_PREFIX);
+        setField(jwtUtil, "refreshGracePeriod", Duration.ofSeconds(10));
+        setField(jwtUtil, "revocationMode", TokenRevocationMode.TOKEN);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    /**
+     * 为@Value注入的字段赋值
+     *
+     * @param target 目标对象
+     * @param name   字段名
+     * @param value  字段值
+     */
+    public static void setField(Object target, String name, Object value) {
+        var field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException(target.getClass().getSimpleName() + "不存在字段: " + name);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.benchmarks.support;
+
+import com.family.diary.common.utils.web.jwt.TokenStore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于内存Map的Token存储，用于在基准中替代Redis
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public class InMemoryTokenStore implements TokenStore {
+
+    private final Map<String, String> storage = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(String key, String token, long expireMs) {
+        storage.put(key, token);
+    }
+
+    @Override
+    public String get(String key) {
+        return storage.get(key);
+    }
+
+    @Override
+    public void delete(String key) {
+        storage.remove(key);
+    }
+}
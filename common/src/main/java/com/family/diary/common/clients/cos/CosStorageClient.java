@@ -15,6 +15,11 @@
 
 package com.family.diary.common.clients.cos;
 
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.InputStream;
+import java.util.List;
+
 /**
  * COS对象存储客户端接口
  *
@@ -31,6 +36,40 @@ public interface CosStorageClient {
      */
     String uploadBase64Image(String base64Image, String objectKey);
 
+    /**
+     * 流式上传图片，每次重试都会通过source重新打开输入流
+     *
+     * @param source        图片数据源
+     * @param contentLength 内容长度（字节）
+     * @param contentType   内容类型
+     * @param objectKey     COS对象Key
+     * @return 访问URL
+     */
+    String uploadImage(InputStreamSource source, long contentLength, String contentType, String objectKey);
+
+    /**
+     * 打开COS对象的内容流
+     *
+     * @param objectKey COS对象Key
+     * @return 对象内容输入流，由调用方负责关闭
+     */
+    InputStream openObject(String objectKey);
+
+    /**
+     * 判断COS对象是否存在
+     *
+     * @param objectKey COS对象Key
+     * @return 是否存在
+     */
+    boolean exists(String objectKey);
+
+    /**
+     * 批量删除COS对象，不存在的对象视为删除成功
+     *
+     * @param objectKeys COS对象Key列表
+     */
+    void deleteObjects(List<String> objectKeys);
+
     /**
      * 生成预签名URL
      *
@@ -39,4 +78,13 @@ public interface CosStorageClient {
      * @return 预签名URL
      */
     String generatePresignedUrl(String objectKey, long expirationInSeconds);
+
+    /**
+     * 批量生成预签名URL
+     *
+     * @param objectKeys          COS对象Key列表
+     * @param expirationInSeconds 有效期（秒）
+     * @return 与objectKeys顺序一致的预签名URL列表
+     */
+    List<String> generatePresignedUrls(List<String> objectKeys, long expirationInSeconds);
 }
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.clients.cos;
+
+import com.family.diary.common.constants.tencentcloud.COSConstants;
+import com.family.diary.common.exceptions.tencentcloud.InvalidCOSTempInfoException;
+import com.family.diary.common.models.tencentcloud.COSTempInfo;
+import com.qcloud.cos.auth.BasicSessionCredentials;
+import com.qcloud.cos.auth.COSCredentials;
+import com.qcloud.cos.auth.COSCredentialsProvider;
+import com.qcloud.cos.utils.Jackson;
+import com.tencent.cloud.CosStsClient;
+import com.tencent.cloud.Policy;
+import com.tencent.cloud.Statement;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存并自动刷新STS临时密钥的COS凭证提供者
+ * <ul>
+ *     <li>临时密钥在过期前refresh-ahead时由后台线程提前刷新，请求线程通常直接命中缓存</li>
+ *     <li>后台刷新失败时按固定间隔重试，期间继续使用仍在有效期内的旧密钥</li>
+ *     <li>缓存为空或剩余有效期不足时在请求线程上同步获取（同一时刻只有一个线程访问STS）</li>
+ * </ul>
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class StsCredentialsProvider implements COSCredentialsProvider {
+
+    private static final String METRIC_PREFIX = "cos.sts";
+
+    /**
+     * 剩余有效期低于该值的密钥不再使用，避免请求途中过期
+     */
+    private static final long MIN_REMAINING_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final long RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final String appId;
+
+    private final String apiSecretId;
+
+    private final String apiSecretKey;
+
+    private final String cosRegion;
+
+    private final String bucket;
+
+    private final long refreshAheadMillis;
+
+    private final ScheduledThreadPoolExecutor refresher;
+
+    private final Timer successTimer;
+
+    private final Timer failureTimer;
+
+    private volatile CachedCredentials current;
+
+    /**
+     * 下一次后台刷新，由this同步保护
+     */
+    private ScheduledFuture<?> nextRefresh;
+
+    @Autowired
+    public StsCredentialsProvider(MeterRegistry meterRegistry,
+                                  @Value("${tencent-cloud.app-id}") String appId,
+                                  @Value("${tencent-cloud.api-secret-id}") String apiSecretId,
+                                  @Value("${tencent-cloud.api-secret-key}") String apiSecretKey,
+                                  @Value("${tencent-cloud.cos.region}") String cosRegion,
+                                  @Value("${tencent-cloud.cos.bucket}") String bucket,
+                                  @Value("${tencent-cloud.cos.sts.refresh-ahead:10m}") Duration refreshAhead) {
+        this.appId = appId;
+        this.apiSecretId = apiSecretId;
+        this.apiSecretKey = apiSecretKey;
+        this.cosRegion = cosRegion;
+        this.bucket = bucket;
+        this.refreshAheadMillis = refreshAhead.toMillis();
+        this.refresher = new ScheduledThreadPoolExecutor(1, runnable -> {
+            var thread = new Thread(runnable, "cos-sts-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refresher.setRemoveOnCancelPolicy(true);
+        this.successTimer = Timer.builder(METRIC_PREFIX + ".fetch")
+                .description("获取STS临时密钥的耗时")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.failureTimer = Timer.builder(METRIC_PREFIX + ".fetch")
+                .description("获取STS临时密钥的耗时")
+                .tag("result", "failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 应用就绪后在后台预取临时密钥，首个上传请求无需等待STS
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresher.execute(this::backgroundRefresh);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    @Override
+    public COSCredentials getCredentials() {
+        var cached = current;
+        if (isUsable(cached)) {
+            return cached.credentials();
+        }
+        synchronized (this) {
+            cached = current;
+            if (isUsable(cached)) {
+                return cached.credentials();
+            }
+            return load().credentials();
+        }
+    }
+
+    @Override
+    public synchronized void refresh() {
+        load();
+    }
+
+    /**
+     * 向STS申请临时密钥
+     *
+     * @return 临时密钥
+     */
+    protected COSTempInfo requestTempInfo() {
+        var config = new TreeMap<String, Object>();
+        try {
+            config.put("secretId", apiSecretId);
+            config.put("secretKey", apiSecretKey);
+            config.put("durationSeconds", COSConstants.TEMP_TOKEN_EXPIRE_TIME);
+            config.put("bucket", bucket);
+            config.put("region", cosRegion);
+
+            var policy = new Policy();
+            var statement = new Statement();
+            statement.setEffect("allow");
+            statement.addActions(new String[]{"cos:*"});
+            statement.addResources(new String[]{
+                    String.format("qcs::cos:%s:uid/%s:%s/*", cosRegion, appId, bucket),
+                    String.format("qcs::ci:%s:uid/%s:bucket/%s/*", cosRegion, appId, bucket)
+            });
+            policy.addStatement(statement);
+            config.put("policy", Jackson.toJsonPrettyString(policy));
+
+            var response = CosStsClient.getCredential(config);
+            var expiredAt = response.expiredTime > 0
+                    ? Instant.ofEpochSecond(response.expiredTime)
+                    : Instant.now().plusSeconds(COSConstants.TEMP_TOKEN_EXPIRE_TIME);
+            return new COSTempInfo(
+                    response.credentials.tmpSecretId,
+                    response.credentials.tmpSecretKey,
+                    response.credentials.sessionToken,
+                    expiredAt
+            );
+        } catch (Exception e) {
+            throw new InvalidCOSTempInfoException("无法获取到COS服务临时信息！", e);
+        }
+    }
+
+    /**
+     * 获取新密钥并安排下一次后台刷新，调用方需持有this锁
+     */
+    private CachedCredentials load() {
+        var start = System.nanoTime();
+        COSTempInfo tempInfo;
+        try {
+            tempInfo = requestTempInfo();
+        } catch (RuntimeException e) {
+            failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        var loaded = new CachedCredentials(new BasicSessionCredentials(tempInfo.cosTempSecretId(),
+                tempInfo.cosTempSecretKey(), tempInfo.cosTempToken()), tempInfo.expiredAt().toEpochMilli());
+        current = loaded;
+        var delay = Math.max(loaded.expiresAt() - refreshAheadMillis - System.currentTimeMillis(), 0L);
+        schedule(delay);
+        log.info("已获取COS临时密钥，有效期至: {}", tempInfo.expiredAt());
+        return loaded;
+    }
+
+    private void backgroundRefresh() {
+        try {
+            synchronized (this) {
+                load();
+            }
+        } catch (Exception e) {
+            log.warn("后台刷新COS临时密钥失败，{}ms后重试", RETRY_DELAY_MILLIS, e);
+            schedule(RETRY_DELAY_MILLIS);
+        }
+    }
+
+    private synchronized void schedule(long delayMillis) {
+        if (refresher.isShutdown()) {
+            return;
+        }
+        // 同步获取与后台刷新都会安排下一次刷新，仅保留最新的一次
+        if (nextRefresh != null) {
+            nextRefresh.cancel(false);
+        }
+        nextRefresh = refresher.schedule(this::backgroundRefresh, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static boolean isUsable(CachedCredentials cached) {
+        return cached != null && cached.expiresAt() - System.currentTimeMillis() > MIN_REMAINING_MILLIS;
+    }
+
+    /**
+     * 缓存的临时密钥
+     *
+     * @param credentials 临时密钥
+     * @param expiresAt   过期时间（毫秒时间戳）
+     */
+    private record CachedCredentials(BasicSessionCredentials credentials, long expiresAt) {
+    }
+}
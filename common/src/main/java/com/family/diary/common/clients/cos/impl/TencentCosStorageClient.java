@@ -18,15 +18,21 @@ package com.family.diary.common.clients.cos.impl;
 import com.family.diary.common.clients.cos.CosStorageClient;
 import com.family.diary.common.enums.errors.ExceptionErrorCode;
 import com.family.diary.common.exceptions.BaseException;
-import com.family.diary.common.factory.tencentcloud.COSClientFactory;
 import com.family.diary.common.utils.common.RetryExecutor;
 import com.family.diary.common.utils.common.ImageUtils;
-import com.family.diary.common.utils.tencentcloud.COSUtil;
-import lombok.RequiredArgsConstructor;
+import com.family.diary.common.utils.tencentcloud.CosUrlSigner;
+import com.qcloud.cos.COSClient;
+import com.qcloud.cos.model.DeleteObjectsRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 /**
  * 腾讯云COS客户端实现
  *
@@ -34,12 +40,11 @@ import org.springframework.stereotype.Component;
  * @since 2026-02-04
  */
 @Component
-@RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class TencentCosStorageClient implements CosStorageClient {
 
-    private final COSUtil cosUtil;
+    private final CosUrlSigner cosUrlSigner;
 
-    private final COSClientFactory cosClientFactory;
+    private final COSClient temporaryClient;
 
     private final ImageUtils imageUtils;
 
@@ -52,11 +57,19 @@ public class TencentCosStorageClient implements CosStorageClient {
     @Value("${tencent-cloud.cos.retry.base-backoff-ms:200}")
     private long baseBackoffMs;
 
+    @Autowired
+    public TencentCosStorageClient(CosUrlSigner cosUrlSigner,
+                                   @Qualifier("cosClientWithTempInfo") COSClient temporaryClient,
+                                   ImageUtils imageUtils) {
+        this.cosUrlSigner = cosUrlSigner;
+        this.temporaryClient = temporaryClient;
+        this.imageUtils = imageUtils;
+    }
+
     @Override
     public String uploadBase64Image(String base64Image, String objectKey) {
         return RetryExecutor.execute("COS上传", maxAttempts, baseBackoffMs, () -> {
-            var tempClient = cosClientFactory.createTemporaryClient();
-            var url = imageUtils.uploadBase64ImageToCOS(tempClient, base64Image, objectKey);
+            var url = imageUtils.uploadBase64ImageToCOS(temporaryClient, base64Image, objectKey);
             if (url == null || url.isBlank()) {
                 throw new BaseException(ExceptionErrorCode.COMMON_ERROR, "上传图片到 COS 失败");
             }
@@ -65,14 +78,72 @@ public class TencentCosStorageClient implements CosStorageClient {
     }
 
     @Override
-    public String generatePresignedUrl(String objectKey, long expirationInSeconds) {
-        return RetryExecutor.execute("COS生成预签名URL", maxAttempts, baseBackoffMs, () -> {
-            var permanentClient = cosClientFactory.createPermanentClient();
-            var url = cosUtil.generatePresignedUrlWithOutHost(permanentClient, bucket, objectKey, expirationInSeconds);
-            if (url == null || url.isBlank()) {
-                throw new BaseException(ExceptionErrorCode.COMMON_ERROR, "生成预签名URL失败");
+    public String uploadImage(InputStreamSource source, long contentLength, String contentType, String objectKey) {
+        return RetryExecutor.execute("COS流式上传", maxAttempts, baseBackoffMs, () -> {
+            try (var inputStream = source.getInputStream()) {
+                var url = imageUtils.uploadStreamToCOS(temporaryClient, inputStream, contentLength, contentType,
+                        objectKey);
+                if (url == null || url.isBlank()) {
+                    throw new BaseException(ExceptionErrorCode.COMMON_ERROR, "上传图片到 COS 失败");
+                }
+                return url;
+            } catch (IOException e) {
+                throw new BaseException(ExceptionErrorCode.COMMON_ERROR, "读取上传图片失败", e);
             }
-            return url;
-        });
+        }, TencentCosStorageClient::isRetryable);
+    }
+
+    @Override
+    public InputStream openObject(String objectKey) {
+        return RetryExecutor.execute("COS读取", maxAttempts, baseBackoffMs,
+                () -> temporaryClient.getObject(bucket, objectKey).getObjectContent());
+    }
+
+    @Override
+    public boolean exists(String objectKey) {
+        return RetryExecutor.execute("COS查询", maxAttempts, baseBackoffMs,
+                () -> temporaryClient.doesObjectExist(bucket, objectKey));
+    }
+
+    /**
+     * 单次请求删除全部对象（quiet模式只返回失败项），部分删除失败时抛出MultiObjectDeleteException
+     */
+    @Override
+    public void deleteObjects(List<String> objectKeys) {
+        if (objectKeys.isEmpty()) {
+            return;
+        }
+        var request = new DeleteObjectsRequest(bucket)
+                .withKeys(objectKeys.toArray(new String[0]))
+                .withQuiet(true);
+        RetryExecutor.execute("COS删除", maxAttempts, baseBackoffMs, () -> temporaryClient.deleteObjects(request));
+    }
+
+    /**
+     * 预签名URL在本地离线计算，无需访问COS，因此不做重试
+     */
+    @Override
+    public String generatePresignedUrl(String objectKey, long expirationInSeconds) {
+        return cosUrlSigner.sign(objectKey, expirationInSeconds);
+    }
+
+    @Override
+    public List<String> generatePresignedUrls(List<String> objectKeys, long expirationInSeconds) {
+        return cosUrlSigner.signAll(objectKeys, expirationInSeconds);
+    }
+
+    /**
+     * 超出大小限制、类型不支持等客户端错误重试也不会成功，直接抛出
+     *
+     * @param e 上传异常
+     * @return 是：可重试 / 否：不可重试
+     */
+    private static boolean isRetryable(RuntimeException e) {
+        if (e instanceof BaseException baseException) {
+            var errorCode = baseException.getErrorCode();
+            return errorCode != ExceptionErrorCode.PAYLOAD_TOO_LARGE
+                    && errorCode != ExceptionErrorCode.UNSUPPORTED_MEDIA_TYPE;
+        }
+        return true;
     }
 }
@@ -16,7 +16,11 @@
 package com.family.diary.common.config.redis;
 
 import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.enums.redis.RedisConnectionMode;
+import com.family.diary.common.models.redis.LettuceProperties;
 import com.family.diary.common.models.redis.RedisProperties;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.context.annotation.Bean;
@@ -24,9 +28,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -44,13 +51,26 @@ public class RedisConfig {
         this.redisProperties = redisProperties;
     }
 
+    /**
+     * Lettuce客户端资源（事件总线、IO线程），显式声明以便订阅建连事件
+     *
+     * @return ClientResources
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ClientResources lettuceClientResources() {
+        return DefaultClientResources.create();
+    }
+
     /**
      * Redis连接工厂配置
+     * SHARED模式下非阻塞命令共享一条多路复用的原生连接，由Lettuce自动合并刷写并发命令，
+     * 连接池仅为阻塞命令与事务提供独占连接；POOLED模式下每条命令都从连接池借用连接
      *
-     * @return RedisConnectionFactory
+     * @param clientResources Lettuce客户端资源
+     * @return LettuceConnectionFactory
      */
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
+    public LettuceConnectionFactory redisConnectionFactory(ClientResources clientResources) {
         var standaloneConfig = new RedisStandaloneConfiguration();
         standaloneConfig.setHostName(redisProperties.getHost());
         standaloneConfig.setPort(redisProperties.getPort());
@@ -63,18 +83,32 @@ public class RedisConfig {
         }
         standaloneConfig.setPassword(redisProperties.getPassword());
 
-        var clientConfig = LettuceClientConfiguration.builder()
+        var lettuce = getLettuceProperties();
+        // 如果启用了连接池
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = isPoolEnabled()
+                ? LettucePoolingClientConfiguration.builder().poolConfig(buildPoolConfig())
+                : LettuceClientConfiguration.builder();
+        var clientConfig = builder
+                .clientResources(clientResources)
                 .clientName(RedisConstants.REDIS_CLIENT_NAME)
+                .commandTimeout(lettuce.getCommandTimeout())
+                .shutdownTimeout(lettuce.getShutdownTimeout())
                 .build();
 
-        // 如果启用了连接池
-        if (isPoolEnabled()) {
-            clientConfig = LettucePoolingClientConfiguration.builder()
-                    .poolConfig(buildPoolConfig())
-                    .build();
+        var connectionFactory = new LettuceConnectionFactory(standaloneConfig, clientConfig);
+        var shared = lettuce.getConnectionMode() == RedisConnectionMode.SHARED;
+        if (!shared && !isPoolEnabled()) {
+            log.warn("Redis连接策略为POOLED但未启用连接池，改用共享连接");
+            shared = true;
         }
-
-        return new LettuceConnectionFactory(standaloneConfig, clientConfig);
+        connectionFactory.setShareNativeConnection(shared);
+        if (lettuce.getPipelineFlushSize() > 1) {
+            connectionFactory.setPipeliningFlushPolicy(
+                    LettuceConnection.PipeliningFlushPolicy.buffered(lettuce.getPipelineFlushSize()));
+        }
+        log.info("Redis连接策略：{}，连接池：{}", shared ? RedisConnectionMode.SHARED : RedisConnectionMode.POOLED,
+                isPoolEnabled() ? "启用" : "未启用");
+        return connectionFactory;
     }
 
     /**
@@ -92,19 +126,55 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * 二进制值Redis Template配置，值原样读写，由RedisCodec负责编解码
+     *
+     * @param connectionFactory Redis连接工厂配置
+     * @return RedisTemplate
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> binaryRedisTemplate(RedisConnectionFactory connectionFactory) {
+        var template = new RedisTemplate<String, byte[]>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
+    /**
+     * Redis Pub/Sub消息监听容器
+     *
+     * @param connectionFactory Redis连接工厂配置
+     * @return RedisMessageListenerContainer
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        var container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    private LettuceProperties getLettuceProperties() {
+        var lettuce = redisProperties.getLettuce();
+        return lettuce != null ? lettuce : new LettuceProperties();
+    }
+
     private boolean isPoolEnabled() {
-        var pool = redisProperties.getLettuce().getPool();
+        var pool = getLettuceProperties().getPool();
         return pool != null && pool.isEnabled();
     }
 
     private GenericObjectPoolConfig<?> buildPoolConfig() {
-        var pool = redisProperties.getLettuce().getPool();
+        var pool = getLettuceProperties().getPool();
 
         var poolConfig = new GenericObjectPoolConfig<>();
-        poolConfig.setMaxTotal(16); // 默认最大连接数
+        poolConfig.setMaxTotal(pool.getMaxActive());
         poolConfig.setMinIdle(pool.getMinIdle());
         poolConfig.setMaxIdle(pool.getMaxIdle());
-        poolConfig.setMaxWait(pool.getMaxWait());
+        if (pool.getMaxWait() != null) {
+            poolConfig.setMaxWait(pool.getMaxWait());
+        }
+        poolConfig.setTimeBetweenEvictionRuns(pool.getTimeBetweenEvictionRuns());
         poolConfig.setTestWhileIdle(true);
 
         return poolConfig;
@@ -36,22 +36,22 @@ public class COSConfig {
 
     /**
      * 永久密钥的COSClient Bean（共享实例）
-     * 注意：此Bean不应在使用后被shutdown，适用于长期持有的场景
+     * 注意：此Bean不应在使用后被shutdown，由容器在应用停止时关闭
      *
      * @return COSClient
      */
-    @Bean(name = "cosClient")
+    @Bean(name = "cosClient", destroyMethod = "shutdown")
     public COSClient cosClient() {
         return cosClientFactory.createPermanentClient();
     }
 
     /**
      * 临时密钥的COSClient Bean（共享实例）
-     * 注意：临时凭证有效期为2小时，适用于需要临时权限的场景
+     * 注意：临时凭证有效期为2小时，由StsCredentialsProvider在过期前自动刷新，此Bean不应在使用后被shutdown
      *
      * @return COSClient
      */
-    @Bean(name = "cosClientWithTempInfo")
+    @Bean(name = "cosClientWithTempInfo", destroyMethod = "shutdown")
     public COSClient cosClientWithTempInfo() {
         return cosClientFactory.createTemporaryClient();
     }
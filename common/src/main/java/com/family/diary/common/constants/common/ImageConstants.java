@@ -26,6 +26,7 @@ public interface ImageConstants {
 
     String  IMAGE_JPEG        = "image/jpeg";
     String  IMAGE_JPEG_FORMAT = "jpeg";
+    String  IMAGE_JPG_FORMAT  = "jpg";
     String  IMAGE_PNG         = "image/png";
     String  IMAGE_PNG_FORMAT  = "png";
     String  IMAGE_GIF         = "image/gif";
@@ -39,5 +40,11 @@ public interface ImageConstants {
     Integer MAX_IMAGE_WIDTH   = 1920;
     Integer MAX_IMAGE_HEIGHT  = 1080;
 
+    String  ORIGINAL_VARIANT     = "original";
+    Integer MEDIUM_IMAGE_EDGE    = 720;
+    Integer THUMBNAIL_IMAGE_EDGE = 200;
+    Integer MAX_IMAGE_PIXELS     = 40_000_000;
+    Float   VARIANT_JPEG_QUALITY = 0.85f;
+
     Integer MAX_VALID_TIME = 24 * 60 * 60;
 }
@@ -27,4 +27,14 @@ public interface JWTConstants {
      * Token类型claim名称
      */
     String CLAIM_TOKEN_TYPE = "token_type";
+
+    /**
+     * Token代数claim名称（仅generation吊销模式下签发）
+     */
+    String CLAIM_GENERATION = "gen";
+
+    /**
+     * 已验签Token的请求属性名，前置Filter验签后写入，JwtRequestFilter直接复用避免重复验签
+     */
+    String REQUEST_ATTRIBUTE_VERIFIED_TOKEN = "com.family.diary.jwt.verifiedToken";
 }
@@ -28,17 +28,87 @@ public interface RedisConstants {
     String REDIS_CLIENT_NAME = "my-family-diary-redis-client";
 
     /**
-     * Redis锁Lya脚本名称
+     * Lua脚本资源位置，脚本名称为去掉.lua后缀的文件名
+     */
+    String REDIS_LUA_SCRIPT_LOCATION = "classpath*:scripts/redis/*.lua";
+
+    /**
+     * Redis锁Lua脚本名称
      */
     String REDIS_RELEASE_LOCK_LUA_NAME = "release_lock";
 
     /**
-     * Redis锁Lya脚本Resource路径
+     * Refresh Token轮换Lua脚本名称
+     */
+    String REDIS_ROTATE_REFRESH_TOKEN_LUA_NAME = "rotate_refresh_token";
+
+    /**
+     * generation模式Refresh Token轮换Lua脚本名称
+     */
+    String REDIS_ROTATE_GENERATION_LUA_NAME = "rotate_generation";
+
+    /**
+     * 令牌桶限流Lua脚本名称
+     */
+    String REDIS_TOKEN_BUCKET_LUA_NAME = "token_bucket";
+
+    /**
+     * 分布式锁获取Lua脚本名称
+     */
+    String REDIS_LOCK_ACQUIRE_LUA_NAME = "lock_acquire";
+
+    /**
+     * 分布式锁续期Lua脚本名称
+     */
+    String REDIS_LOCK_RENEW_LUA_NAME = "lock_renew";
+
+    /**
+     * 分布式锁释放Lua脚本名称
+     */
+    String REDIS_LOCK_RELEASE_LUA_NAME = "lock_release";
+
+    /**
+     * 分布式锁Key前缀
      */
-    String REDIS_RELEASE_LOCK_LUA_PATH = "scripts/redis/release_lock.lua";
+    String LOCK_KEY_PREFIX = "lock";
+
+    /**
+     * 分布式锁栅栏令牌计数Key前缀
+     */
+    String LOCK_FENCE_KEY_PREFIX = "lock-fence";
+
+    /**
+     * 分布式锁释放通知的Pub/Sub频道
+     */
+    String LOCK_RELEASED_CHANNEL = "lock:released";
+
+    /**
+     * 事件总线Stream Key前缀
+     */
+    String EVENT_STREAM_KEY_PREFIX = "event-stream";
+
+    /**
+     * 事件总线死信Stream Key后缀
+     */
+    String EVENT_DEAD_LETTER_KEY_SUFFIX = "dead-letter";
+
+    /**
+     * 限流令牌桶Key前缀
+     */
+    String RATE_LIMIT_KEY_PREFIX = "rate-limit";
 
     /**
      * Redis Key的连接符
      */
     String REDIS_KEY_CONNECTOR = ":";
+
+    /**
+     * 本地缓存失效通知的Pub/Sub频道
+     */
+    String LOCAL_CACHE_INVALIDATION_CHANNEL = "local-cache:invalidation";
+
+    /**
+     * 用户Principal缓存Key前缀
+     */
+    String USER_PRINCIPAL_CACHE_KEY_PREFIX = "user:principal";
 }
@@ -39,4 +39,5 @@ public interface ResponseMessageConstants {
     // ==================== 请求相关 ====================
     String MISSING_TRACE_ID = "Missing or empty trace ID";
     String INVALID_REQUEST = "非法请求";
+    String TOO_MANY_REQUESTS = "请求过于频繁，请稍后重试";
 }
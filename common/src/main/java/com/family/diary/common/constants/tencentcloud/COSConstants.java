@@ -36,4 +36,9 @@ public interface COSConstants {
      * 头像缓存前缀
      */
     String AVATARS_CACHE_KEY_PREFIX = "avatar:url";
+
+    /**
+     * 头像元数据缓存前缀
+     */
+    String AVATARS_METADATA_CACHE_KEY_PREFIX = "avatar:meta";
 }
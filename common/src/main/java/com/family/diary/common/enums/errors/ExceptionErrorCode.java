@@ -32,7 +32,11 @@ public enum ExceptionErrorCode {
     FORBIDDEN("ERR-0005", "禁止访问"),
     NOT_FOUND("ERR-0006", "资源不存在"),
     TIMEOUT("ERR-0007", "操作超时"),
-    CONFLICT("ERR-0008", "资源冲突");
+    CONFLICT("ERR-0008", "资源冲突"),
+    TOO_MANY_REQUESTS("ERR-0009", "请求过于频繁"),
+    SERVICE_UNAVAILABLE("ERR-0010", "服务不可用"),
+    PAYLOAD_TOO_LARGE("ERR-0011", "请求体过大"),
+    UNSUPPORTED_MEDIA_TYPE("ERR-0012", "不支持的媒体类型");
 
     /**
      * 错误码
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.enums.image;
+
+import com.family.diary.common.constants.common.ImageConstants;
+import com.family.diary.common.enums.errors.ExceptionErrorCode;
+import com.family.diary.common.exceptions.BaseException;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 图片尺寸规格枚举，按从大到小排列，较小的规格由上一个规格缩放得到
+ * 边界按长边/短边约束，横图与竖图使用同一规格
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Getter
+public enum ImageVariant {
+    /**
+     * 大图，限制在配置的最大分辨率内，用于全屏查看
+     */
+    LARGE("large", ImageConstants.MAX_IMAGE_WIDTH, ImageConstants.MAX_IMAGE_HEIGHT),
+
+    /**
+     * 中图，用于列表和详情页
+     */
+    MEDIUM("medium", ImageConstants.MEDIUM_IMAGE_EDGE, ImageConstants.MEDIUM_IMAGE_EDGE),
+
+    /**
+     * 缩略图，用于头像和小尺寸预览
+     */
+    THUMBNAIL("thumbnail", ImageConstants.THUMBNAIL_IMAGE_EDGE, ImageConstants.THUMBNAIL_IMAGE_EDGE);
+
+    private static final Map<String, ImageVariant> CODE_MAP =
+            Stream.of(values())
+                    .collect(Collectors.toUnmodifiableMap(
+                            ImageVariant::getCode,
+                            variant -> variant
+                    ));
+
+    private static final String CODE_SEPARATOR = ",";
+
+    private final String code;
+
+    private final int maxLongEdge;
+
+    private final int maxShortEdge;
+
+    ImageVariant(String code, int maxLongEdge, int maxShortEdge) {
+        this.code = code;
+        this.maxLongEdge = maxLongEdge;
+        this.maxShortEdge = maxShortEdge;
+    }
+
+    /**
+     * 由原图的COS对象Key与元数据版本号推导该规格的对象Key，例如 a/b.png、版本3 -> a/b_v3_medium.jpeg
+     * 原图重新上传时对象Key不变，规格Key带上版本号后，新版本的规格图生成前不会读到旧版本的规格图
+     *
+     * @param originalKey 原图COS对象Key
+     * @param version     头像元数据版本号
+     * @return 规格图COS对象Key
+     */
+    public String deriveKey(String originalKey, long version) {
+        var dotIndex = originalKey.lastIndexOf('.');
+        var base = dotIndex > originalKey.lastIndexOf('/') ? originalKey.substring(0, dotIndex) : originalKey;
+        return String.format("%s_v%d_%s.%s", base, version, code, ImageConstants.IMAGE_JPEG_FORMAT);
+    }
+
+    /**
+     * 将规格集合编码为逗号分隔的编码串，按枚举顺序排列
+     *
+     * @param variants 规格集合
+     * @return 编码串，例如 large,medium,thumbnail；集合为空时返回空串
+     */
+    public static String joinCodes(Collection<ImageVariant> variants) {
+        return variants.stream()
+                .sorted()
+                .distinct()
+                .map(ImageVariant::getCode)
+                .collect(Collectors.joining(CODE_SEPARATOR));
+    }
+
+    /**
+     * 解析逗号分隔的编码串，忽略无法识别的编码
+     *
+     * @param codes 编码串，可为null
+     * @return 规格集合
+     */
+    public static Set<ImageVariant> parseCodes(String codes) {
+        var variants = EnumSet.noneOf(ImageVariant.class);
+        if (codes == null || codes.isBlank()) {
+            return variants;
+        }
+        for (var code : codes.split(CODE_SEPARATOR)) {
+            var variant = CODE_MAP.get(code.trim().toLowerCase(Locale.ROOT));
+            if (variant != null) {
+                variants.add(variant);
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * 通过编码获取规格，编码为空或为original时表示原图
+     *
+     * @param code 规格编码，不区分大小写
+     * @return 对应的规格，原图返回null
+     * @throws BaseException 如果没有找到匹配的规格
+     */
+    public static ImageVariant fromCode(String code) throws BaseException {
+        if (code == null || code.isBlank() || ImageConstants.ORIGINAL_VARIANT.equalsIgnoreCase(code)) {
+            return null;
+        }
+        var variant = CODE_MAP.get(code.toLowerCase(Locale.ROOT));
+        if (variant == null) {
+            throw new BaseException(ExceptionErrorCode.INVALID_PARAM, "无效的图片规格: " + code);
+        }
+        return variant;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.enums.jwt;
+
+/**
+ * Token吊销模式枚举
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public enum TokenRevocationMode {
+    /**
+     * 在Redis中保存完整的Token字符串，校验时比较整串
+     */
+    TOKEN,
+
+    /**
+     * 在Redis中仅保存每个用户的整数代数，Token以claim携带代数，校验时比较整数；登出即一次INCR
+     */
+    GENERATION
+}
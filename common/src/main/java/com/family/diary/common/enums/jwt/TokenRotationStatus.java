@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.enums.jwt;
+
+import lombok.Getter;
+
+/**
+ * Refresh Token轮换结果状态枚举
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Getter
+public enum TokenRotationStatus {
+    /**
+     * 拒绝：Refresh Token不是当前有效的Token
+     */
+    REJECTED(0),
+
+    /**
+     * 轮换成功：已写入新的Token对
+     */
+    ROTATED(1),
+
+    /**
+     * 宽限期内的重复请求：返回上一次轮换出的Token对
+     */
+    REPLAYED(2);
+
+    /**
+     * Lua脚本返回的状态码
+     */
+    private final int code;
+
+    TokenRotationStatus(int code) {
+        this.code = code;
+    }
+
+    /**
+     * 根据状态码获取TokenRotationStatus枚举
+     *
+     * @param code 状态码
+     * @return TokenRotationStatus枚举，未找到返回REJECTED
+     */
+    public static TokenRotationStatus fromCode(long code) {
+        for (TokenRotationStatus status : values()) {
+            if (status.getCode() == code) {
+                return status;
+            }
+        }
+        return REJECTED;
+    }
+}
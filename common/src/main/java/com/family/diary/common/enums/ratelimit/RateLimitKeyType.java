@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.enums.ratelimit;
+
+/**
+ * 限流维度枚举
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public enum RateLimitKeyType {
+    /**
+     * 按客户端IP限流
+     */
+    IP,
+
+    /**
+     * 按微信OpenID限流（仅取已验签Access Token的主体，无法解析时退化为IP）
+     */
+    OPEN_ID,
+
+    /**
+     * 按路由限流（同一路由的所有调用方共享一个令牌桶）
+     */
+    ROUTE
+}
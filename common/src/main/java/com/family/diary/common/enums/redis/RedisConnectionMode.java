@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.enums.redis;
+
+/**
+ * Redis连接策略枚举
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public enum RedisConnectionMode {
+    /**
+     * 非阻塞命令共享一条多路复用的原生Lettuce连接，阻塞命令与事务使用连接池中的独占连接
+     */
+    SHARED,
+
+    /**
+     * 每条命令从连接池借用独占连接，并发命令数受连接池最大连接数限制
+     */
+    POOLED
+}
@@ -28,4 +28,8 @@ public class InvalidCOSTempInfoException extends BaseException {
     public InvalidCOSTempInfoException(String message) {
         super(ExceptionErrorCode.FORBIDDEN, message);
     }
+
+    public InvalidCOSTempInfoException(String message, Throwable cause) {
+        super(ExceptionErrorCode.FORBIDDEN, message, cause);
+    }
 }
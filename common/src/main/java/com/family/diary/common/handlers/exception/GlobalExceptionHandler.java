@@ -19,6 +19,8 @@ import com.family.diary.common.enums.errors.ExceptionErrorCode;
 import com.family.diary.common.enums.errors.ResponseErrorCode;
 import com.family.diary.common.exceptions.BaseException;
 import com.family.diary.common.exceptions.ConflictException;
+import com.family.diary.common.exceptions.TokenStoreUnavailableException;
+import com.family.diary.common.exceptions.TooManyRequestsException;
 import com.family.diary.common.exceptions.UnauthorizedException;
 import com.family.diary.common.exceptions.database.InsertException;
 import com.family.diary.common.exceptions.database.QueryException;
@@ -29,6 +31,7 @@ import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 /**
  * 全局异常处理器
@@ -54,6 +57,12 @@ public class GlobalExceptionHandler extends BaseExceptionHandler {
         return CommonResponse.fail(ResponseErrorCode.CONFLICT, "资源已存在，无法重复创建");
     }
 
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<CommonResponse<Object>> handleMaxUploadSizeExceeded(MaxUploadSizeExceededException ex) {
+        logError(ex);
+        return CommonResponse.fail(ResponseErrorCode.PAYLOAD_TOO_LARGE, "上传文件超过大小上限");
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<CommonResponse<Object>> handleUnknownException(Exception ex) {
         logError(ex);
@@ -69,6 +78,12 @@ public class GlobalExceptionHandler extends BaseExceptionHandler {
         if (ex instanceof UnauthorizedException) {
             return ResponseErrorCode.UNAUTHORIZED;
         }
+        if (ex instanceof TooManyRequestsException) {
+            return ResponseErrorCode.TOO_MANY_REQUESTS;
+        }
+        if (ex instanceof TokenStoreUnavailableException) {
+            return ResponseErrorCode.SERVICE_UNAVAILABLE;
+        }
         if (ex instanceof QueryException) {
             return ResponseErrorCode.NOT_FOUND;
         }
@@ -90,6 +105,10 @@ public class GlobalExceptionHandler extends BaseExceptionHandler {
             case NOT_FOUND -> ResponseErrorCode.NOT_FOUND;
             case TIMEOUT -> ResponseErrorCode.REQUEST_TIMEOUT;
             case CONFLICT -> ResponseErrorCode.CONFLICT;
+            case TOO_MANY_REQUESTS -> ResponseErrorCode.TOO_MANY_REQUESTS;
+            case SERVICE_UNAVAILABLE -> ResponseErrorCode.SERVICE_UNAVAILABLE;
+            case PAYLOAD_TOO_LARGE -> ResponseErrorCode.PAYLOAD_TOO_LARGE;
+            case UNSUPPORTED_MEDIA_TYPE -> ResponseErrorCode.UNSUPPORTED_MEDIA_TYPE;
             case COMMON_ERROR, UNKNOWN_ERROR -> ResponseErrorCode.INTERNAL_SERVER_ERROR;
         };
     }
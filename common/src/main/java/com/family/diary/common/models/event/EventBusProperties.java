@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.models.event;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Redis Streams事件总线属性值
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "spring.data.redis.event-bus")
+public class EventBusProperties {
+    /**
+     * 单次XREADGROUP读取的最大事件数
+     */
+    private int batchSize = 50;
+
+    /**
+     * XREADGROUP阻塞等待新事件的时长，须明显小于Lettuce命令超时
+     */
+    private Duration blockTimeout = Duration.ofSeconds(1);
+
+    /**
+     * 待确认事件空闲超过该时长后可被其他消费者认领（消费者崩溃或处理失败后重投）
+     */
+    private Duration reclaimIdle = Duration.ofMinutes(1);
+
+    /**
+     * 检查待确认事件的间隔
+     */
+    private Duration reclaimInterval = Duration.ofSeconds(30);
+
+    /**
+     * 最大投递次数，达到后转入死信Stream
+     */
+    private int maxDeliveries = 5;
+
+    /**
+     * Stream的近似最大长度，XADD时以MAXLEN ~裁剪
+     */
+    private long maxLength = 100000;
+}
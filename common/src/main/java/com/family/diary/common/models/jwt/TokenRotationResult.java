@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.models.jwt;
+
+import com.family.diary.common.enums.jwt.TokenRotationStatus;
+
+/**
+ * Refresh Token轮换结果
+ *
+ * @param status       轮换状态
+ * @param accessToken  新Access Token，被拒绝时为null
+ * @param refreshToken 新Refresh Token，被拒绝时为null
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public record TokenRotationResult(TokenRotationStatus status, String accessToken, String refreshToken) {
+    /**
+     * 构建被拒绝的轮换结果
+     *
+     * @return TokenRotationResult
+     */
+    public static TokenRotationResult rejected() {
+        return new TokenRotationResult(TokenRotationStatus.REJECTED, null, null);
+    }
+
+    /**
+     * 判断轮换是否成功（包括宽限期内的重复请求）
+     *
+     * @return 是：成功 / 否：被拒绝
+     */
+    public boolean isSuccessful() {
+        return status != TokenRotationStatus.REJECTED;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.models.jwt;
+
+import com.family.diary.common.enums.jwt.TokenType;
+
+import java.time.Instant;
+
+/**
+ * 已验签的JWT Token
+ * 一次解析（验签）得到的声明快照，后续校验直接复用，避免对同一Token重复验签
+ *
+ * @param token      原始Token字符串
+ * @param subject    主体（微信OpenID）
+ * @param tokenType  Token类型，无法识别时为null
+ * @param issuedAt   签发时间
+ * @param expiration 过期时间
+ * @param generation Token代数，未携带时为null
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public record VerifiedToken(String token,
+                            String subject,
+                            TokenType tokenType,
+                            Instant issuedAt,
+                            Instant expiration,
+                            Long generation) {
+    /**
+     * 构建未携带代数的已验签Token（token吊销模式）
+     *
+     * @param token      原始Token字符串
+     * @param subject    主体（微信OpenID）
+     * @param tokenType  Token类型，无法识别时为null
+     * @param issuedAt   签发时间
+     * @param expiration 过期时间
+     */
+    public VerifiedToken(String token, String subject, TokenType tokenType, Instant issuedAt, Instant expiration) {
+        this(token, subject, tokenType, issuedAt, expiration, null);
+    }
+
+    /**
+     * 判断Token是否为指定类型
+     *
+     * @param expected 期望的Token类型
+     * @return 是：类型一致 / 否：类型不一致
+     */
+    public boolean isType(TokenType expected) {
+        return expected == tokenType;
+    }
+
+    /**
+     * 判断Token是否已过期
+     *
+     * @return 是：过期 / 否：未过期
+     */
+    public boolean isExpired() {
+        return expiration == null || !expiration.isAfter(Instant.now());
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.models.ratelimit;
+
+/**
+ * 限流判定结果
+ *
+ * @param allowed      是否放行
+ * @param remaining    剩余令牌数，未知时为-1
+ * @param retryAfterMs 被拒绝时建议的等待毫秒数
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public record RateLimitDecision(boolean allowed, long remaining, long retryAfterMs) {
+    /**
+     * 未经Redis判定直接放行（本地预检通过或Redis不可用时放行）
+     *
+     * @return RateLimitDecision
+     */
+    public static RateLimitDecision permit() {
+        return new RateLimitDecision(true, -1L, 0L);
+    }
+}
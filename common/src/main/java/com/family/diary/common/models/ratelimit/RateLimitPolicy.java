@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.models.ratelimit;
+
+import com.family.diary.common.enums.ratelimit.RateLimitKeyType;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 单条限流策略
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Data
+public class RateLimitPolicy {
+    /**
+     * 策略名称（作为Redis Key与指标标签的一部分）
+     */
+    private String name;
+
+    /**
+     * 匹配的路径（Ant风格，不含context path）
+     */
+    private List<String> patterns = List.of();
+
+    /**
+     * 匹配的HTTP方法，为空时匹配所有方法
+     */
+    private List<String> methods = List.of();
+
+    /**
+     * 限流维度
+     */
+    private RateLimitKeyType keyType = RateLimitKeyType.IP;
+
+    /**
+     * 令牌桶容量（允许的突发请求数）
+     */
+    private long capacity;
+
+    /**
+     * 每个补充周期补充的令牌数
+     */
+    private long refillTokens;
+
+    /**
+     * 补充周期
+     */
+    private Duration refillPeriod = Duration.ofSeconds(1);
+
+    /**
+     * 本地预检可放行的比例：调用方在本节点自上次同步以来的请求数低于上次Redis剩余令牌数乘以该比例时，
+     * 直接放行并延迟到下一次访问Redis时扣减；为0时每次请求都访问Redis
+     */
+    private double localFraction = 0.5D;
+
+    /**
+     * 每毫秒补充的令牌数
+     *
+     * @return 补充速率
+     */
+    public double refillPerMillis() {
+        return (double) refillTokens / Math.max(1L, refillPeriod.toMillis());
+    }
+}
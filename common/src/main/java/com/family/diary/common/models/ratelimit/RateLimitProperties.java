@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.models.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 限流属性值
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    /**
+     * 是否启用限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 是否信任X-Forwarded-For / X-Real-IP请求头（仅在部署于反向代理之后时开启）
+     */
+    private boolean trustForwardedHeaders = false;
+
+    /**
+     * 受信任的反向代理地址（IP或CIDR）；仅当直连地址属于受信任代理时才解析转发请求头，
+     * 并取X-Forwarded-For中自右向左第一个不受信任的地址作为客户端IP
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /**
+     * 本地预检状态的最大条目数
+     */
+    private long localMaximumSize = 100_000L;
+
+    /**
+     * 限流策略，请求命中的所有策略都会生效
+     */
+    private List<RateLimitPolicy> policies = new ArrayList<>();
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.models.redis;
+
+import java.time.Instant;
+
+/**
+ * 超过大小阈值的Redis值
+ *
+ * @param pattern   Key模式（ID类分段已替换为*）
+ * @param operation 发现该值的操作
+ * @param sizeBytes 值大小（字节）
+ * @param lastSeen  最近一次发现的时间
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public record BigValue(String pattern, String operation, long sizeBytes, Instant lastSeen) {
+}
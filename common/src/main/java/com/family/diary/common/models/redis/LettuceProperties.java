@@ -15,10 +15,13 @@
 
 package com.family.diary.common.models.redis;
 
+import com.family.diary.common.enums.redis.RedisConnectionMode;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
  * Redis Lettuce客户端属性值
  *
@@ -29,6 +32,26 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 @ConfigurationProperties(prefix = "spring.data.redis.lettuce")
 public class LettuceProperties {
+    /**
+     * 连接策略
+     */
+    private RedisConnectionMode connectionMode = RedisConnectionMode.SHARED;
+
+    /**
+     * 命令超时时间
+     */
+    private Duration commandTimeout = Duration.ofSeconds(2);
+
+    /**
+     * 客户端关闭超时时间
+     */
+    private Duration shutdownTimeout = Duration.ofMillis(100);
+
+    /**
+     * Pipeline缓冲的命令数，达到该数量时刷写一次；小于等于1时每条命令立即刷写
+     */
+    private int pipelineFlushSize = 64;
+
     /**
      * Redis连接池配置
      */
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.models.redis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis近端缓存属性值
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "spring.data.redis.near-cache")
+public class NearCacheProperties {
+    /**
+     * 是否启用近端缓存
+     */
+    private boolean enabled;
+
+    /**
+     * 启用近端缓存的Key前缀（CLIENT TRACKING BCAST模式要求前缀互不重叠）
+     */
+    private List<String> prefixes = new ArrayList<>();
+
+    /**
+     * 本地缓存的最大条目数
+     */
+    private long maximumSize = 10000;
+
+    /**
+     * 客户端跟踪生效时本地条目的最长存活时间（兜底，正常情况下由失效推送驱逐）
+     */
+    private Duration maxTtl = Duration.ofMinutes(10);
+
+    /**
+     * Redis版本小于6.0或客户端跟踪不可用时本地条目的存活时间
+     */
+    private Duration fallbackTtl = Duration.ofSeconds(5);
+}
@@ -36,6 +36,11 @@ public class PoolProperties {
      */
     private boolean enabled;
 
+    /**
+     * 最大连接数（SHARED模式下仅限制阻塞命令与事务的并发数）
+     */
+    private int maxActive = 16;
+
     /**
      * 最大空闲连接数
      */
@@ -50,4 +55,9 @@ public class PoolProperties {
      * 获取最大等待时间
      */
     private Duration maxWait;
+
+    /**
+     * 空闲连接检测周期
+     */
+    private Duration timeBetweenEvictionRuns = Duration.ofSeconds(30);
 }
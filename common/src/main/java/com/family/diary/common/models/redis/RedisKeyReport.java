@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.models.redis;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Redis Key访问统计报告
+ * 只包含归一化后的Key模式，不暴露含openId等用户标识的原始Key
+ *
+ * @param windowStart          当前统计窗口的开始时间
+ * @param window               统计窗口长度
+ * @param sampleRate           采样率
+ * @param hotPatterns          当前窗口的高频Key模式
+ * @param previousHotPatterns  上一个完整窗口的高频Key模式
+ * @param bigValues            最近发现的大值（按Key模式）
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public record RedisKeyReport(Instant windowStart,
+                             Duration window,
+                             double sampleRate,
+                             List<HeavyHitter> hotPatterns,
+                             List<HeavyHitter> previousHotPatterns,
+                             List<BigValue> bigValues) {
+}
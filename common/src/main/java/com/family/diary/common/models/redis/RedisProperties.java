@@ -58,6 +58,11 @@ public class RedisProperties {
      */
     private String password;
 
+    /**
+     * 批量操作单个分片包含的最大键（或字段）数量，避免单条命令或单次Pipeline过大阻塞Redis
+     */
+    private int batchSize = 500;
+
     /**
      * Redis客户端配置
      */
@@ -15,14 +15,18 @@
 
 package com.family.diary.common.models.tencentcloud;
 
+import java.time.Instant;
+
 /**
  * COSClient需要的临时信息
  *
  * @param cosTempSecretId cosTempSecretId
  * @param cosTempSecretKey cosTempSecretKey
  * @param cosTempToken cosTempToken
+ * @param expiredAt 临时凭证过期时间
  */
 public record COSTempInfo(String cosTempSecretId,
                           String cosTempSecretKey,
-                          String cosTempToken) {
+                          String cosTempToken,
+                          Instant expiredAt) {
 }
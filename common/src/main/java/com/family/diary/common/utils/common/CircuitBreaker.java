@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * 简单熔断器
+ * 连续失败达到阈值后打开，打开期间直接拒绝调用；打开时长结束后放行单个探测请求（半开），
+ * 探测成功则关闭，失败则重新打开
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public final class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+
+    private final int failureThreshold;
+
+    private final long openDurationNanos;
+
+    private volatile State state = State.CLOSED;
+
+    private volatile int consecutiveFailures;
+
+    private long openedAtNanos;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    /**
+     * 判断是否允许本次调用
+     *
+     * @return 是：允许调用 / 否：熔断中
+     */
+    public boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+                state = State.HALF_OPEN;
+                log.info("熔断器[{}]进入半开状态，放行探测请求", name);
+                return true;
+            }
+            return state == State.CLOSED;
+        }
+    }
+
+    /**
+     * 记录调用成功
+     */
+    public void onSuccess() {
+        if (state == State.CLOSED && consecutiveFailures == 0) {
+            return;
+        }
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (state != State.CLOSED) {
+                state = State.CLOSED;
+                log.info("熔断器[{}]已关闭", name);
+            }
+        }
+    }
+
+    /**
+     * 记录调用失败
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            log.warn("熔断器[{}]已打开，连续失败次数: {}", name, consecutiveFailures);
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isOpen() {
+        return state != State.CLOSED;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.common;
+
+import com.family.diary.common.constants.common.ImageConstants;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 根据文件头魔数识别图片类型，不信任客户端声明的Content-Type或文件扩展名
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public final class ImageTypeSniffer {
+    /**
+     * 识别所需的最大文件头长度（WebP需要12字节）
+     */
+    public static final int HEADER_LENGTH = 12;
+
+    private static final byte[] PNG_SIGNATURE = {
+            (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'
+    };
+
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+
+    private static final byte[] GIF87A_SIGNATURE = {'G', 'I', 'F', '8', '7', 'a'};
+
+    private static final byte[] GIF89A_SIGNATURE = {'G', 'I', 'F', '8', '9', 'a'};
+
+    private static final byte[] RIFF_SIGNATURE = {'R', 'I', 'F', 'F'};
+
+    private static final byte[] WEBP_SIGNATURE = {'W', 'E', 'B', 'P'};
+
+    private static final byte[] BMP_SIGNATURE = {'B', 'M'};
+
+    private ImageTypeSniffer() {
+    }
+
+    /**
+     * 读取输入流的文件头并识别图片类型，最多读取{@link #HEADER_LENGTH}字节，调用方负责关闭流
+     *
+     * @param inputStream 图片输入流
+     * @return 图片Content-Type，无法识别时返回null
+     * @throws IOException 读取失败
+     */
+    public static String sniff(InputStream inputStream) throws IOException {
+        var header = inputStream.readNBytes(HEADER_LENGTH);
+        return sniff(header, header.length);
+    }
+
+    /**
+     * 根据文件头识别图片类型
+     *
+     * @param header 文件头
+     * @param length 文件头有效长度
+     * @return 图片Content-Type，无法识别时返回null
+     */
+    public static String sniff(byte[] header, int length) {
+        if (startsWith(header, length, 0, PNG_SIGNATURE)) {
+            return ImageConstants.IMAGE_PNG;
+        }
+        if (startsWith(header, length, 0, JPEG_SIGNATURE)) {
+            return ImageConstants.IMAGE_JPEG;
+        }
+        if (startsWith(header, length, 0, GIF87A_SIGNATURE) || startsWith(header, length, 0, GIF89A_SIGNATURE)) {
+            return ImageConstants.IMAGE_GIF;
+        }
+        if (startsWith(header, length, 0, RIFF_SIGNATURE) && startsWith(header, length, 8, WEBP_SIGNATURE)) {
+            return ImageConstants.IMAGE_WEBP;
+        }
+        if (startsWith(header, length, 0, BMP_SIGNATURE)) {
+            return ImageConstants.IMAGE_BMP;
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, byte[] signature) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (header[offset + i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -18,7 +18,7 @@ package com.family.diary.common.utils.common;
 import com.family.diary.common.constants.tencentcloud.COSConstants;
 import com.family.diary.common.enums.errors.ExceptionErrorCode;
 import com.family.diary.common.exceptions.BaseException;
-import com.family.diary.common.utils.tencentcloud.COSUtil;
+import com.family.diary.common.utils.tencentcloud.CosUrlSigner;
 import com.qcloud.cos.COSClient;
 import com.qcloud.cos.model.ObjectMetadata;
 import com.qcloud.cos.model.PutObjectRequest;
@@ -31,6 +31,7 @@ import org.springframework.stereotype.Component;
 import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Base64;
 
 /**
@@ -43,7 +44,7 @@ import java.util.Base64;
 @Component
 public class ImageUtils {
     @Resource
-    private COSUtil cosUtil;
+    private CosUrlSigner cosUrlSigner;
 
     @Value("${tencent-cloud.cos.bucket}")
     private String bucket;
@@ -84,8 +85,7 @@ public class ImageUtils {
             var result = cosClientWithTempInfo.putObject(putObjectRequest);
             if (result != null) {
                 // 上传成功后返回文件 URL
-                return cosUtil.generatePresignedUrlWithOutHost(cosClientWithTempInfo, bucket, cosKey,
-                        COSConstants.TEMP_TOKEN_EXPIRE_TIME);
+                return cosUrlSigner.sign(cosKey, COSConstants.TEMP_TOKEN_EXPIRE_TIME);
             }
         } catch (Exception e) {
             throw new BaseException(ExceptionErrorCode.COMMON_ERROR, "上传图片到 COS 失败", e);
@@ -100,6 +100,53 @@ public class ImageUtils {
         return Strings.EMPTY; // 如果上传失败，返回 null
     }
 
+    /**
+     * 将输入流以流式方式上传到腾讯云 COS，内存占用仅为SDK的传输缓冲区，与图片大小无关
+     *
+     * @param cosClientWithTempInfo 已经配置好临时密钥的 COS 客户端
+     * @param inputStream           图片输入流，由调用方负责关闭
+     * @param contentLength         内容长度（字节），必须准确
+     * @param contentType           内容类型
+     * @param cosKey                上传到 COS 后的文件名称（例如：image/avatar.png）
+     * @return 文件在 COS 中的 URL
+     * @throws BaseException 如果上传失败，抛出自定义异常
+     */
+    public String uploadStreamToCOS(COSClient cosClientWithTempInfo, InputStream inputStream, long contentLength,
+                                    String contentType, String cosKey) throws BaseException {
+        var metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        // 已知长度时SDK直接按长度流式发送，不会把整个流缓冲到内存中计算长度
+        metadata.setContentLength(contentLength);
+
+        // 限制读取字节数，防止实际内容超过声明的长度
+        var putObjectRequest = new PutObjectRequest(
+                bucket,
+                cosKey,
+                new LimitedInputStream(inputStream, contentLength),
+                metadata
+        );
+
+        try {
+            var result = cosClientWithTempInfo.putObject(putObjectRequest);
+            if (result != null) {
+                return cosUrlSigner.sign(cosKey, COSConstants.TEMP_TOKEN_EXPIRE_TIME);
+            }
+        } catch (BaseException e) {
+            // 超出大小限制等业务异常保持原错误码
+            throw e;
+        } catch (Exception e) {
+            // SDK读取请求体时会包装输入流抛出的异常，需还原其中的业务异常
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof BaseException baseException) {
+                    throw baseException;
+                }
+            }
+            throw new BaseException(ExceptionErrorCode.COMMON_ERROR, "上传图片到 COS 失败", e);
+        }
+
+        return Strings.EMPTY;
+    }
+
     /**
      * 将Base64编码的图片转换为本地文件
      *
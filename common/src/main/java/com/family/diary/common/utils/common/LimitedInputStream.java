@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.common;
+
+import com.family.diary.common.enums.errors.ExceptionErrorCode;
+import com.family.diary.common.exceptions.BaseException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 限制可读取总字节数的输入流，超出上限时在读取过程中直接失败，而不是先把内容读入内存再校验大小
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public class LimitedInputStream extends FilterInputStream {
+    private final long maxBytes;
+
+    private long readBytes;
+
+    /**
+     * 构造函数
+     *
+     * @param in       被包装的输入流
+     * @param maxBytes 允许读取的最大字节数
+     */
+    public LimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        var b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        // 多读1字节用于发现超限，避免恰好读满上限时误判
+        var allowed = (int) Math.min(len, maxBytes - readBytes + 1);
+        var n = super.read(b, off, Math.max(allowed, 1));
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        var skipped = super.skip(n);
+        if (skipped > 0) {
+            count(skipped);
+        }
+        return skipped;
+    }
+
+    /**
+     * 不支持mark/reset，避免reset后重复计数
+     */
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long n) {
+        readBytes += n;
+        if (readBytes > maxBytes) {
+            throw new BaseException(ExceptionErrorCode.PAYLOAD_TOO_LARGE,
+                    String.format("上传内容超过大小上限 %d 字节", maxBytes));
+        }
+    }
+}
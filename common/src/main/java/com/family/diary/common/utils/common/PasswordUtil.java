@@ -15,24 +15,95 @@
 
 package com.family.diary.common.utils.common;
 
+import com.family.diary.common.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
 /**
  * 密码工具类
+ * BCrypt计算在独立的有界线程池中执行，避免登录/注册高峰占满Web工作线程；线程池饱和时快速拒绝（429）
  *
  * @author Richard Zhang
  * @since 2025-11-22
  */
+@Slf4j
 @Component
 public class PasswordUtil {
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private static final String METRIC_PREFIX = "password.hash";
+
+    private static final String SATURATED_MESSAGE = "认证请求过多，请稍后重试";
+
+    /**
+     * BCrypt密文格式，第1组为cost
+     */
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+
+    private final BCryptPasswordEncoder encoder;
+
+    private final int strength;
+
+    private final Duration timeout;
+
+    private final ThreadPoolExecutor executor;
+
+    private final OperationMetrics encodeMetrics;
+
+    private final OperationMetrics matchesMetrics;
+
+    private final Counter rejectedCounter;
+
+    public PasswordUtil(MeterRegistry meterRegistry,
+                        @Value("${password.bcrypt.strength:10}") int strength,
+                        @Value("${password.hash-executor.pool-size:4}") int poolSize,
+                        @Value("${password.hash-executor.queue-capacity:64}") int queueCapacity,
+                        @Value("${password.hash-executor.timeout:5s}") Duration timeout) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.timeout = timeout;
+
+        var threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, METRIC_PREFIX, Tags.empty()).bindTo(meterRegistry);
+
+        this.encodeMetrics = OperationMetrics.of(meterRegistry, "encode");
+        this.matchesMetrics = OperationMetrics.of(meterRegistry, "matches");
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("线程池饱和或等待超时而被拒绝的密码哈希请求数")
+                .register(meterRegistry);
+    }
 
     /**
      * 密码加密
      */
     public String encode(String password) {
-        return encoder.encode(password);
+        return execute(encodeMetrics, () -> encoder.encode(password));
     }
 
     /**
@@ -42,6 +113,85 @@ public class PasswordUtil {
      * @param encodedPassword 密文密码
      */
     public boolean matches(String rawPassword, String encodedPassword) {
-        return encoder.matches(rawPassword, encodedPassword);
+        return execute(matchesMetrics, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 判断密文的cost是否与当前配置不一致（需要在登录成功后重新加密）
+     *
+     * @param encodedPassword 密文密码
+     * @return 是：需要重新加密 / 否：无需重新加密
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        var matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 在哈希线程池中执行并等待结果
+     *
+     * @param metrics 操作指标
+     * @param task    哈希任务
+     * @param <T>     返回类型
+     * @return 任务结果
+     * @throws TooManyRequestsException 线程池队列已满或等待超时
+     */
+    private <T> T execute(OperationMetrics metrics, Supplier<T> task) {
+        var submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                metrics.queueWait().record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return metrics.hashTime().record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("密码哈希线程池已饱和，拒绝请求，队列长度: {}", executor.getQueue().size());
+            throw new TooManyRequestsException(SATURATED_MESSAGE);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            log.warn("密码哈希等待超过{}ms，拒绝请求", timeout.toMillis());
+            throw new TooManyRequestsException(SATURATED_MESSAGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("等待密码哈希结果时被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("密码哈希失败", e.getCause());
+        }
+    }
+
+    /**
+     * 单个操作的排队等待与哈希耗时指标
+     *
+     * @param queueWait 排队等待时间
+     * @param hashTime  哈希计算时间
+     */
+    private record OperationMetrics(Timer queueWait, Timer hashTime) {
+        static OperationMetrics of(MeterRegistry meterRegistry, String operation) {
+            return new OperationMetrics(
+                    Timer.builder(METRIC_PREFIX + ".queue.wait")
+                            .tag("operation", operation)
+                            .register(meterRegistry),
+                    Timer.builder(METRIC_PREFIX + ".duration")
+                            .tag("operation", operation)
+                            .register(meterRegistry));
+        }
     }
 }
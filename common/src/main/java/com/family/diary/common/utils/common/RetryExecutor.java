@@ -18,6 +18,7 @@ package com.family.diary.common.utils.common;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
@@ -34,12 +35,31 @@ public final class RetryExecutor {
     }
 
     public static <T> T execute(String action, int maxAttempts, long baseBackoffMs, Supplier<T> supplier) {
+        return execute(action, maxAttempts, baseBackoffMs, supplier, e -> true);
+    }
+
+    /**
+     * 执行操作，失败时按线性退避重试；不可重试的异常直接抛出
+     *
+     * @param action        操作名称（用于日志）
+     * @param maxAttempts   最大尝试次数
+     * @param baseBackoffMs 基础退避时长（毫秒），第n次失败后等待n倍
+     * @param supplier      操作
+     * @param retryable     判断异常是否可重试
+     * @param <T>           返回类型
+     * @return 操作结果
+     */
+    public static <T> T execute(String action, int maxAttempts, long baseBackoffMs, Supplier<T> supplier,
+                                Predicate<RuntimeException> retryable) {
         RuntimeException lastException = null;
         for (int attempt = 1; attempt <= maxAttempts; attempt++) {
             try {
                 return supplier.get();
             } catch (Exception e) {
                 lastException = e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+                if (!retryable.test(lastException)) {
+                    throw lastException;
+                }
                 log.warn("{}失败，准备重试 {}/{}: {}", action, attempt, maxAttempts, e.getMessage());
                 if (attempt < maxAttempts) {
                     sleepSilently(baseBackoffMs * attempt);
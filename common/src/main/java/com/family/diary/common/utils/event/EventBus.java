@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.event;
+
+/**
+ * 领域事件总线：发布方只负责写入事件，耗时的副作用由消费组在请求线程之外处理
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public interface EventBus {
+    /**
+     * 发布事件
+     *
+     * @param topic 事件主题
+     * @param event 事件
+     * @param <E>   事件类型
+     * @return 事件ID
+     */
+    <E> String publish(EventTopic<E> topic, E event);
+
+    /**
+     * 以消费组订阅事件，每个消费组各自收到全部事件，组内的订阅者分摊事件
+     *
+     * @param topic   事件主题
+     * @param group   消费组名称
+     * @param handler 事件处理器
+     * @param <E>     事件类型
+     * @return 事件订阅
+     */
+    <E> EventSubscription subscribe(EventTopic<E> topic, String group, EventHandler<E> handler);
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.event;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内事件总线，供测试使用
+ * 发布时在调用线程上同步投递：每个消费组收到全部事件，组内订阅者轮流接收；处理失败仅记录日志，不重投
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+public class InMemoryEventBus implements EventBus {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 主题名称 -> 消费组名称 -> 消费组
+     */
+    private final Map<String, Map<String, Group>> topics = new ConcurrentHashMap<>();
+
+    /**
+     * 主题名称 -> 已发布事件
+     */
+    private final Map<String, List<Object>> published = new ConcurrentHashMap<>();
+
+    @Override
+    public <E> String publish(EventTopic<E> topic, E event) {
+        var id = String.valueOf(sequence.incrementAndGet());
+        published.computeIfAbsent(topic.name(), name -> new CopyOnWriteArrayList<>()).add(event);
+        topics.getOrDefault(topic.name(), Map.of()).values().forEach(group -> group.deliver(topic, event));
+        return id;
+    }
+
+    @Override
+    public <E> EventSubscription subscribe(EventTopic<E> topic, String group, EventHandler<E> handler) {
+        var consumers = topics.computeIfAbsent(topic.name(), name -> new ConcurrentHashMap<>())
+                .computeIfAbsent(group, Group::new);
+        consumers.handlers.add(handler);
+        return () -> consumers.handlers.remove(handler);
+    }
+
+    /**
+     * 获取主题已发布的事件
+     *
+     * @param topic 事件主题
+     * @param <E>   事件类型
+     * @return 按发布顺序排列的事件
+     */
+    public <E> List<E> published(EventTopic<E> topic) {
+        var events = new ArrayList<E>();
+        published.getOrDefault(topic.name(), List.of()).forEach(event -> events.add(topic.type().cast(event)));
+        return events;
+    }
+
+    /**
+     * 消费组，组内订阅者轮流接收事件
+     */
+    private static final class Group {
+
+        private final String name;
+
+        private final List<EventHandler<?>> handlers = new CopyOnWriteArrayList<>();
+
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        private Group(String name) {
+            this.name = name;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <E> void deliver(EventTopic<E> topic, E event) {
+            var snapshot = List.copyOf(handlers);
+            if (snapshot.isEmpty()) {
+                return;
+            }
+            var handler = (EventHandler<E>) snapshot.get(Math.floorMod(cursor.getAndIncrement(), snapshot.size()));
+            try {
+                handler.handle(event);
+            } catch (Exception e) {
+                log.warn("事件处理失败: topic={}, group={}", topic.name(), name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.event;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.models.event.EventBusProperties;
+import com.family.diary.common.models.redis.LettuceProperties;
+import com.family.diary.common.models.redis.RedisProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redis Streams的事件总线
+ * <ul>
+ *     <li>发布：XADD并以MAXLEN ~近似裁剪Stream</li>
+ *     <li>消费：每个订阅一个后台线程，以XREADGROUP批量阻塞读取，处理成功的事件批量XACK</li>
+ *     <li>重投：定期检查空闲超时的待确认事件（崩溃的消费者或处理失败），XCLAIM后重新处理，超过最大投递次数转入死信Stream</li>
+ * </ul>
+ * 投递语义为至少一次，处理器需保证幂等
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class RedisStreamEventBus implements EventBus {
+
+    private static final String METRIC_PREFIX = "event-bus";
+
+    private static final String PAYLOAD_FIELD = "payload";
+
+    private static final String SOURCE_ID_FIELD = "source-id";
+
+    private static final String GROUP_FIELD = "group";
+
+    private static final String BUSY_GROUP_ERROR = "BUSYGROUP";
+
+    private static final long RETRY_BACKOFF_MILLIS = 1000L;
+
+    /**
+     * XREADGROUP阻塞时长与Lettuce命令超时之间至少保留的余量，否则空闲时的阻塞读取会频繁触发客户端超时
+     */
+    private static final Duration BLOCK_TIMEOUT_MARGIN = Duration.ofMillis(500);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final EventBusProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 消费者名称（pid@host），进程重启后旧消费者的待确认事件由重投机制接管
+     */
+    private final String consumerName;
+
+    private final Map<String, Counter> publishedCounters = new ConcurrentHashMap<>();
+
+    private final List<StreamSubscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+
+    public RedisStreamEventBus(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                               EventBusProperties properties, RedisProperties redisProperties,
+                               MeterRegistry meterRegistry) {
+        checkBlockTimeout(properties.getBlockTimeout(), redisProperties.getLettuce());
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.consumerName = ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    @Override
+    public <E> String publish(EventTopic<E> topic, E event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("事件序列化失败: " + topic.name(), e);
+        }
+        var id = operations().add(streamKey(topic), Map.of(PAYLOAD_FIELD, payload), trimOptions());
+        publishedCounters.computeIfAbsent(topic.name(), name -> Counter.builder(METRIC_PREFIX + ".published")
+                .description("发布的事件数")
+                .tag("topic", name)
+                .register(meterRegistry))
+                .increment();
+        return id != null ? id.getValue() : null;
+    }
+
+    @Override
+    public <E> EventSubscription subscribe(EventTopic<E> topic, String group, EventHandler<E> handler) {
+        var subscription = new StreamSubscription<>(topic, group, handler);
+        try {
+            subscription.ensureGroup();
+        } catch (DataAccessException e) {
+            // Redis暂不可用时由消费线程重试创建
+            log.warn("创建消费组失败，稍后重试: topic={}, group={}", topic.name(), group, e);
+        }
+        subscriptions.add(subscription);
+        subscription.start();
+        return subscription;
+    }
+
+    /**
+     * 停止所有订阅
+     */
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(StreamSubscription::close);
+    }
+
+    /**
+     * 启动时校验阻塞读取时长明显小于Lettuce命令超时，否则直接启动失败
+     *
+     * @param blockTimeout XREADGROUP阻塞时长
+     * @param lettuce      Lettuce客户端属性
+     */
+    private static void checkBlockTimeout(Duration blockTimeout, LettuceProperties lettuce) {
+        if (lettuce == null || lettuce.getCommandTimeout() == null) {
+            return;
+        }
+        var commandTimeout = lettuce.getCommandTimeout();
+        if (blockTimeout.plus(BLOCK_TIMEOUT_MARGIN).compareTo(commandTimeout) > 0) {
+            throw new IllegalStateException("事件总线block-timeout(" + blockTimeout + ")须比Lettuce command-timeout("
+                    + commandTimeout + ")至少小" + BLOCK_TIMEOUT_MARGIN);
+        }
+    }
+
+    private StreamOperations<String, String, String> operations() {
+        return redisTemplate.opsForStream();
+    }
+
+    private XAddOptions trimOptions() {
+        return XAddOptions.maxlen(properties.getMaxLength()).approximateTrimming(true);
+    }
+
+    private static String streamKey(EventTopic<?> topic) {
+        return RedisConstants.EVENT_STREAM_KEY_PREFIX + RedisConstants.REDIS_KEY_CONNECTOR + topic.name();
+    }
+
+    private static boolean isBusyGroup(DataAccessException e) {
+        var message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.contains(BUSY_GROUP_ERROR);
+    }
+
+    /**
+     * 单个消费组订阅的消费循环
+     */
+    private final class StreamSubscription<E> implements EventSubscription, Runnable {
+
+        private final EventTopic<E> topic;
+
+        private final String group;
+
+        private final EventHandler<E> handler;
+
+        private final String key;
+
+        private final String deadLetterKey;
+
+        private final Consumer consumer;
+
+        private final Timer successTimer;
+
+        private final Timer failureTimer;
+
+        private final Counter reclaimedCounter;
+
+        private final Counter deadLetterCounter;
+
+        private final Thread thread;
+
+        private volatile boolean running = true;
+
+        private long nextReclaimAt;
+
+        private StreamSubscription(EventTopic<E> topic, String group, EventHandler<E> handler) {
+            this.topic = topic;
+            this.group = group;
+            this.handler = handler;
+            this.key = streamKey(topic);
+            this.deadLetterKey = key + RedisConstants.REDIS_KEY_CONNECTOR + RedisConstants.EVENT_DEAD_LETTER_KEY_SUFFIX;
+            this.consumer = Consumer.from(group, consumerName);
+            this.successTimer = handleTimer("success");
+            this.failureTimer = handleTimer("failure");
+            this.reclaimedCounter = counter(".reclaimed", "重新认领的待确认事件数");
+            this.deadLetterCounter = counter(".dead-letter", "转入死信的事件数");
+            this.thread = new Thread(this, METRIC_PREFIX + "-" + topic.name() + "-" + group);
+            this.thread.setDaemon(true);
+        }
+
+        private void start() {
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            var readOptions = StreamReadOptions.empty()
+                    .count(properties.getBatchSize())
+                    .block(properties.getBlockTimeout());
+            var offset = StreamOffset.create(key, ReadOffset.lastConsumed());
+            while (running) {
+                try {
+                    if (System.currentTimeMillis() >= nextReclaimAt) {
+                        reclaim();
+                        nextReclaimAt = System.currentTimeMillis() + properties.getReclaimInterval().toMillis();
+                    }
+                    var records = operations().read(consumer, readOptions, offset);
+                    if (records != null && !records.isEmpty()) {
+                        dispatch(records, Map.of());
+                    }
+                } catch (RuntimeException e) {
+                    if (!running) {
+                        break;
+                    }
+                    log.warn("事件消费失败，稍后重试: stream={}, group={}", key, group, e);
+                    backoff();
+                    recreateGroup();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            subscriptions.remove(this);
+            try {
+                thread.join(properties.getBlockTimeout().toMillis() + RETRY_BACKOFF_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void ensureGroup() {
+            try {
+                operations().createGroup(key, ReadOffset.latest(), group);
+            } catch (DataAccessException e) {
+                if (!isBusyGroup(e)) {
+                    throw e;
+                }
+            }
+        }
+
+        /**
+         * 消费组可能因Redis数据丢失或手动删除而不存在，出错后尝试重建
+         */
+        private void recreateGroup() {
+            try {
+                ensureGroup();
+            } catch (DataAccessException e) {
+                log.debug("重建消费组失败: stream={}, group={}", key, group, e);
+            }
+        }
+
+        /**
+         * 认领空闲超时的待确认事件并重新处理
+         */
+        private void reclaim() {
+            var reclaimIdle = properties.getReclaimIdle();
+            var deliveryCounts = new HashMap<RecordId, Long>();
+            for (var message : operations().pending(key, group, Range.unbounded(), properties.getBatchSize())) {
+                if (message.getElapsedTimeSinceLastDelivery().compareTo(reclaimIdle) >= 0) {
+                    deliveryCounts.put(message.getId(), message.getTotalDeliveryCount());
+                }
+            }
+            if (deliveryCounts.isEmpty()) {
+                return;
+            }
+            // 已被裁剪的事件无法认领，Redis 7起XCLAIM会将其移出待确认列表
+            var claimed = operations().claim(key, group, consumerName, reclaimIdle,
+                    deliveryCounts.keySet().toArray(RecordId[]::new));
+            if (!claimed.isEmpty()) {
+                reclaimedCounter.increment(claimed.size());
+                dispatch(claimed, deliveryCounts);
+            }
+        }
+
+        private void dispatch(List<MapRecord<String, String, String>> records, Map<RecordId, Long> deliveryCounts) {
+            var acknowledged = new ArrayList<RecordId>(records.size());
+            for (var record : records) {
+                if (deliveryCounts.getOrDefault(record.getId(), 0L) >= properties.getMaxDeliveries()) {
+                    log.error("事件超过最大投递次数，转入死信: stream={}, group={}, id={}", key, group, record.getId());
+                    deadLetter(record);
+                    acknowledged.add(record.getId());
+                } else if (handle(record)) {
+                    acknowledged.add(record.getId());
+                }
+            }
+            if (!acknowledged.isEmpty()) {
+                operations().acknowledge(key, group, acknowledged.toArray(RecordId[]::new));
+            }
+        }
+
+        /**
+         * 处理单个事件
+         *
+         * @return 是否可确认
+         */
+        private boolean handle(MapRecord<String, String, String> record) {
+            E event;
+            try {
+                event = objectMapper.readValue(record.getValue().get(PAYLOAD_FIELD), topic.type());
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                // 无法解析的事件重试也不会成功
+                log.error("事件反序列化失败，转入死信: stream={}, id={}", key, record.getId(), e);
+                deadLetter(record);
+                return true;
+            }
+            var start = System.nanoTime();
+            try {
+                handler.handle(event);
+                successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return true;
+            } catch (Exception e) {
+                failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.warn("事件处理失败，等待重投: stream={}, group={}, id={}", key, group, record.getId(), e);
+                return false;
+            }
+        }
+
+        private void deadLetter(MapRecord<String, String, String> record) {
+            var fields = new HashMap<>(record.getValue());
+            fields.put(SOURCE_ID_FIELD, record.getId().getValue());
+            fields.put(GROUP_FIELD, group);
+            operations().add(deadLetterKey, fields, trimOptions());
+            deadLetterCounter.increment();
+        }
+
+        private void backoff() {
+            try {
+                Thread.sleep(RETRY_BACKOFF_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+
+        private Timer handleTimer(String result) {
+            return Timer.builder(METRIC_PREFIX + ".handle")
+                    .description("事件处理耗时")
+                    .tag("topic", topic.name())
+                    .tag("group", group)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        private Counter counter(String suffix, String description) {
+            return Counter.builder(METRIC_PREFIX + suffix)
+                    .description(description)
+                    .tag("topic", topic.name())
+                    .tag("group", group)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.image;
+
+import com.family.diary.common.clients.cos.CosStorageClient;
+import com.family.diary.common.constants.common.ImageConstants;
+import com.family.diary.common.enums.image.ImageVariant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 图片规格生成流水线
+ * 上传完成后在独立的有界线程池中从COS读取原图，生成各规格并写回派生Key；解码后的位图占用内存较大，
+ * 线程数即同时驻留的位图上限。线程池饱和时直接放弃本次生成，不影响上传请求本身
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class ImageVariantPipeline {
+    private static final String METRIC_PREFIX = "image.variant";
+
+    private final CosStorageClient cosStorageClient;
+
+    private final ImageVariantProcessor imageVariantProcessor;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer processTimer;
+
+    private final Counter failedCounter;
+
+    private final Counter rejectedCounter;
+
+    public ImageVariantPipeline(CosStorageClient cosStorageClient,
+                                ImageVariantProcessor imageVariantProcessor,
+                                MeterRegistry meterRegistry,
+                                @Value("${image.variant-executor.pool-size:2}") int poolSize,
+                                @Value("${image.variant-executor.queue-capacity:32}") int queueCapacity) {
+        this.cosStorageClient = cosStorageClient;
+        this.imageVariantProcessor = imageVariantProcessor;
+
+        var threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "image-variant-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, METRIC_PREFIX, Tags.empty()).bindTo(meterRegistry);
+
+        this.processTimer = Timer.builder(METRIC_PREFIX + ".duration")
+                .description("读取原图、生成并上传全部规格的耗时")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder(METRIC_PREFIX + ".failed")
+                .description("规格生成失败次数")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("线程池饱和而被放弃的规格生成任务数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 提交原图的规格生成任务，立即返回
+     *
+     * @param originalKey 原图COS对象Key
+     * @param version     原图的元数据版本号，用于推导规格图的对象Key
+     * @return 各规格的COS对象Key；线程池饱和时返回空Map，生成失败时以异常结束
+     */
+    public CompletableFuture<Map<ImageVariant, String>> submit(String originalKey, long version) {
+        try {
+            return CompletableFuture.supplyAsync(() -> processTimer.record(() -> generate(originalKey, version)),
+                            executor)
+                    .whenComplete((keys, e) -> {
+                        if (e != null) {
+                            failedCounter.increment();
+                            log.warn("生成图片规格失败，原图：{}，原因：{}", originalKey, e.getMessage());
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("图片规格线程池已饱和，放弃生成，原图：{}，队列长度：{}", originalKey, executor.getQueue().size());
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Map<ImageVariant, String> generate(String originalKey, long version) {
+        Map<ImageVariant, byte[]> variants;
+        try (var inputStream = cosStorageClient.openObject(originalKey)) {
+            variants = imageVariantProcessor.process(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        var keys = new EnumMap<ImageVariant, String>(ImageVariant.class);
+        variants.forEach((variant, bytes) -> {
+            var key = variant.deriveKey(originalKey, version);
+            cosStorageClient.uploadImage(new ByteArrayResource(bytes), bytes.length, ImageConstants.IMAGE_JPEG, key);
+            keys.put(variant, key);
+        });
+        log.info("生成图片规格成功，原图：{}，版本：{}，规格：{}", originalKey, version, keys.keySet());
+        return keys;
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.image;
+
+import com.family.diary.common.constants.common.ImageConstants;
+import com.family.diary.common.enums.errors.ExceptionErrorCode;
+import com.family.diary.common.enums.image.ImageVariant;
+import com.family.diary.common.exceptions.BaseException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 图片规格处理器：解码原图、按EXIF方向摆正、缩放到各规格并重新编码为JPEG
+ * 重新编码时不写入任何元数据，EXIF（含GPS位置等隐私信息）随之剥离
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class ImageVariantProcessor {
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+
+    private static final String APP1_MARKER_TAG = "225";
+
+    /**
+     * APP1段中"Exif\0\0"标识之后即为TIFF头
+     */
+    private static final int TIFF_HEADER_OFFSET = 6;
+
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+    private static final int DEFAULT_ORIENTATION = 1;
+
+    /**
+     * 将原图处理为全部规格
+     *
+     * @param source 原图输入流，由调用方负责关闭
+     * @return 各规格的JPEG数据，按规格从大到小排列
+     * @throws BaseException 图片格式不支持、像素过多或解码失败
+     */
+    public Map<ImageVariant, byte[]> process(InputStream source) throws BaseException {
+        var oriented = decode(source);
+        var variants = new EnumMap<ImageVariant, byte[]>(ImageVariant.class);
+        var current = oriented.image();
+        var orientation = oriented.orientation();
+        for (var variant : ImageVariant.values()) {
+            var width = orientedWidth(current, orientation);
+            var height = orientedHeight(current, orientation);
+            var scale = fitScale(width, height, variant);
+            current = resize(current, orientation,
+                    Math.max(1, (int) Math.round(width * scale)), Math.max(1, (int) Math.round(height * scale)));
+            orientation = DEFAULT_ORIENTATION;
+            variants.put(variant, encodeJpeg(current));
+        }
+        return variants;
+    }
+
+    /**
+     * 解码原图。原图远大于最大规格时按整数倍降采样解码，限制解码后的像素数量
+     */
+    private OrientedImage decode(InputStream source) {
+        try (var imageInputStream = new MemoryCacheImageInputStream(source)) {
+            var readers = ImageIO.getImageReaders(imageInputStream);
+            if (!readers.hasNext()) {
+                throw new BaseException(ExceptionErrorCode.UNSUPPORTED_MEDIA_TYPE, "不支持的图片格式");
+            }
+            var reader = readers.next();
+            try {
+                var isJpeg = JPEG_METADATA_FORMAT.equals(
+                        reader.getOriginatingProvider().getNativeImageMetadataFormatName());
+                // 仅JPEG需要读取元数据获取EXIF方向，其余格式忽略元数据以减少解析开销
+                reader.setInput(imageInputStream, true, !isJpeg);
+                var width = reader.getWidth(0);
+                var height = reader.getHeight(0);
+                if ((long) width * height > ImageConstants.MAX_IMAGE_PIXELS) {
+                    throw new BaseException(ExceptionErrorCode.PAYLOAD_TOO_LARGE,
+                            String.format("图片分辨率过大：%dx%d", width, height));
+                }
+                var orientation = isJpeg ? readOrientation(reader) : DEFAULT_ORIENTATION;
+
+                var param = reader.getDefaultReadParam();
+                var subsampling = subsampling(width, height);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return new OrientedImage(reader.read(0, param), orientation);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new BaseException(ExceptionErrorCode.UNSUPPORTED_MEDIA_TYPE, "图片解码失败", e);
+        }
+    }
+
+    /**
+     * 降采样倍数：保证解码结果不小于最大规格的2倍，后续再平滑缩小，兼顾画质与内存
+     */
+    private int subsampling(int width, int height) {
+        var scale = fitScale(Math.max(width, height), Math.min(width, height), ImageVariant.LARGE);
+        return Math.max(1, (int) Math.floor(1 / (2 * scale)));
+    }
+
+    /**
+     * 计算等比缩放到规格边界内的比例，不放大
+     */
+    private double fitScale(int width, int height, ImageVariant variant) {
+        var longEdge = Math.max(width, height);
+        var shortEdge = Math.min(width, height);
+        return Math.min(1.0, Math.min((double) variant.getMaxLongEdge() / longEdge,
+                (double) variant.getMaxShortEdge() / shortEdge));
+    }
+
+    /**
+     * 逐级减半缩放到目标尺寸，每一步都不超过2倍，避免双线性插值一次性大幅缩小产生的锯齿
+     * 第一步同时完成EXIF方向摆正以及透明背景铺白，输出统一为不含透明通道的RGB图
+     */
+    private BufferedImage resize(BufferedImage source, int orientation, int targetWidth, int targetHeight) {
+        var current = source;
+        var currentOrientation = orientation;
+        do {
+            var width = Math.max(targetWidth, orientedWidth(current, currentOrientation) / 2);
+            var height = Math.max(targetHeight, orientedHeight(current, currentOrientation) / 2);
+            current = draw(current, currentOrientation, width, height);
+            currentOrientation = DEFAULT_ORIENTATION;
+        } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+        return current;
+    }
+
+    private BufferedImage draw(BufferedImage source, int orientation, int width, int height) {
+        var target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        var graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            var transform = AffineTransform.getScaleInstance(
+                    (double) width / orientedWidth(source, orientation),
+                    (double) height / orientedHeight(source, orientation));
+            transform.concatenate(orientationTransform(orientation, source.getWidth(), source.getHeight()));
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) {
+        var writer = ImageIO.getImageWritersByFormatName(ImageConstants.IMAGE_JPEG_FORMAT).next();
+        var output = new ByteArrayOutputStream();
+        try (var imageOutputStream = ImageIO.createImageOutputStream(output)) {
+            var param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(ImageConstants.VARIANT_JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new BaseException(ExceptionErrorCode.COMMON_ERROR, "图片编码失败", e);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    private int readOrientation(ImageReader reader) {
+        IIOMetadata metadata;
+        try {
+            metadata = reader.getImageMetadata(0);
+        } catch (IOException e) {
+            // 标记段顺序不规范时JDK无法解析元数据，但图片本身仍可解码，按正常方向处理
+            log.debug("读取JPEG元数据失败，按正常方向处理: {}", e.getMessage());
+            return DEFAULT_ORIENTATION;
+        }
+        if (metadata == null) {
+            return DEFAULT_ORIENTATION;
+        }
+        var root = (IIOMetadataNode) metadata.getAsTree(JPEG_METADATA_FORMAT);
+        var markers = root.getElementsByTagName("unknown");
+        for (int i = 0; i < markers.getLength(); i++) {
+            var marker = (IIOMetadataNode) markers.item(i);
+            if (APP1_MARKER_TAG.equals(marker.getAttribute("MarkerTag"))
+                    && marker.getUserObject() instanceof byte[] data) {
+                return parseExifOrientation(data);
+            }
+        }
+        return DEFAULT_ORIENTATION;
+    }
+
+    /**
+     * 从APP1段中解析EXIF方向（IFD0中的0x0112标签），格式不合法时视为正常方向
+     *
+     * @param app1 APP1段数据，以"Exif\0\0"开头
+     * @return EXIF方向，取值1~8
+     */
+    static int parseExifOrientation(byte[] app1) {
+        if (app1.length < TIFF_HEADER_OFFSET + 8
+                || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+            return DEFAULT_ORIENTATION;
+        }
+        boolean littleEndian;
+        if (app1[TIFF_HEADER_OFFSET] == 'I' && app1[TIFF_HEADER_OFFSET + 1] == 'I') {
+            littleEndian = true;
+        } else if (app1[TIFF_HEADER_OFFSET] == 'M' && app1[TIFF_HEADER_OFFSET + 1] == 'M') {
+            littleEndian = false;
+        } else {
+            return DEFAULT_ORIENTATION;
+        }
+        var ifdStart = TIFF_HEADER_OFFSET + (int) readUnsigned(app1, TIFF_HEADER_OFFSET + 4, 4, littleEndian);
+        if (ifdStart < TIFF_HEADER_OFFSET || ifdStart + 2 > app1.length) {
+            return DEFAULT_ORIENTATION;
+        }
+        var entryCount = (int) readUnsigned(app1, ifdStart, 2, littleEndian);
+        for (int i = 0; i < entryCount; i++) {
+            var entry = ifdStart + 2 + i * 12;
+            if (entry + 12 > app1.length) {
+                break;
+            }
+            if (readUnsigned(app1, entry, 2, littleEndian) == EXIF_ORIENTATION_TAG) {
+                var orientation = (int) readUnsigned(app1, entry + 8, 2, littleEndian);
+                return orientation >= 1 && orientation <= 8 ? orientation : DEFAULT_ORIENTATION;
+            }
+        }
+        return DEFAULT_ORIENTATION;
+    }
+
+    private static long readUnsigned(byte[] data, int offset, int length, boolean littleEndian) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            var b = data[offset + (littleEndian ? length - 1 - i : i)] & 0xFF;
+            value = (value << 8) | b;
+        }
+        return value;
+    }
+
+    /**
+     * EXIF方向对应的坐标变换，将存储方向的像素映射到显示方向
+     */
+    private static AffineTransform orientationTransform(int orientation, int width, int height) {
+        return switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, width);
+            default -> new AffineTransform();
+        };
+    }
+
+    private static boolean swapsAxes(int orientation) {
+        return orientation >= 5;
+    }
+
+    private static int orientedWidth(BufferedImage image, int orientation) {
+        return swapsAxes(orientation) ? image.getHeight() : image.getWidth();
+    }
+
+    private static int orientedHeight(BufferedImage image, int orientation) {
+        return swapsAxes(orientation) ? image.getWidth() : image.getHeight();
+    }
+
+    /**
+     * 解码结果及其EXIF方向
+     *
+     * @param image       解码后的图片（存储方向）
+     * @param orientation EXIF方向
+     */
+    private record OrientedImage(BufferedImage image, int orientation) {
+    }
+}
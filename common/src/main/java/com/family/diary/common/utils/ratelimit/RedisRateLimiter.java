@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.ratelimit;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.models.ratelimit.RateLimitDecision;
+import com.family.diary.common.models.ratelimit.RateLimitPolicy;
+import com.family.diary.common.models.ratelimit.RateLimitProperties;
+import com.family.diary.common.utils.common.CircuitBreaker;
+import com.family.diary.common.utils.redis.RedisScriptRegistry;
+import com.family.diary.common.utils.redis.RedisUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于Redis Lua令牌桶的分布式限流器
+ * 本地预检：调用方在本节点自上次同步以来的请求数低于上次Redis剩余令牌数的一定比例时直接放行，
+ * 放行数在下一次访问Redis时一并扣减；Redis不可用时经熔断器快速放行（fail-open）
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class RedisRateLimiter {
+
+    private static final String METRIC_NAME = "rate-limit.requests";
+
+    private final RedisUtil redisUtil;
+
+    private final MeterRegistry meterRegistry;
+
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> tokenBucketScript;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Cache<String, LocalBucket> localBuckets;
+
+    @Autowired
+    public RedisRateLimiter(RedisUtil redisUtil,
+                            RedisScriptRegistry scriptRegistry,
+                            MeterRegistry meterRegistry,
+                            RateLimitProperties properties,
+                            @Value("${rate-limit.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                            @Value("${rate-limit.circuit-breaker.open-duration:10s}") Duration openDuration) {
+        this.redisUtil = redisUtil;
+        this.meterRegistry = meterRegistry;
+        this.tokenBucketScript = scriptRegistry.get(RedisConstants.REDIS_TOKEN_BUCKET_LUA_NAME, List.class);
+        this.circuitBreaker = new CircuitBreaker("redis-rate-limiter", failureThreshold, openDuration);
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaximumSize())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * 尝试为调用方获取一个令牌
+     *
+     * @param policy 限流策略
+     * @param key    调用方标识
+     * @return 限流判定结果
+     */
+    public RateLimitDecision tryAcquire(RateLimitPolicy policy, String key) {
+        var redisKey = RedisConstants.RATE_LIMIT_KEY_PREFIX
+                + RedisConstants.REDIS_KEY_CONNECTOR + policy.getName()
+                + RedisConstants.REDIS_KEY_CONNECTOR + key;
+        var localBucket = localBuckets.get(redisKey, k -> new LocalBucket());
+
+        if (localBucket.tryAcquireLocally(policy.getLocalFraction())) {
+            record(policy, "local");
+            return RateLimitDecision.permit();
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            record(policy, "fail_open");
+            return RateLimitDecision.permit();
+        }
+
+        var deferred = localBucket.drainDeferred();
+        try {
+            List<?> result = redisUtil.executeScript(tokenBucketScript, List.of(redisKey),
+                    String.valueOf(policy.getCapacity()),
+                    String.valueOf(policy.refillPerMillis()),
+                    "1",
+                    String.valueOf(deferred));
+            circuitBreaker.onSuccess();
+
+            var decision = new RateLimitDecision(toLong(result.get(0)) == 1L,
+                    toLong(result.get(1)), toLong(result.get(2)));
+            localBucket.sync(decision.remaining());
+            record(policy, decision.allowed() ? "allowed" : "rejected");
+            return decision;
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            localBucket.restoreDeferred(deferred);
+            log.warn("限流令牌桶访问Redis失败，放行请求, policy: {}: {}", policy.getName(), e.getMessage());
+            record(policy, "fail_open");
+            return RateLimitDecision.permit();
+        }
+    }
+
+    private void record(RateLimitPolicy policy, String result) {
+        meterRegistry.counter(METRIC_NAME, "policy", policy.getName(), "result", result).increment();
+    }
+
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    /**
+     * 调用方在本节点的预检状态
+     */
+    private static final class LocalBucket {
+        /**
+         * 上次同步时Redis中的剩余令牌数，未同步过时为-1
+         */
+        private volatile long lastRemaining = -1L;
+
+        /**
+         * 本地放行、尚未在Redis中扣减的令牌数
+         */
+        private final AtomicLong deferred = new AtomicLong();
+
+        boolean tryAcquireLocally(double localFraction) {
+            var allowance = (long) Math.floor(lastRemaining * localFraction);
+            while (true) {
+                var current = deferred.get();
+                if (current >= allowance) {
+                    return false;
+                }
+                if (deferred.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        long drainDeferred() {
+            return deferred.getAndSet(0L);
+        }
+
+        void restoreDeferred(long count) {
+            deferred.addAndGet(count);
+        }
+
+        void sync(long remaining) {
+            lastRemaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis;
+
+import org.springframework.data.redis.core.RedisOperations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline批量命令
+ * 仅用于RedisUtil.pipelined回调内：命令被缓冲并在回调结束后一次性发送，
+ * 每个方法在结果列表中按调用顺序占据一个位置，回调内无法读取命令结果；
+ * 涉及的键被记录下来，供RedisUtil计入Key访问统计
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public final class RedisBatch {
+
+    private final RedisOperations<String, Object> operations;
+
+    private final List<String> keys = new ArrayList<>();
+
+    RedisBatch(RedisOperations<String, Object> operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * 本批命令涉及的键，按调用顺序排列（可重复）
+     */
+    List<String> keys() {
+        return keys;
+    }
+
+    /**
+     * GET，结果为值或null
+     */
+    public RedisBatch get(String key) {
+        keys.add(key);
+        operations.opsForValue().get(key);
+        return this;
+    }
+
+    /**
+     * MGET，结果为与键顺序一致的值列表
+     */
+    public RedisBatch multiGet(Collection<String> keys) {
+        this.keys.addAll(keys);
+        operations.opsForValue().multiGet(keys);
+        return this;
+    }
+
+    /**
+     * SET PX，结果为true
+     */
+    public RedisBatch setWithExpire(String key, Object value, long timeout, TimeUnit unit) {
+        keys.add(key);
+        operations.opsForValue().set(key, value, timeout, unit);
+        return this;
+    }
+
+    /**
+     * INCR，结果为自增后的值
+     */
+    public RedisBatch increment(String key) {
+        keys.add(key);
+        operations.opsForValue().increment(key);
+        return this;
+    }
+
+    /**
+     * INCRBY，结果为自增后的值
+     */
+    public RedisBatch increment(String key, long delta) {
+        keys.add(key);
+        operations.opsForValue().increment(key, delta);
+        return this;
+    }
+
+    /**
+     * PEXPIRE，结果为键是否存在
+     */
+    public RedisBatch expire(String key, long timeout, TimeUnit unit) {
+        keys.add(key);
+        operations.expire(key, timeout, unit);
+        return this;
+    }
+
+    /**
+     * DEL，结果为删除的键数量
+     */
+    public RedisBatch delete(Collection<String> keys) {
+        this.keys.addAll(keys);
+        operations.delete(keys);
+        return this;
+    }
+
+    /**
+     * HGET，结果为字段值或null
+     */
+    public RedisBatch hashGet(String key, String hashKey) {
+        keys.add(key);
+        operations.opsForHash().get(key, hashKey);
+        return this;
+    }
+
+    /**
+     * HGETALL，结果为字段Map（键不存在时为空Map）
+     */
+    public RedisBatch hashGetAll(String key) {
+        keys.add(key);
+        operations.opsForHash().entries(key);
+        return this;
+    }
+
+    /**
+     * HMSET，无结果（结果列表中不占位）
+     */
+    public RedisBatch hashPutAll(String key, Map<String, ?> entries) {
+        keys.add(key);
+        operations.opsForHash().putAll(key, entries);
+        return this;
+    }
+
+    /**
+     * ZADD，结果为是否新增成员
+     */
+    public RedisBatch zAdd(String key, Object value, double score) {
+        keys.add(key);
+        operations.opsForZSet().add(key, value, score);
+        return this;
+    }
+
+    /**
+     * ZINCRBY，结果为自增后的分数
+     */
+    public RedisBatch zIncrementScore(String key, Object value, double delta) {
+        keys.add(key);
+        operations.opsForZSet().incrementScore(key, value, delta);
+        return this;
+    }
+
+    /**
+     * ZSCORE，结果为分数或null
+     */
+    public RedisBatch zScore(String key, Object value) {
+        keys.add(key);
+        operations.opsForZSet().score(key, value);
+        return this;
+    }
+}
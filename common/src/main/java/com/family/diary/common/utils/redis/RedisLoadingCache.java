@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 防击穿的读穿缓存原语
+ * <ul>
+ *     <li>本地单飞：同一节点同一Key同时只有一个加载，其他调用方等待其结果</li>
+ *     <li>Redis互斥：短租约互斥锁在节点间去重，未抢到锁的节点等待缓存被填充</li>
+ *     <li>概率提前过期（XFetch）：临近过期时按加载耗时随机提前刷新，避免大量Key在同一时刻过期</li>
+ *     <li>过期后短时间内返回旧值并在后台刷新（stale-while-revalidate）</li>
+ * </ul>
+ * 缓存值以 v1|逻辑过期时间戳|加载耗时|值 的文本格式存储，读取经过RedisNearCache
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class RedisLoadingCache {
+
+    private static final String METRIC_PREFIX = "redis.loading-cache";
+
+    private static final String ENVELOPE_VERSION = "v1";
+
+    private static final String ENVELOPE_SEPARATOR = "|";
+
+    private static final String MUTEX_KEY_SUFFIX = ":loading";
+
+    /**
+     * 未抢到Redis互斥锁时轮询缓存的间隔（毫秒）
+     */
+    private static final long MUTEX_POLL_INTERVAL_MS = 20L;
+
+    private final RedisUtil redisUtil;
+
+    private final RedisNearCache redisNearCache;
+
+    private final Duration staleTtl;
+
+    private final Duration mutexTtl;
+
+    private final Duration loadTimeout;
+
+    private final double beta;
+
+    private final ThreadPoolExecutor refreshExecutor;
+
+    /**
+     * 本节点正在进行的加载
+     */
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+
+    private final Counter earlyRefreshCounter;
+
+    private final Counter staleCounter;
+
+    private final Counter missCounter;
+
+    private final Timer loadTimer;
+
+    @Autowired
+    public RedisLoadingCache(RedisUtil redisUtil,
+                             RedisNearCache redisNearCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${spring.data.redis.loading-cache.stale-ttl:5m}") Duration staleTtl,
+                             @Value("${spring.data.redis.loading-cache.mutex-ttl:10s}") Duration mutexTtl,
+                             @Value("${spring.data.redis.loading-cache.load-timeout:5s}") Duration loadTimeout,
+                             @Value("${spring.data.redis.loading-cache.beta:1.0}") double beta,
+                             @Value("${spring.data.redis.loading-cache.refresh-pool-size:2}") int refreshPoolSize,
+                             @Value("${spring.data.redis.loading-cache.refresh-queue-capacity:100}")
+                             int refreshQueueCapacity) {
+        this.redisUtil = redisUtil;
+        this.redisNearCache = redisNearCache;
+        this.staleTtl = staleTtl;
+        this.mutexTtl = mutexTtl;
+        this.loadTimeout = loadTimeout;
+        this.beta = beta;
+
+        var threadIndex = new AtomicInteger();
+        // 队列满时丢弃后台刷新：调用方已拿到旧值，下次访问会再次触发
+        this.refreshExecutor = new ThreadPoolExecutor(refreshPoolSize, refreshPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(refreshQueueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "redis-cache-refresh-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+        new ExecutorServiceMetrics(refreshExecutor, METRIC_PREFIX + ".refresh", Tags.empty()).bindTo(meterRegistry);
+
+        this.hitCounter = requestCounter(meterRegistry, "hit");
+        this.earlyRefreshCounter = requestCounter(meterRegistry, "early-refresh");
+        this.staleCounter = requestCounter(meterRegistry, "stale");
+        this.missCounter = requestCounter(meterRegistry, "miss");
+        this.loadTimer = Timer.builder(METRIC_PREFIX + ".load")
+                .description("缓存加载函数的执行耗时")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * 读取缓存，未命中时加载并写入
+     *
+     * @param key    缓存Key
+     * @param ttl    缓存有效期（逻辑过期时间，过期后stale-ttl内仍可返回旧值）
+     * @param loader 加载函数，返回null或空串时不缓存
+     * @return 缓存值或加载结果
+     */
+    public String getOrLoad(String key, Duration ttl, Supplier<String> loader) {
+        var entry = Envelope.parse(redisNearCache.get(key));
+        var now = System.currentTimeMillis();
+        if (entry != null) {
+            if (now >= entry.expiresAt()) {
+                staleCounter.increment();
+                refreshAsync(key, ttl, loader);
+            } else if (shouldRefreshEarly(entry, now)) {
+                earlyRefreshCounter.increment();
+                refreshAsync(key, ttl, loader);
+            } else {
+                hitCounter.increment();
+            }
+            return entry.value();
+        }
+
+        missCounter.increment();
+        return singleFlight(key, ttl, loader, true);
+    }
+
+    /**
+     * 直接写入缓存（如数据源更新后主动回填）
+     *
+     * @param key   缓存Key
+     * @param ttl   缓存有效期
+     * @param value 值
+     * @return 写入是否成功
+     */
+    public boolean put(String key, Duration ttl, String value) {
+        return write(key, ttl, value, 0L);
+    }
+
+    /**
+     * 删除缓存（如数据源更新后无法直接回填时），下次读取重新加载
+     *
+     * @param key 缓存Key
+     */
+    public void evict(String key) {
+        redisUtil.delete(key);
+    }
+
+    /**
+     * XFetch：now - delta * beta * ln(rand) >= expiry 时提前刷新，加载越慢、越接近过期，提前刷新的概率越高
+     */
+    private boolean shouldRefreshEarly(Envelope entry, long now) {
+        var random = ThreadLocalRandom.current().nextDouble();
+        return now - entry.deltaMs() * beta * Math.log(random) >= entry.expiresAt();
+    }
+
+    private void refreshAsync(String key, Duration ttl, Supplier<String> loader) {
+        if (inFlight.containsKey(key)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                singleFlight(key, ttl, loader, false);
+            } catch (Exception e) {
+                log.warn("后台刷新缓存失败, key: {}", key, e);
+            }
+        });
+    }
+
+    /**
+     * 本地单飞：已有加载进行中时，前台请求等待其结果，后台刷新直接返回
+     */
+    private String singleFlight(String key, Duration ttl, Supplier<String> loader, boolean foreground) {
+        var flight = new Flight(new CompletableFuture<>(), foreground);
+        var existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return foreground ? joinOrLoad(key, ttl, loader, existing) : null;
+        }
+        try {
+            var value = loadWithMutex(key, ttl, loader, foreground);
+            flight.future().complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.future().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * 在Redis互斥锁保护下加载；未抢到锁时，后台刷新直接放弃，前台请求等待其他节点填充缓存，
+     * 超过load-timeout仍未填充则自行加载（可用性优先于去重）
+     */
+    private String loadWithMutex(String key, Duration ttl, Supplier<String> loader, boolean waitForOthers) {
+        var mutexKey = key + MUTEX_KEY_SUFFIX;
+        var mutexToken = UUID.randomUUID().toString();
+        var locked = tryLockQuietly(mutexKey, mutexToken);
+        if (!locked) {
+            if (!waitForOthers) {
+                return null;
+            }
+            var filled = pollFilled(key);
+            if (filled != null) {
+                return filled;
+            }
+        }
+        try {
+            return load(key, ttl, loader);
+        } finally {
+            if (locked) {
+                releaseQuietly(mutexKey, mutexToken);
+            }
+        }
+    }
+
+    /**
+     * 执行加载函数并写入缓存
+     */
+    private String load(String key, Duration ttl, Supplier<String> loader) {
+        var start = System.nanoTime();
+        var value = loader.get();
+        var elapsedNanos = System.nanoTime() - start;
+        loadTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (value != null && !value.isEmpty()) {
+            write(key, ttl, value, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+        return value;
+    }
+
+    private String pollFilled(String key) {
+        var deadline = System.nanoTime() + loadTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(MUTEX_POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            var entry = Envelope.parse(redisUtil.get(key));
+            if (entry != null) {
+                return entry.value();
+            }
+        }
+        log.warn("等待其他节点加载缓存超时，自行加载, key: {}", key);
+        return null;
+    }
+
+    /**
+     * 前台请求等待本节点进行中的加载
+     * 后台刷新在其他节点持有互斥锁时直接放弃（结果为null），此时改为按前台流程等待其他节点填充或自行加载；
+     * 等待超过load-timeout时不再等待，直接自行加载（可用性优先于去重）
+     */
+    private String joinOrLoad(String key, Duration ttl, Supplier<String> loader, Flight flight) {
+        final String value;
+        try {
+            value = flight.future().get(loadTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待缓存加载被中断, key: " + key, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime
+                    ? runtime
+                    : new IllegalStateException("缓存加载失败, key: " + key, e.getCause());
+        } catch (TimeoutException e) {
+            log.warn("等待本节点缓存加载超时，自行加载, key: {}", key);
+            return load(key, ttl, loader);
+        }
+        if (value == null && !flight.foreground()) {
+            return loadWithMutex(key, ttl, loader, true);
+        }
+        return value;
+    }
+
+    private boolean write(String key, Duration ttl, String value, long deltaMs) {
+        var expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        var envelope = String.join(ENVELOPE_SEPARATOR, ENVELOPE_VERSION, String.valueOf(expiresAt),
+                String.valueOf(deltaMs), value);
+        return redisUtil.setWithExpire(key, envelope, ttl.plus(staleTtl).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private boolean tryLockQuietly(String mutexKey, String token) {
+        try {
+            return redisUtil.tryLock(mutexKey, token, mutexTtl.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Redis不可用时不阻塞加载
+            log.warn("获取缓存加载互斥锁失败, key: {}", mutexKey, e);
+            return true;
+        }
+    }
+
+    private void releaseQuietly(String mutexKey, String token) {
+        try {
+            redisUtil.releaseLock(mutexKey, token);
+        } catch (Exception e) {
+            log.warn("释放缓存加载互斥锁失败, key: {}", mutexKey, e);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_PREFIX + ".requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 本节点进行中的加载
+     *
+     * @param future     加载结果
+     * @param foreground 是否为前台加载；后台刷新可能放弃加载而以null结束
+     */
+    private record Flight(CompletableFuture<String> future, boolean foreground) {
+    }
+
+    /**
+     * 缓存值及其元数据
+     *
+     * @param expiresAt 逻辑过期时间戳（毫秒）
+     * @param deltaMs   上次加载耗时（毫秒）
+     * @param value     值
+     */
+    private record Envelope(long expiresAt, long deltaMs, String value) {
+
+        /**
+         * 解析缓存值，不是当前格式（如旧版本直接写入的值）时返回null，按未命中处理
+         */
+        private static Envelope parse(Object raw) {
+            if (raw == null) {
+                return null;
+            }
+            var parts = String.valueOf(raw).split("\\|", 4);
+            if (parts.length != 4 || !ENVELOPE_VERSION.equals(parts[0])) {
+                return null;
+            }
+            try {
+                return new Envelope(Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[3]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.models.redis.NearCacheProperties;
+import com.family.diary.common.models.redis.RedisProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis近端缓存（可选），位于RedisUtil.get之前，按Key前缀启用
+ * Redis 6+使用RESP3客户端跟踪（CLIENT TRACKING BCAST）：任意客户端修改匹配前缀的Key时，Redis推送失效消息驱逐本地条目；
+ * 跟踪连接断开期间本地缓存被清空并退化为短TTL，重连后重新开启跟踪。Redis版本小于6.0时只使用短TTL
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class RedisNearCache {
+
+    private static final String CACHE_NAME = "redis.near-cache";
+
+    private static final String INVALIDATE_MESSAGE = "invalidate";
+
+    private final RedisUtil redisUtil;
+
+    private final NearCacheProperties properties;
+
+    private final RedisProperties redisProperties;
+
+    private final ClientResources clientResources;
+
+    private final Cache<String, Object> cache;
+
+    /**
+     * 失效版本号：每次失效自增，用于丢弃失效期间并发写入的旧值
+     */
+    private final AtomicLong invalidationVersion = new AtomicLong();
+
+    /**
+     * 客户端跟踪当前是否生效
+     */
+    private volatile boolean tracking;
+
+    private RedisClient trackingClient;
+
+    private volatile StatefulRedisConnection<String, String> trackingConnection;
+
+    @Autowired
+    public RedisNearCache(RedisUtil redisUtil,
+                          NearCacheProperties properties,
+                          RedisProperties redisProperties,
+                          ClientResources clientResources,
+                          MeterRegistry meterRegistry) {
+        this.redisUtil = redisUtil;
+        this.properties = properties;
+        this.redisProperties = redisProperties;
+        this.clientResources = clientResources;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new TrackingAwareExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder(CACHE_NAME + ".tracking", this, nearCache -> nearCache.tracking ? 1 : 0)
+                .description("客户端跟踪是否生效（0表示退化为短TTL）")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 建立跟踪连接并开启BCAST模式的客户端跟踪
+     */
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled() || properties.getPrefixes().isEmpty()) {
+            return;
+        }
+        if (redisProperties.isVersionLessThan6()) {
+            log.info("Redis版本：{}不支持客户端跟踪，近端缓存使用{}的TTL", redisProperties.getVersion(),
+                    properties.getFallbackTtl());
+            return;
+        }
+        try {
+            trackingClient = RedisClient.create(clientResources, buildRedisUri());
+            trackingClient.setOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP3).build());
+            trackingClient.addListener(new TrackingConnectionListener());
+            var connection = trackingClient.connect(StringCodec.UTF8);
+            connection.addListener(this::onPushMessage);
+            trackingConnection = connection;
+            enableTracking(connection);
+        } catch (Exception e) {
+            log.warn("开启Redis客户端跟踪失败，近端缓存使用{}的TTL", properties.getFallbackTtl(), e);
+            stop();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        tracking = false;
+        if (trackingConnection != null) {
+            trackingConnection.close();
+            trackingConnection = null;
+        }
+        if (trackingClient != null) {
+            trackingClient.shutdown();
+            trackingClient = null;
+        }
+    }
+
+    /**
+     * 获取指定键对应的值，Key匹配启用的前缀时优先读取本地缓存
+     *
+     * @param key 键
+     * @return 键对应的值
+     */
+    public Object get(String key) {
+        if (!properties.isEnabled() || !matches(key)) {
+            return redisUtil.get(key);
+        }
+        var cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        var version = invalidationVersion.get();
+        var value = redisUtil.get(key);
+        if (value != null) {
+            putLocal(key, value, version);
+        }
+        return value;
+    }
+
+    /**
+     * 处理Redis推送的失效消息：["invalidate", [key...]]，Key列表为null表示FLUSHALL/FLUSHDB
+     *
+     * @param message 推送消息
+     */
+    void onPushMessage(PushMessage message) {
+        if (!INVALIDATE_MESSAGE.equals(message.getType())) {
+            return;
+        }
+        var content = message.getContent(StringCodec.UTF8::decodeKey);
+        var keys = content.size() > 1 ? content.get(1) : null;
+        if (keys instanceof List<?> list) {
+            invalidationVersion.incrementAndGet();
+            list.forEach(key -> cache.invalidate(String.valueOf(key)));
+        } else {
+            invalidateAll();
+        }
+    }
+
+    private void enableTracking(StatefulRedisConnection<String, String> connection) {
+        var args = TrackingArgs.Builder.enabled()
+                .bcast()
+                .prefixes(properties.getPrefixes().toArray(String[]::new));
+        // 连接事件在IO线程回调，只能使用异步命令
+        connection.async().clientTracking(args).whenComplete((result, error) -> {
+            if (error != null) {
+                tracking = false;
+                log.warn("开启Redis客户端跟踪失败，近端缓存使用{}的TTL", properties.getFallbackTtl(), error);
+                return;
+            }
+            // 跟踪开启前写入的条目可能已错过失效消息
+            invalidateAll();
+            tracking = true;
+            log.info("Redis客户端跟踪已开启，前缀：{}", properties.getPrefixes());
+        });
+    }
+
+    private void invalidateAll() {
+        invalidationVersion.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private void putLocal(String key, Object value, long version) {
+        if (invalidationVersion.get() != version) {
+            return;
+        }
+        cache.put(key, value);
+        // 写入期间发生了失效，回滚本次写入
+        if (invalidationVersion.get() != version) {
+            cache.invalidate(key);
+        }
+    }
+
+    private boolean matches(String key) {
+        for (var prefix : properties.getPrefixes()) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private RedisURI buildRedisUri() {
+        var builder = RedisURI.builder()
+                .withHost(redisProperties.getHost())
+                .withPort(redisProperties.getPort())
+                .withClientName(RedisConstants.REDIS_CLIENT_NAME + "-tracking");
+        var username = redisProperties.getUsername();
+        var password = redisProperties.getPassword();
+        if (username != null && !username.isBlank() && !"default".equalsIgnoreCase(username.trim())) {
+            builder.withAuthentication(username, password != null ? password : "");
+        } else if (password != null && !password.isEmpty()) {
+            builder.withPassword(password.toCharArray());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 跟踪连接状态监听：断开时清空本地缓存并退化为短TTL（断开期间的失效消息会丢失），重连后重新开启跟踪
+     */
+    private class TrackingConnectionListener implements RedisConnectionStateListener {
+        @Override
+        public void onRedisConnected(RedisChannelHandler<?, ?> connection, SocketAddress socketAddress) {
+            var current = trackingConnection;
+            if (current != null) {
+                enableTracking(current);
+            }
+        }
+
+        @Override
+        public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+            tracking = false;
+            invalidateAll();
+        }
+    }
+
+    /**
+     * 条目存活时间：跟踪生效时为max-ttl，否则为fallback-ttl
+     */
+    private class TrackingAwareExpiry implements Expiry<String, Object> {
+        @Override
+        public long expireAfterCreate(String key, Object value, long currentTime) {
+            return (tracking ? properties.getMaxTtl() : properties.getFallbackTtl()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import io.lettuce.core.event.connection.ConnectionActivatedEvent;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lua脚本注册表
+ * 启动时发现scripts/redis下的全部脚本并计算一次SHA1，在应用就绪及每次Lettuce重新建连后执行SCRIPT LOAD，
+ * 使执行路径始终命中EVALSHA（脚本缓存丢失时由Spring回退为EVAL）；按脚本记录执行耗时
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class RedisScriptRegistry {
+
+    private static final String METRIC_NAME = "redis.script";
+
+    private static final String SCRIPT_SUFFIX = ".lua";
+
+    /**
+     * 多条连接同时建连时合并为一次重新加载
+     */
+    private static final Duration RELOAD_DEBOUNCE = Duration.ofSeconds(1);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ClientResources clientResources;
+
+    /**
+     * 脚本名称 -> 脚本内容
+     */
+    private final Map<String, String> sources;
+
+    /**
+     * 脚本SHA1 -> 脚本名称，用于为指标打标签
+     */
+    private final Map<String, String> namesBySha = new ConcurrentHashMap<>();
+
+    private final Map<String, RedisScript<?>> typedScripts = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private Disposable reconnectSubscription;
+
+    @Autowired
+    public RedisScriptRegistry(RedisTemplate<String, Object> redisTemplate,
+                               MeterRegistry meterRegistry,
+                               ClientResources clientResources) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.clientResources = clientResources;
+        this.sources = discover();
+        log.info("已发现Redis Lua脚本: {}", sources.keySet());
+    }
+
+    /**
+     * 订阅Lettuce建连事件：Redis重启或故障转移后脚本缓存为空，重新建连时重新加载全部脚本
+     */
+    @PostConstruct
+    public void subscribe() {
+        reconnectSubscription = clientResources.eventBus().get()
+                .filter(ConnectionActivatedEvent.class::isInstance)
+                .sample(RELOAD_DEBOUNCE)
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(event -> loadAll());
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (reconnectSubscription != null) {
+            reconnectSubscription.dispose();
+        }
+    }
+
+    /**
+     * 应用就绪后预加载全部脚本
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        loadAll();
+    }
+
+    /**
+     * 对全部脚本执行SCRIPT LOAD；失败只记录日志，执行时仍可由EVAL回退
+     */
+    public void loadAll() {
+        try {
+            redisTemplate.execute((RedisCallback<Void>) connection -> {
+                sources.forEach((name, source) ->
+                        connection.scriptingCommands().scriptLoad(source.getBytes(StandardCharsets.UTF_8)));
+                return null;
+            });
+            log.info("已加载{}个Redis Lua脚本", sources.size());
+        } catch (Exception e) {
+            log.warn("Redis Lua脚本预加载失败", e);
+        }
+    }
+
+    /**
+     * 获取指定名称与结果类型的脚本，同一名称与类型返回同一实例（SHA1只计算一次）
+     *
+     * @param name       脚本名称（去掉.lua后缀的文件名）
+     * @param resultType 结果类型
+     * @param <T>        结果类型
+     * @return 脚本
+     */
+    @SuppressWarnings("unchecked")
+    public <T> RedisScript<T> get(String name, Class<T> resultType) {
+        return (RedisScript<T>) typedScripts.computeIfAbsent(name + "#" + resultType.getName(), key -> {
+            var source = sources.get(name);
+            if (source == null) {
+                throw new IllegalArgumentException("未找到Redis Lua脚本: " + name);
+            }
+            var script = new DefaultRedisScript<>(source, resultType);
+            namesBySha.put(script.getSha1(), name);
+            return script;
+        });
+    }
+
+    /**
+     * 执行脚本（EVALSHA，NOSCRIPT时回退EVAL）并记录耗时
+     *
+     * @param script 脚本
+     * @param keys   键名列表
+     * @param args   参数列表
+     * @param <T>    结果类型
+     * @return 脚本执行结果
+     */
+    public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        var sample = Timer.start(meterRegistry);
+        var result = "success";
+        try {
+            return redisTemplate.execute(script, keys, args);
+        } catch (RuntimeException e) {
+            result = "error";
+            throw e;
+        } finally {
+            sample.stop(timer(namesBySha.getOrDefault(script.getSha1(), "inline"), result));
+        }
+    }
+
+    private Timer timer(String name, String result) {
+        return timers.computeIfAbsent(name + "#" + result, key -> Timer.builder(METRIC_NAME)
+                .description("Redis Lua脚本执行耗时")
+                .tag("script", name)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+
+    private static Map<String, String> discover() {
+        try {
+            var resources = new PathMatchingResourcePatternResolver()
+                    .getResources(RedisConstants.REDIS_LUA_SCRIPT_LOCATION);
+            var scripts = new HashMap<String, String>(resources.length * 2);
+            for (var resource : resources) {
+                var filename = resource.getFilename();
+                if (filename == null || !filename.endsWith(SCRIPT_SUFFIX)) {
+                    continue;
+                }
+                var name = filename.substring(0, filename.length() - SCRIPT_SUFFIX.length());
+                try (var in = resource.getInputStream()) {
+                    scripts.put(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+            return Collections.unmodifiableMap(scripts);
+        } catch (IOException e) {
+            throw new IllegalStateException("加载Redis Lua脚本失败", e);
+        }
+    }
+}
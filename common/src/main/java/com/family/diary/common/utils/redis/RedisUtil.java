@@ -16,17 +16,26 @@
 package com.family.diary.common.utils.redis;
 
 import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.models.redis.RedisProperties;
+import com.family.diary.common.utils.redis.codec.RedisCodec;
+import com.family.diary.common.utils.redis.monitor.RedisKeyMonitor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.*;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Redis工具类，提供了一系列便捷的方法来操作Redis数据库。
@@ -39,13 +48,26 @@ import java.util.concurrent.TimeUnit;
 public class RedisUtil {
     private final RedisTemplate<String, Object> redisTemplate;
 
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+
     private final RedisScript<Long> releaseLockScript;
 
+    private final int batchSize;
+
+    private final RedisScriptRegistry scriptRegistry;
+
+    private final RedisKeyMonitor keyMonitor;
+
     @Autowired
-    public RedisUtil(RedisTemplate<String, Object> redisTemplate) {
+    public RedisUtil(RedisTemplate<String, Object> redisTemplate, RedisTemplate<String, byte[]> binaryRedisTemplate,
+                     RedisProperties redisProperties, RedisScriptRegistry scriptRegistry,
+                     RedisKeyMonitor keyMonitor) {
         this.redisTemplate = redisTemplate;
-        this.releaseLockScript = RedisScript.of(new ClassPathResource(RedisConstants.REDIS_RELEASE_LOCK_LUA_PATH),
-                Long.class);
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.batchSize = Math.max(redisProperties.getBatchSize(), 1);
+        this.scriptRegistry = scriptRegistry;
+        this.keyMonitor = keyMonitor;
+        this.releaseLockScript = scriptRegistry.get(RedisConstants.REDIS_RELEASE_LOCK_LUA_NAME, Long.class);
     }
 
     /**
@@ -55,7 +77,9 @@ public class RedisUtil {
      * @param value 值
      */
     public void set(String key, Object value) {
+        var start = System.nanoTime();
         redisTemplate.opsForValue().set(key, value);
+        keyMonitor.record("set", key, value, System.nanoTime() - start);
     }
 
     /**
@@ -69,7 +93,9 @@ public class RedisUtil {
      */
     public boolean setWithExpire(String key, Object value, long timeout, TimeUnit unit) {
         try {
+            var start = System.nanoTime();
             redisTemplate.opsForValue().set(key, value, timeout, unit);
+            keyMonitor.record("set", key, value, System.nanoTime() - start);
             return true;
         } catch (Exception e) {
             log.error("Redis setWithExpire error", e);
@@ -84,7 +110,50 @@ public class RedisUtil {
      * @return 键对应的值
      */
     public Object get(String key) {
-        return redisTemplate.opsForValue().get(key);
+        var start = System.nanoTime();
+        var value = redisTemplate.opsForValue().get(key);
+        keyMonitor.record("get", key, value, System.nanoTime() - start);
+        return value;
+    }
+
+    /**
+     * 使用编解码器写入带有过期时间的二进制值。
+     *
+     * @param key     键
+     * @param value   值
+     * @param codec   编解码器
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @param <T>     值类型
+     * @return 操作是否成功
+     */
+    public <T> boolean setTyped(String key, T value, RedisCodec<T> codec, long timeout, TimeUnit unit) {
+        try {
+            var bytes = codec.encode(value);
+            var start = System.nanoTime();
+            binaryRedisTemplate.opsForValue().set(key, bytes, timeout, unit);
+            keyMonitor.record("set", key, bytes, System.nanoTime() - start);
+            return true;
+        } catch (Exception e) {
+            log.error("Redis setTyped error, codec: {}", codec.name(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 使用编解码器读取二进制值。
+     *
+     * @param key   键
+     * @param codec 编解码器
+     * @param <T>   值类型
+     * @return 解码后的值，键不存在时返回null
+     * @throws org.springframework.data.redis.serializer.SerializationException 值无法解码（如格式版本不兼容）
+     */
+    public <T> T getTyped(String key, RedisCodec<T> codec) {
+        var start = System.nanoTime();
+        var bytes = binaryRedisTemplate.opsForValue().get(key);
+        keyMonitor.record("get", key, bytes, System.nanoTime() - start);
+        return bytes != null ? codec.decode(bytes) : null;
     }
 
     /**
@@ -93,7 +162,108 @@ public class RedisUtil {
      * @param key 键
      */
     public void delete(String key) {
+        var start = System.nanoTime();
         redisTemplate.delete(key);
+        keyMonitor.record("delete", key, null, System.nanoTime() - start);
+    }
+
+    /**
+     * 批量删除指定的键（单条DEL命令）。
+     *
+     * @param keys 键集合
+     * @return 删除的键数量
+     */
+    public long delete(Collection<String> keys) {
+        var start = System.nanoTime();
+        var deleted = redisTemplate.delete(keys);
+        keyMonitor.record("delete", keys, System.nanoTime() - start);
+        return deleted != null ? deleted : 0L;
+    }
+
+    /**
+     * 批量获取键对应的值。
+     * 键数量不超过分片大小时为单条MGET，否则按分片拆分为多条MGET并在一次Pipeline往返中发送。
+     *
+     * @param keys 键列表
+     * @return 与键顺序一致的值列表，不存在的位置为null
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> multiGet(List<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        var start = System.nanoTime();
+        List<Object> values;
+        if (keys.size() <= batchSize) {
+            values = orNulls(redisTemplate.opsForValue().multiGet(keys), keys.size());
+        } else {
+            var chunks = partition(keys);
+            var results = executePipelined(batch -> chunks.forEach(batch::multiGet));
+            values = new ArrayList<>(keys.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                values.addAll(orNulls((List<Object>) results.get(i), chunks.get(i).size()));
+            }
+        }
+        keyMonitor.record("mget", keys, System.nanoTime() - start);
+        return values;
+    }
+
+    /**
+     * 批量设置带有相同过期时间的键值对，按分片以Pipeline写入（每个分片一次往返）。
+     *
+     * @param values  键值对
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return 操作是否全部成功
+     */
+    public boolean multiSetWithExpire(Map<String, ?> values, long timeout, TimeUnit unit) {
+        if (values.isEmpty()) {
+            return true;
+        }
+        try {
+            var start = System.nanoTime();
+            for (var chunk : partition(new ArrayList<>(values.entrySet()))) {
+                executePipelined(batch -> chunk.forEach(
+                        entry -> batch.setWithExpire(entry.getKey(), entry.getValue(), timeout, unit)));
+            }
+            keyMonitor.record("mset", values.keySet(), System.nanoTime() - start);
+            return true;
+        } catch (Exception e) {
+            log.error("Redis multiSetWithExpire error", e);
+            return false;
+        }
+    }
+
+    /**
+     * 以Pipeline方式执行一组命令，所有命令在一次网络往返中发送。
+     *
+     * @param commands 命令回调
+     * @return 按命令顺序排列的结果列表
+     */
+    public List<Object> pipelined(Consumer<RedisBatch> commands) {
+        var start = System.nanoTime();
+        var keys = new ArrayList<String>();
+        var results = executePipelined(batch -> {
+            commands.accept(batch);
+            keys.addAll(batch.keys());
+        });
+        keyMonitor.record("pipeline", keys, System.nanoTime() - start);
+        return results;
+    }
+
+    /**
+     * 设置指定键的过期时间。
+     *
+     * @param key     键
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return 键存在且设置成功返回true
+     */
+    public boolean expire(String key, long timeout, TimeUnit unit) {
+        var start = System.nanoTime();
+        var result = redisTemplate.expire(key, timeout, unit);
+        keyMonitor.record("expire", key, null, System.nanoTime() - start);
+        return Boolean.TRUE.equals(result);
     }
 
     /**
@@ -103,7 +273,10 @@ public class RedisUtil {
      * @return 如果键存在返回true，否则返回false
      */
     public boolean exists(String key) {
-        return redisTemplate.hasKey(key);
+        var start = System.nanoTime();
+        var exists = redisTemplate.hasKey(key);
+        keyMonitor.record("exists", key, null, System.nanoTime() - start);
+        return Boolean.TRUE.equals(exists);
     }
 
     /**
@@ -114,7 +287,9 @@ public class RedisUtil {
      * @param value   字段对应的值
      */
     public void hashSet(String key, String hashKey, Object value) {
+        var start = System.nanoTime();
         redisTemplate.opsForHash().put(key, hashKey, value);
+        keyMonitor.record("hset", key, value, System.nanoTime() - start);
     }
 
     /**
@@ -125,7 +300,69 @@ public class RedisUtil {
      * @return 字段对应的值
      */
     public Object hashGet(String key, String hashKey) {
-        return redisTemplate.opsForHash().get(key, hashKey);
+        var start = System.nanoTime();
+        var value = redisTemplate.opsForHash().get(key, hashKey);
+        keyMonitor.record("hget", key, value, System.nanoTime() - start);
+        return value;
+    }
+
+    /**
+     * 批量获取哈希表中多个字段的值，按分片以HMGET读取。
+     *
+     * @param key      哈希表的键
+     * @param hashKeys 字段列表
+     * @return 与字段顺序一致的值列表，不存在的位置为null
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> hashMultiGet(String key, List<String> hashKeys) {
+        if (hashKeys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        var start = System.nanoTime();
+        var chunks = partition(hashKeys);
+        var values = new ArrayList<>(hashKeys.size());
+        for (var chunk : chunks) {
+            var chunkValues = redisTemplate.opsForHash().multiGet(key, (Collection<Object>) (Collection<?>) chunk);
+            values.addAll(orNulls(chunkValues, chunk.size()));
+        }
+        keyMonitor.record("hmget", key, null, System.nanoTime() - start);
+        return values;
+    }
+
+    /**
+     * 批量获取多个哈希表的全部字段，按分片以Pipeline执行HGETALL。
+     *
+     * @param keys 哈希表的键列表
+     * @return 与键顺序一致的字段Map列表，键不存在时为空Map
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<Object, Object>> hashGetAll(List<String> keys) {
+        var start = System.nanoTime();
+        var values = new ArrayList<Map<Object, Object>>(keys.size());
+        for (var chunk : partition(keys)) {
+            var results = executePipelined(batch -> chunk.forEach(batch::hashGetAll));
+            for (Object result : results) {
+                values.add(result != null ? (Map<Object, Object>) result : Collections.emptyMap());
+            }
+        }
+        keyMonitor.record("hgetall", keys, System.nanoTime() - start);
+        return values;
+    }
+
+    /**
+     * 批量设置哈希表的字段，按分片以HMSET写入。
+     *
+     * @param key     哈希表的键
+     * @param entries 字段与值
+     */
+    public void hashPutAll(String key, Map<String, ?> entries) {
+        var start = System.nanoTime();
+        for (var chunk : partition(new ArrayList<>(entries.entrySet()))) {
+            var chunkEntries = new LinkedHashMap<String, Object>(chunk.size() * 2);
+            chunk.forEach(entry -> chunkEntries.put(entry.getKey(), entry.getValue()));
+            redisTemplate.opsForHash().putAll(key, chunkEntries);
+        }
+        keyMonitor.record("hmset", key, null, System.nanoTime() - start);
     }
 
     /**
@@ -135,7 +372,9 @@ public class RedisUtil {
      * @param value 元素值
      */
     public void leftPush(String key, Object value) {
+        var start = System.nanoTime();
         redisTemplate.opsForList().leftPush(key, value);
+        keyMonitor.record("lpush", key, value, System.nanoTime() - start);
     }
 
     /**
@@ -145,7 +384,10 @@ public class RedisUtil {
      * @return 弹出的元素值
      */
     public Object leftPop(String key) {
-        return redisTemplate.opsForList().leftPop(key);
+        var start = System.nanoTime();
+        var value = redisTemplate.opsForList().leftPop(key);
+        keyMonitor.record("lpop", key, value, System.nanoTime() - start);
+        return value;
     }
 
     /**
@@ -155,7 +397,9 @@ public class RedisUtil {
      * @param values 元素值
      */
     public void setAdd(String key, Object... values) {
+        var start = System.nanoTime();
         redisTemplate.opsForSet().add(key, values);
+        keyMonitor.record("sadd", key, null, System.nanoTime() - start);
     }
 
     /**
@@ -165,7 +409,10 @@ public class RedisUtil {
      * @return 集合的所有成员
      */
     public Set<Object> setMembers(String key) {
-        return redisTemplate.opsForSet().members(key);
+        var start = System.nanoTime();
+        var members = redisTemplate.opsForSet().members(key);
+        keyMonitor.record("smembers", key, null, System.nanoTime() - start);
+        return members;
     }
 
     /**
@@ -176,7 +423,9 @@ public class RedisUtil {
      * @param score 分数
      */
     public void zAdd(String key, Object value, double score) {
+        var start = System.nanoTime();
         redisTemplate.opsForZSet().add(key, value, score);
+        keyMonitor.record("zadd", key, value, System.nanoTime() - start);
     }
 
     /**
@@ -188,7 +437,50 @@ public class RedisUtil {
      * @return 符合条件的成员集
      */
     public Set<Object> rangeByScore(String key, double min, double max) {
-        return redisTemplate.opsForZSet().rangeByScore(key, min, max);
+        var start = System.nanoTime();
+        var members = redisTemplate.opsForZSet().rangeByScore(key, min, max);
+        keyMonitor.record("zrangebyscore", key, null, System.nanoTime() - start);
+        return members;
+    }
+
+    /**
+     * 批量添加元素到有序集合中，按分片以ZADD写入。
+     *
+     * @param key    有序集合的键
+     * @param scores 元素与分数
+     * @return 新增的元素数量
+     */
+    public long zAddAll(String key, Map<?, Double> scores) {
+        var start = System.nanoTime();
+        var added = 0L;
+        for (var chunk : partition(new ArrayList<>(scores.entrySet()))) {
+            var tuples = new HashSet<ZSetOperations.TypedTuple<Object>>(chunk.size() * 2);
+            chunk.forEach(entry -> tuples.add(ZSetOperations.TypedTuple.of(entry.getKey(), entry.getValue())));
+            var count = redisTemplate.opsForZSet().add(key, tuples);
+            added += count != null ? count : 0L;
+        }
+        keyMonitor.record("zadd", key, null, System.nanoTime() - start);
+        return added;
+    }
+
+    /**
+     * 批量获取有序集合中多个元素的分数，按分片以Pipeline执行ZSCORE（兼容不支持ZMSCORE的Redis版本）。
+     *
+     * @param key    有序集合的键
+     * @param values 元素列表
+     * @return 与元素顺序一致的分数列表，不存在的位置为null
+     */
+    public List<Double> zScores(String key, List<?> values) {
+        var start = System.nanoTime();
+        var scores = new ArrayList<Double>(values.size());
+        for (var chunk : partition(values)) {
+            var results = executePipelined(batch -> chunk.forEach(value -> batch.zScore(key, value)));
+            for (Object result : results) {
+                scores.add(result != null ? ((Number) result).doubleValue() : null);
+            }
+        }
+        keyMonitor.record("zscore", key, null, System.nanoTime() - start);
+        return scores;
     }
 
     /**
@@ -201,7 +493,10 @@ public class RedisUtil {
      * @return 如果获取锁成功返回true，否则返回false
      */
     public boolean tryLock(String lockKey, String requestId, long expireTime, TimeUnit unit) {
-        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, requestId, expireTime, unit));
+        var start = System.nanoTime();
+        var locked = redisTemplate.opsForValue().setIfAbsent(lockKey, requestId, expireTime, unit);
+        keyMonitor.record("setnx", lockKey, requestId, System.nanoTime() - start);
+        return Boolean.TRUE.equals(locked);
     }
 
     /**
@@ -211,26 +506,75 @@ public class RedisUtil {
      * @param requestId 请求ID
      */
     public void releaseLock(String lockKey, String requestId) {
-        var keys = List.of(lockKey);
-        var result = redisTemplate.execute(releaseLockScript, keys, requestId);
-        if (result == 0L) {
+        var result = executeScript(releaseLockScript, List.of(lockKey), requestId);
+        if (result == null || result == 0L) {
             log.warn("Redis未能成功释放锁或锁不存在");
         }
     }
 
     /**
-     * 执行Lua脚本。
+     * 向指定频道发布消息。
      *
-     * @param script Lua脚本内容
+     * @param channel 频道名称
+     * @param message 消息内容
+     */
+    public void publish(String channel, Object message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
+    /**
+     * 按名称执行已注册的Lua脚本（EVALSHA）。
+     *
+     * @param name       脚本名称（scripts/redis下去掉.lua后缀的文件名）
+     * @param resultType 结果类型
+     * @param keys       键名列表
+     * @param args       参数列表
+     * @param <T>        返回类型
+     * @return 脚本执行结果
+     */
+    public <T> T executeScript(String name, Class<T> resultType, List<String> keys, Object... args) {
+        return executeScript(scriptRegistry.get(name, resultType), keys, args);
+    }
+
+    /**
+     * 执行预加载的Lua脚本（优先EVALSHA）。
+     *
+     * @param script 预加载的脚本
      * @param keys   键名列表
      * @param args   参数列表
      * @param <T>    返回类型
      * @return 脚本执行结果
      */
-    public <T> T executeScript(String script, List<String> keys, Object... args) {
-        DefaultRedisScript<T> redisScript = new DefaultRedisScript<>();
-        redisScript.setScriptText(script);
-        redisScript.setResultType((Class<T>) Object.class);
-        return redisTemplate.execute(redisScript, keys, args);
+    public <T> T executeScript(RedisScript<T> script, List<String> keys, Object... args) {
+        var start = System.nanoTime();
+        var result = scriptRegistry.execute(script, keys, args);
+        keyMonitor.record("eval", keys, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * 执行Pipeline但不计入Key访问统计，供已自行记录的批量方法使用
+     */
+    private List<Object> executePipelined(Consumer<RedisBatch> commands) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                commands.accept(new RedisBatch((RedisOperations<String, Object>) operations));
+                return null;
+            }
+        });
+    }
+
+    private <E> List<List<E>> partition(List<E> items) {
+        var chunks = new ArrayList<List<E>>((items.size() + batchSize - 1) / batchSize);
+        for (int from = 0; from < items.size(); from += batchSize) {
+            chunks.add(items.subList(from, Math.min(from + batchSize, items.size())));
+        }
+        return chunks;
+    }
+
+    private static List<Object> orNulls(List<Object> values, int size) {
+        return values != null ? values : new ArrayList<>(Collections.nCopies(size, null));
     }
 }
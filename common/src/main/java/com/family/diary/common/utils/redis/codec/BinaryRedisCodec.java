@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis.codec;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 基于DataOutput的紧凑二进制编解码器基类
+ * 首字节为格式版本号，字段按固定顺序写入；可空字段以一个存在标记字节开头
+ *
+ * @param <T> 值类型
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public abstract class BinaryRedisCodec<T> implements RedisCodec<T> {
+
+    private static final int INITIAL_BUFFER_SIZE = 128;
+
+    /**
+     * 格式版本号，字段布局变化时递增；旧版本的值解码失败后按缓存未命中处理
+     *
+     * @return 格式版本号
+     */
+    protected abstract byte version();
+
+    /**
+     * 写入字段
+     *
+     * @param value 值
+     * @param out   输出流
+     * @throws IOException IO异常
+     */
+    protected abstract void write(T value, DataOutputStream out) throws IOException;
+
+    /**
+     * 读取字段
+     *
+     * @param in 输入流
+     * @return 值
+     * @throws IOException IO异常
+     */
+    protected abstract T read(DataInputStream in) throws IOException;
+
+    @Override
+    public byte[] encode(T value) {
+        var buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try (var out = new DataOutputStream(buffer)) {
+            out.writeByte(version());
+            write(value, out);
+        } catch (IOException e) {
+            throw new SerializationException(name() + "编码失败", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public T decode(byte[] bytes) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            var version = in.readByte();
+            if (version != version()) {
+                throw new SerializationException(name() + "格式版本不兼容: " + version);
+            }
+            return read(in);
+        } catch (IOException e) {
+            throw new SerializationException(name() + "解码失败", e);
+        }
+    }
+
+    // ==================== 可空字段读写 ====================
+
+    protected static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    protected static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    protected static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    protected static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    protected static void writeDate(DataOutputStream out, LocalDate value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochDay());
+        }
+    }
+
+    protected static LocalDate readDate(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+    }
+
+    protected static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    protected static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+
+    protected static <E extends Enum<E>> void writeEnum(DataOutputStream out, E value) throws IOException {
+        writeString(out, value != null ? value.name() : null);
+    }
+
+    /**
+     * 读取枚举（按名称存储，枚举新增或调整顺序不影响已缓存的值）
+     */
+    protected static <E extends Enum<E>> E readEnum(DataInputStream in, Class<E> type) throws IOException {
+        var name = readString(in);
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("未知的枚举值: " + type.getSimpleName() + "." + name, e);
+        }
+    }
+}
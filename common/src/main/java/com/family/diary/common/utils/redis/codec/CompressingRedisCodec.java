@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis.codec;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 压缩编解码器装饰器
+ * 编码结果超过阈值时使用Deflate压缩；首字节标记是否压缩，小对象不付出压缩开销
+ *
+ * @param <T> 值类型
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public class CompressingRedisCodec<T> implements RedisCodec<T> {
+
+    private static final byte RAW = 0;
+
+    private static final byte DEFLATED = 1;
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private final RedisCodec<T> delegate;
+
+    private final int thresholdBytes;
+
+    /**
+     * 构造函数
+     *
+     * @param delegate       被装饰的编解码器
+     * @param thresholdBytes 压缩阈值（字节），编码结果大于该值时压缩
+     */
+    public CompressingRedisCodec(RedisCodec<T> delegate, int thresholdBytes) {
+        this.delegate = delegate;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public byte[] encode(T value) {
+        var raw = delegate.encode(value);
+        if (raw.length <= thresholdBytes) {
+            return withHeader(RAW, raw, raw.length);
+        }
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(raw.length / 2 + 1);
+            out.write(DEFLATED);
+            var buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            var compressed = out.toByteArray();
+            // 压缩无收益时保留原始字节
+            return compressed.length < raw.length + 1 ? compressed : withHeader(RAW, raw, raw.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public T decode(byte[] bytes) {
+        if (bytes.length == 0) {
+            throw new SerializationException("空的压缩值");
+        }
+        return switch (bytes[0]) {
+            case RAW -> delegate.decode(Arrays.copyOfRange(bytes, 1, bytes.length));
+            case DEFLATED -> delegate.decode(inflate(bytes));
+            default -> throw new SerializationException("未知的压缩标记: " + bytes[0]);
+        };
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 1, bytes.length - 1);
+            var out = new ByteArrayOutputStream(bytes.length * 2);
+            var buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                var inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("压缩值不完整");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("压缩值解压失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] withHeader(byte header, byte[] payload, int length) {
+        var result = new byte[length + 1];
+        result[0] = header;
+        System.arraycopy(payload, 0, result, 1, length);
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis.codec;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 带指标的编解码器装饰器：记录载荷大小与编解码耗时
+ * 指标：redis.codec.payload.size（direction=encode/decode）、redis.codec.encode、redis.codec.decode，均按codec打标签
+ *
+ * @param <T> 值类型
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public class InstrumentedRedisCodec<T> implements RedisCodec<T> {
+
+    private static final String METRIC_PREFIX = "redis.codec";
+
+    private final RedisCodec<T> delegate;
+
+    private final Timer encodeTimer;
+
+    private final Timer decodeTimer;
+
+    private final DistributionSummary encodedSize;
+
+    private final DistributionSummary decodedSize;
+
+    public InstrumentedRedisCodec(RedisCodec<T> delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        var codec = delegate.name();
+        this.encodeTimer = Timer.builder(METRIC_PREFIX + ".encode")
+                .tag("codec", codec)
+                .register(meterRegistry);
+        this.decodeTimer = Timer.builder(METRIC_PREFIX + ".decode")
+                .tag("codec", codec)
+                .register(meterRegistry);
+        this.encodedSize = DistributionSummary.builder(METRIC_PREFIX + ".payload.size")
+                .baseUnit("bytes")
+                .tag("codec", codec)
+                .tag("direction", "encode")
+                .register(meterRegistry);
+        this.decodedSize = DistributionSummary.builder(METRIC_PREFIX + ".payload.size")
+                .baseUnit("bytes")
+                .tag("codec", codec)
+                .tag("direction", "decode")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] encode(T value) {
+        var bytes = encodeTimer.record(() -> delegate.encode(value));
+        encodedSize.record(bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public T decode(byte[] bytes) {
+        decodedSize.record(bytes.length);
+        return decodeTimer.record(() -> delegate.decode(bytes));
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+}
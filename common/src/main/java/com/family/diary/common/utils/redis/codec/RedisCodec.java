@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis.codec;
+
+/**
+ * Redis值编解码器
+ * 与RedisUtil.getTyped / setTyped配合使用，将对象编码为紧凑的二进制值
+ *
+ * @param <T> 值类型
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public interface RedisCodec<T> {
+    /**
+     * 编码
+     *
+     * @param value 值，不为null
+     * @return 二进制值
+     * @throws org.springframework.data.redis.serializer.SerializationException 编码失败
+     */
+    byte[] encode(T value);
+
+    /**
+     * 解码
+     *
+     * @param bytes 二进制值，不为null
+     * @return 值
+     * @throws org.springframework.data.redis.serializer.SerializationException 解码失败（格式或版本不兼容）
+     */
+    T decode(byte[] bytes);
+
+    /**
+     * 编解码器名称（用于指标标签）
+     *
+     * @return 名称
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis.invalidation;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.utils.redis.RedisUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.event.Event;
+import io.lettuce.core.event.connection.ConnectionActivatedEvent;
+import io.lettuce.core.event.connection.ReconnectAttemptEvent;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 跨节点本地缓存失效总线（Redis Pub/Sub）
+ * <ul>
+ *     <li>本地缓存按名称注册失效回调，失效时立即作用于本节点，再通知其他节点</li>
+ *     <li>合并窗口内的失效按缓存去重后合并为一条消息发布；单个缓存待发布的Key过多时降级为清空该缓存</li>
+ *     <li>节点忽略自己发出的消息；Lettuce断线重连后清空全部已注册缓存，弥补断线期间错过的通知</li>
+ * </ul>
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class LocalCacheInvalidationBus implements MessageListener {
+
+    private static final String METRIC_PREFIX = "local-cache.invalidation";
+
+    private static final long RETRY_BACKOFF_MILLIS = 1000L;
+
+    private final RedisUtil redisUtil;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final ClientResources clientResources;
+
+    private final ObjectMapper objectMapper;
+
+    private final long coalesceWindowMillis;
+
+    private final int maxKeysPerCache;
+
+    /**
+     * 节点标识，用于忽略自己发出的消息
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, LocalCacheInvalidationListener> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * 待发布的失效，按缓存名称合并，由this同步保护
+     */
+    private Map<String, PendingInvalidation> pending = new LinkedHashMap<>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final ScheduledThreadPoolExecutor flusher;
+
+    private final Counter publishedCounter;
+
+    private final Counter receivedCounter;
+
+    private final Counter fullFlushCounter;
+
+    /**
+     * 是否发生过断线重连尝试，重新建连后据此清空本地缓存
+     */
+    private volatile boolean reconnecting;
+
+    private Disposable reconnectSubscription;
+
+    public LocalCacheInvalidationBus(RedisUtil redisUtil,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     ClientResources clientResources,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${spring.data.redis.local-cache-invalidation.coalesce-window:5ms}")
+                                     Duration coalesceWindow,
+                                     @Value("${spring.data.redis.local-cache-invalidation.max-keys-per-cache:1000}")
+                                     int maxKeysPerCache) {
+        this.redisUtil = redisUtil;
+        this.listenerContainer = listenerContainer;
+        this.clientResources = clientResources;
+        this.objectMapper = objectMapper;
+        this.coalesceWindowMillis = coalesceWindow.toMillis();
+        this.maxKeysPerCache = maxKeysPerCache;
+        this.flusher = new ScheduledThreadPoolExecutor(1, runnable -> {
+            var thread = new Thread(runnable, "local-cache-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.publishedCounter = Counter.builder(METRIC_PREFIX + ".messages")
+                .description("本地缓存失效消息数")
+                .tag("direction", "published")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder(METRIC_PREFIX + ".messages")
+                .description("本地缓存失效消息数")
+                .tag("direction", "received")
+                .register(meterRegistry);
+        this.fullFlushCounter = Counter.builder(METRIC_PREFIX + ".full-flush")
+                .description("断线重连后清空全部本地缓存的次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 订阅失效通知与Lettuce重连事件
+     */
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this,
+                new ChannelTopic(RedisConstants.LOCAL_CACHE_INVALIDATION_CHANNEL));
+        reconnectSubscription = clientResources.eventBus().get()
+                .filter(event -> event instanceof ReconnectAttemptEvent || event instanceof ConnectionActivatedEvent)
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(this::onConnectionEvent);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reconnectSubscription != null) {
+            reconnectSubscription.dispose();
+        }
+        flusher.shutdown();
+        flush();
+    }
+
+    /**
+     * 注册本地缓存
+     *
+     * @param cacheName 缓存名称，在所有节点上唯一标识同一个缓存
+     * @param listener  失效回调
+     */
+    public void register(String cacheName, LocalCacheInvalidationListener listener) {
+        if (listeners.putIfAbsent(cacheName, listener) != null) {
+            throw new IllegalStateException("本地缓存已注册: " + cacheName);
+        }
+    }
+
+    /**
+     * 失效所有节点上指定缓存的Key
+     *
+     * @param cacheName 缓存名称
+     * @param key       缓存Key
+     */
+    public void invalidate(String cacheName, String key) {
+        applyLocal(cacheName, listener -> listener.invalidate(key));
+        enqueue(cacheName, invalidation -> invalidation.keys.add(key));
+    }
+
+    /**
+     * 失效所有节点上指定缓存中以prefix开头的Key
+     *
+     * @param cacheName 缓存名称
+     * @param prefix    Key前缀
+     */
+    public void invalidatePrefix(String cacheName, String prefix) {
+        applyLocal(cacheName, listener -> listener.invalidatePrefix(prefix));
+        enqueue(cacheName, invalidation -> invalidation.prefixes.add(prefix));
+    }
+
+    /**
+     * 清空所有节点上的指定缓存
+     *
+     * @param cacheName 缓存名称
+     */
+    public void invalidateAll(String cacheName) {
+        applyLocal(cacheName, LocalCacheInvalidationListener::invalidateAll);
+        enqueue(cacheName, invalidation -> invalidation.all = true);
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        InvalidationMessage invalidationMessage;
+        try {
+            invalidationMessage = objectMapper.readValue(message.getBody(), InvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("无法解析的本地缓存失效消息", e);
+            return;
+        }
+        if (nodeId.equals(invalidationMessage.origin())) {
+            return;
+        }
+        receivedCounter.increment();
+        invalidationMessage.caches().forEach((cacheName, invalidation) -> applyLocal(cacheName, listener -> {
+            if (invalidation.all()) {
+                listener.invalidateAll();
+                return;
+            }
+            invalidation.keys().forEach(listener::invalidate);
+            invalidation.prefixes().forEach(listener::invalidatePrefix);
+        }));
+    }
+
+    private void onConnectionEvent(Event event) {
+        if (event instanceof ReconnectAttemptEvent) {
+            reconnecting = true;
+        } else if (reconnecting) {
+            reconnecting = false;
+            log.warn("Redis连接已恢复，清空全部本地缓存: {}", listeners.keySet());
+            fullFlushCounter.increment();
+            listeners.keySet().forEach(cacheName -> applyLocal(cacheName,
+                    LocalCacheInvalidationListener::invalidateAll));
+        }
+    }
+
+    private void applyLocal(String cacheName, Consumer<LocalCacheInvalidationListener> action) {
+        var listener = listeners.get(cacheName);
+        if (listener == null) {
+            return;
+        }
+        try {
+            action.accept(listener);
+        } catch (Exception e) {
+            log.error("本地缓存失效失败: {}", cacheName, e);
+        }
+    }
+
+    private void enqueue(String cacheName, Consumer<PendingInvalidation> mutation) {
+        synchronized (this) {
+            var invalidation = pending.computeIfAbsent(cacheName, name -> new PendingInvalidation());
+            if (!invalidation.all) {
+                mutation.accept(invalidation);
+                invalidation.collapseIfNeeded(maxKeysPerCache);
+            }
+        }
+        scheduleFlush(coalesceWindowMillis);
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        if (flushScheduled.compareAndSet(false, true) && !flusher.isShutdown()) {
+            flusher.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        // 先复位再取出，取出之后入队的失效会调度下一次发布
+        flushScheduled.set(false);
+        Map<String, PendingInvalidation> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        var caches = new LinkedHashMap<String, CacheInvalidation>(batch.size());
+        batch.forEach((cacheName, invalidation) -> caches.put(cacheName, invalidation.toMessage()));
+        try {
+            redisUtil.publish(RedisConstants.LOCAL_CACHE_INVALIDATION_CHANNEL,
+                    objectMapper.writeValueAsString(new InvalidationMessage(nodeId, caches)));
+            publishedCounter.increment();
+        } catch (Exception e) {
+            log.error("发布本地缓存失效通知失败，稍后重试: {}", caches.keySet(), e);
+            requeue(batch);
+        }
+    }
+
+    private void requeue(Map<String, PendingInvalidation> batch) {
+        synchronized (this) {
+            batch.forEach((cacheName, failed) -> pending.merge(cacheName, failed, (current, previous) -> {
+                current.merge(previous);
+                current.collapseIfNeeded(maxKeysPerCache);
+                return current;
+            }));
+        }
+        scheduleFlush(RETRY_BACKOFF_MILLIS);
+    }
+
+    /**
+     * 失效消息
+     *
+     * @param origin 发出消息的节点标识
+     * @param caches 缓存名称 -> 失效内容
+     */
+    record InvalidationMessage(String origin, Map<String, CacheInvalidation> caches) {
+    }
+
+    /**
+     * 单个缓存的失效内容
+     *
+     * @param all      是否清空缓存
+     * @param keys     失效的Key
+     * @param prefixes 失效的Key前缀
+     */
+    record CacheInvalidation(boolean all, Set<String> keys, Set<String> prefixes) {
+    }
+
+    /**
+     * 合并中的失效内容
+     */
+    private static final class PendingInvalidation {
+
+        private boolean all;
+
+        private final Set<String> keys = new LinkedHashSet<>();
+
+        private final Set<String> prefixes = new LinkedHashSet<>();
+
+        private void merge(PendingInvalidation other) {
+            all |= other.all;
+            keys.addAll(other.keys);
+            prefixes.addAll(other.prefixes);
+        }
+
+        private void collapseIfNeeded(int maxKeys) {
+            if (all || keys.size() + prefixes.size() > maxKeys) {
+                all = true;
+                keys.clear();
+                prefixes.clear();
+            }
+        }
+
+        private CacheInvalidation toMessage() {
+            return new CacheInvalidation(all, Set.copyOf(keys), Set.copyOf(prefixes));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis.invalidation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * 本地缓存失效回调，由LocalCacheInvalidationBus在本节点发起失效或收到其他节点的失效通知时调用
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public interface LocalCacheInvalidationListener {
+    /**
+     * 失效指定Key
+     *
+     * @param key 缓存Key
+     */
+    void invalidate(String key);
+
+    /**
+     * 失效指定前缀的全部Key
+     *
+     * @param prefix Key前缀
+     */
+    void invalidatePrefix(String prefix);
+
+    /**
+     * 清空缓存
+     */
+    void invalidateAll();
+
+    /**
+     * 基于Caffeine缓存的失效回调
+     *
+     * @param cache            本地缓存
+     * @param beforeInvalidate 每次失效前执行的动作（如自增失效版本号），不需要时传入空操作
+     * @return 失效回调
+     */
+    static LocalCacheInvalidationListener of(Cache<String, ?> cache, Runnable beforeInvalidate) {
+        return new LocalCacheInvalidationListener() {
+            @Override
+            public void invalidate(String key) {
+                beforeInvalidate.run();
+                cache.invalidate(key);
+            }
+
+            @Override
+            public void invalidatePrefix(String prefix) {
+                beforeInvalidate.run();
+                cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+            }
+
+            @Override
+            public void invalidateAll() {
+                beforeInvalidate.run();
+                cache.invalidateAll();
+            }
+        };
+    }
+}
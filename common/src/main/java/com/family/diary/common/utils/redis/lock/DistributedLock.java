@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis.lock;
+
+import java.time.Duration;
+
+/**
+ * 分布式锁句柄，由RedisLockManager.getLock创建
+ * 同一线程可重入；持有期间由看门狗自动续租，释放后通过Pub/Sub唤醒等待者
+ * <pre>
+ * var lock = lockManager.getLock("avatar:" + openId);
+ * if (lock.tryLock(Duration.ofSeconds(3))) {
+ *     try {
+ *         writeWithFence(lock.getFencingToken());
+ *     } finally {
+ *         lock.unlock();
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public final class DistributedLock {
+
+    private final RedisLockManager manager;
+
+    private final String name;
+
+    DistributedLock(RedisLockManager manager, String name) {
+        this.manager = manager;
+        this.name = name;
+    }
+
+    /**
+     * 尝试获取锁，锁被占用时等待释放通知或租约到期，最长等待waitTime
+     *
+     * @param waitTime 最长等待时间，为0时只尝试一次
+     * @return 获取成功返回true；超时或线程被中断返回false
+     */
+    public boolean tryLock(Duration waitTime) {
+        return manager.tryLock(name, waitTime);
+    }
+
+    /**
+     * 释放锁（重入时仅在最外层释放时删除Redis中的锁）
+     *
+     * @throws IllegalMonitorStateException 当前线程未持有该锁
+     */
+    public void unlock() {
+        manager.unlock(name);
+    }
+
+    /**
+     * 获取本次持有的栅栏令牌，同一把锁的令牌随每次获取单调递增；
+     * 下游存储应拒绝令牌小于已见最大值的写入，防止租约过期后的旧持有者覆盖数据
+     *
+     * @return 栅栏令牌
+     * @throws IllegalMonitorStateException 当前线程未持有该锁
+     */
+    public long getFencingToken() {
+        return manager.getFencingToken(name);
+    }
+
+    /**
+     * 当前线程是否持有该锁
+     *
+     * @return 持有返回true
+     */
+    public boolean isHeldByCurrentThread() {
+        return manager.isHeldByCurrentThread(name);
+    }
+
+    /**
+     * 获取锁名称
+     *
+     * @return 锁名称（不含Key前缀）
+     */
+    public String getName() {
+        return name;
+    }
+}
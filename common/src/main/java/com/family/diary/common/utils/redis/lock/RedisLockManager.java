@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis.lock;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.utils.redis.RedisScriptRegistry;
+import com.family.diary.common.utils.redis.RedisUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 基于Redis的可重入分布式锁管理器
+ * <ul>
+ *     <li>租约：获取时设置lease-time的过期时间，看门狗每1/3租约续期一次，持有者宕机后锁最多保留一个租约</li>
+ *     <li>重入：同一线程重复获取只增加本地计数，不访问Redis</li>
+ *     <li>等待：获取失败时挂起至锁的剩余租约或释放通知（Pub/Sub）到达，而不是自旋轮询</li>
+ *     <li>栅栏令牌：每次获取成功时自增的计数，供下游拒绝过期持有者的写入</li>
+ * </ul>
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class RedisLockManager implements MessageListener {
+
+    private static final String METRIC_PREFIX = "redis.lock";
+
+    /**
+     * 无法得知锁剩余租约时的初始退避时间（毫秒）
+     */
+    private static final long MIN_BACKOFF_MS = 10L;
+
+    /**
+     * 退避时间上限（毫秒）
+     */
+    private static final long MAX_BACKOFF_MS = 200L;
+
+    private final RedisUtil redisUtil;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> acquireScript;
+
+    private final RedisScript<Long> renewScript;
+
+    private final RedisScript<Long> releaseScript;
+
+    private final long leaseMs;
+
+    /**
+     * 栅栏令牌计数Key的有效期（毫秒），每次获取锁时续期；锁名称包含openId等用户维度，计数Key不能永久保留
+     */
+    private final long fenceTtlMs;
+
+    /**
+     * 本实例标识，与线程ID组成Redis中的持有者标识
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ScheduledThreadPoolExecutor watchdog;
+
+    /**
+     * 锁Key -> 本实例持有的锁
+     */
+    private final ConcurrentMap<String, HeldLock> heldLocks = new ConcurrentHashMap<>();
+
+    /**
+     * 锁Key -> 等待该锁的本地线程
+     */
+    private final ConcurrentMap<String, Set<Thread>> waiters = new ConcurrentHashMap<>();
+
+    private final Timer acquiredTimer;
+
+    private final Timer timeoutTimer;
+
+    private final Counter contentionCounter;
+
+    private final Timer holdTimer;
+
+    private final Counter leaseLostCounter;
+
+    @Autowired
+    public RedisLockManager(RedisUtil redisUtil,
+                            RedisScriptRegistry scriptRegistry,
+                            RedisMessageListenerContainer listenerContainer,
+                            MeterRegistry meterRegistry,
+                            @Value("${distributed-lock.lease-time:30s}") Duration leaseTime,
+                            @Value("${distributed-lock.fence-ttl:7d}") Duration fenceTtl) {
+        this.redisUtil = redisUtil;
+        this.listenerContainer = listenerContainer;
+        this.acquireScript = scriptRegistry.get(RedisConstants.REDIS_LOCK_ACQUIRE_LUA_NAME, List.class);
+        this.renewScript = scriptRegistry.get(RedisConstants.REDIS_LOCK_RENEW_LUA_NAME, Long.class);
+        this.releaseScript = scriptRegistry.get(RedisConstants.REDIS_LOCK_RELEASE_LUA_NAME, Long.class);
+        this.leaseMs = leaseTime.toMillis();
+        this.fenceTtlMs = Math.max(fenceTtl.toMillis(), leaseMs);
+        this.watchdog = new ScheduledThreadPoolExecutor(1, runnable -> {
+            var thread = new Thread(runnable, "redis-lock-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog.setRemoveOnCancelPolicy(true);
+
+        this.acquiredTimer = Timer.builder(METRIC_PREFIX + ".acquire")
+                .description("获取分布式锁的耗时（含等待）")
+                .tag("result", "acquired")
+                .register(meterRegistry);
+        this.timeoutTimer = Timer.builder(METRIC_PREFIX + ".acquire")
+                .description("获取分布式锁的耗时（含等待）")
+                .tag("result", "timeout")
+                .register(meterRegistry);
+        this.contentionCounter = Counter.builder(METRIC_PREFIX + ".contention")
+                .description("因锁被其他持有者占用而失败的获取尝试次数")
+                .register(meterRegistry);
+        this.holdTimer = Timer.builder(METRIC_PREFIX + ".hold")
+                .description("分布式锁的持有时长")
+                .register(meterRegistry);
+        this.leaseLostCounter = Counter.builder(METRIC_PREFIX + ".lease.lost")
+                .description("续期时发现锁已过期或被其他持有者获取的次数")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".held", heldLocks, ConcurrentMap::size)
+                .description("本实例当前持有的分布式锁数量")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 订阅锁释放通知
+     */
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisConstants.LOCK_RELEASED_CHANNEL));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+    }
+
+    /**
+     * 获取锁句柄（不访问Redis）
+     *
+     * @param name 锁名称
+     * @return 锁句柄
+     */
+    public DistributedLock getLock(String name) {
+        return new DistributedLock(this, name);
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        wakeWaiters(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    boolean tryLock(String name, Duration waitTime) {
+        var key = buildKey(name);
+        var current = Thread.currentThread();
+        var held = heldLocks.get(key);
+        if (held != null && held.owner == current) {
+            held.holds++;
+            return true;
+        }
+
+        var start = System.nanoTime();
+        var deadline = start + waitTime.toNanos();
+        var ownerId = instanceId + ":" + current.getId();
+        var fenceKey = RedisConstants.LOCK_FENCE_KEY_PREFIX + RedisConstants.REDIS_KEY_CONNECTOR + name;
+        var keys = List.of(key, fenceKey);
+        var lockWaiters = waiters.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+        // 先登记再尝试获取，避免失败后、挂起前到达的释放通知丢失
+        lockWaiters.add(current);
+        try {
+            var backoffMs = MIN_BACKOFF_MS;
+            while (true) {
+                List<?> result = redisUtil.executeScript(acquireScript, keys, ownerId, String.valueOf(leaseMs),
+                        String.valueOf(fenceTtlMs));
+                if (result != null && result.size() > 1 && ((Number) result.get(0)).longValue() == 1L) {
+                    register(key, ownerId, current, ((Number) result.get(1)).longValue());
+                    acquiredTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return true;
+                }
+                contentionCounter.increment();
+
+                var remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    timeoutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return false;
+                }
+                // 锁有剩余租约时挂起至租约到期（释放通知会提前唤醒），否则指数退避
+                var ttlMs = result != null && result.size() > 1 ? ((Number) result.get(1)).longValue() : -1L;
+                var parkMs = ttlMs > 0 ? ttlMs : backoffMs;
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+                LockSupport.parkNanos(this, Math.min(remainingNanos, TimeUnit.MILLISECONDS.toNanos(parkMs)));
+                if (current.isInterrupted()) {
+                    timeoutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return false;
+                }
+            }
+        } finally {
+            lockWaiters.remove(current);
+            waiters.computeIfPresent(key, (k, threads) -> threads.isEmpty() ? null : threads);
+        }
+    }
+
+    void unlock(String name) {
+        var key = buildKey(name);
+        var held = heldLocks.get(key);
+        if (held == null || held.owner != Thread.currentThread()) {
+            throw new IllegalMonitorStateException("当前线程未持有分布式锁: " + name);
+        }
+        if (--held.holds > 0) {
+            return;
+        }
+
+        heldLocks.remove(key);
+        held.renewal.cancel(false);
+        holdTimer.record(System.nanoTime() - held.acquiredAt, TimeUnit.NANOSECONDS);
+        try {
+            Long released = redisUtil.executeScript(releaseScript, List.of(key), held.ownerId,
+                    RedisConstants.LOCK_RELEASED_CHANNEL);
+            if (released == null || released == 0L) {
+                log.warn("分布式锁在释放前已过期或被其他持有者获取: {}", name);
+            }
+        } catch (Exception e) {
+            // 释放失败时锁将在租约到期后自动失效
+            log.error("释放分布式锁失败: {}", name, e);
+        }
+        wakeWaiters(key);
+    }
+
+    long getFencingToken(String name) {
+        var held = heldLocks.get(buildKey(name));
+        if (held == null || held.owner != Thread.currentThread()) {
+            throw new IllegalMonitorStateException("当前线程未持有分布式锁: " + name);
+        }
+        return held.fencingToken;
+    }
+
+    boolean isHeldByCurrentThread(String name) {
+        var held = heldLocks.get(buildKey(name));
+        return held != null && held.owner == Thread.currentThread();
+    }
+
+    private void register(String key, String ownerId, Thread owner, long fencingToken) {
+        var held = new HeldLock(ownerId, owner, fencingToken, System.nanoTime());
+        var period = Math.max(leaseMs / 3, 1L);
+        held.renewal = watchdog.scheduleAtFixedRate(() -> renew(key, held), period, period, TimeUnit.MILLISECONDS);
+        heldLocks.put(key, held);
+    }
+
+    private void renew(String key, HeldLock held) {
+        try {
+            Long renewed = redisUtil.executeScript(renewScript, List.of(key), held.ownerId, String.valueOf(leaseMs));
+            if (renewed == null || renewed == 0L) {
+                log.warn("分布式锁租约已丢失，停止续期: {}", key);
+                leaseLostCounter.increment();
+                held.renewal.cancel(false);
+            }
+        } catch (Exception e) {
+            // 保留续期任务，Redis恢复后在租约到期前仍有机会续期成功
+            log.warn("分布式锁续期失败: {}", key, e);
+        }
+    }
+
+    private void wakeWaiters(String key) {
+        var threads = waiters.get(key);
+        if (threads != null) {
+            threads.forEach(LockSupport::unpark);
+        }
+    }
+
+    private String buildKey(String name) {
+        return RedisConstants.LOCK_KEY_PREFIX + RedisConstants.REDIS_KEY_CONNECTOR + name;
+    }
+
+    /**
+     * 本实例持有的锁，重入计数只由持有线程修改
+     */
+    private static final class HeldLock {
+        private final String ownerId;
+
+        private final Thread owner;
+
+        private final long fencingToken;
+
+        private final long acquiredAt;
+
+        private int holds = 1;
+
+        private volatile ScheduledFuture<?> renewal;
+
+        private HeldLock(String ownerId, Thread owner, long fencingToken, long acquiredAt) {
+            this.ownerId = ownerId;
+            this.owner = owner;
+            this.fencingToken = fencingToken;
+            this.acquiredAt = acquiredAt;
+        }
+    }
+}
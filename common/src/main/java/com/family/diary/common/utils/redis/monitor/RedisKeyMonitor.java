@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis.monitor;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.models.redis.BigValue;
+import com.family.diary.common.models.redis.RedisKeyReport;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Redis Key访问监控：热点Key与大值检测
+ * <ul>
+ *     <li>每个操作的耗时记录为redis.command直方图（按operation打标签）</li>
+ *     <li>按采样率将Key模式（以:分段，ID类分段替换为*）计入Top-K草图，按统计窗口轮换</li>
+ *     <li>值大小超过阈值时计数redis.big-value并保留最近的大值Key模式</li>
+ * </ul>
+ * 统计结果通过actuator端点rediskeys查看；只记录Key模式，原始Key中的openId等用户标识不会被保留或暴露
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class RedisKeyMonitor {
+
+    private static final String METRIC_PREFIX = "redis";
+
+    private static final String WILDCARD = "*";
+
+    /**
+     * 长度达到该值的分段视为ID（如openId、Token摘要）
+     */
+    private static final int ID_SEGMENT_MIN_LENGTH = 16;
+
+    /**
+     * 含数字的分段视为ID或地址（如用户ID、IP、版本号）
+     */
+    private static final Pattern CONTAINS_DIGIT = Pattern.compile(".*\\d.*");
+
+    private static final int BIG_VALUE_CAPACITY = 100;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+
+    private final double sampleRate;
+
+    private final long sampleWeight;
+
+    private final int topK;
+
+    private final Duration windowLength;
+
+    private final long bigValueThreshold;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> bigValueCounters = new ConcurrentHashMap<>();
+
+    private final Cache<String, BigValue> bigValues;
+
+    private volatile Window current;
+
+    private volatile Window previous;
+
+    @Autowired
+    public RedisKeyMonitor(MeterRegistry meterRegistry,
+                           @Value("${spring.data.redis.key-monitor.enabled:true}") boolean enabled,
+                           @Value("${spring.data.redis.key-monitor.sample-rate:0.1}") double sampleRate,
+                           @Value("${spring.data.redis.key-monitor.top-k:20}") int topK,
+                           @Value("${spring.data.redis.key-monitor.window:1m}") Duration window,
+                           @Value("${spring.data.redis.key-monitor.big-value-threshold:10240}")
+                           long bigValueThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.sampleRate = Math.min(Math.max(sampleRate, 0.0001), 1.0);
+        this.sampleWeight = Math.round(1.0 / this.sampleRate);
+        this.topK = topK;
+        this.windowLength = window;
+        this.bigValueThreshold = bigValueThreshold;
+        this.bigValues = Caffeine.newBuilder()
+                .maximumSize(BIG_VALUE_CAPACITY)
+                .build();
+        this.current = new Window(System.currentTimeMillis(), topK);
+        this.previous = new Window(current.startMillis - window.toMillis(), topK);
+    }
+
+    /**
+     * 记录单Key操作
+     *
+     * @param operation    操作名称
+     * @param key          键
+     * @param value        写入或读取的值，用于检测大值，可为null
+     * @param elapsedNanos 耗时（纳秒）
+     */
+    public void record(String operation, String key, Object value, long elapsedNanos) {
+        if (!enabled) {
+            return;
+        }
+        timer(operation).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        checkSize(operation, key, value);
+        if (sampled()) {
+            track(key);
+        }
+    }
+
+    /**
+     * 记录多Key操作（耗时记录一次，每个Key分别计入热点统计）
+     *
+     * @param operation    操作名称
+     * @param keys         键集合
+     * @param elapsedNanos 耗时（纳秒）
+     */
+    public void record(String operation, Collection<String> keys, long elapsedNanos) {
+        if (!enabled) {
+            return;
+        }
+        timer(operation).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        for (var key : keys) {
+            if (sampled()) {
+                track(key);
+            }
+        }
+    }
+
+    /**
+     * 生成统计报告
+     *
+     * @return 统计报告
+     */
+    public RedisKeyReport report() {
+        var window = currentWindow();
+        var last = previous;
+        var recentBigValues = bigValues.asMap().values().stream()
+                .sorted(Comparator.comparingLong(BigValue::sizeBytes).reversed())
+                .toList();
+        return new RedisKeyReport(Instant.ofEpochMilli(window.startMillis), windowLength, sampleRate,
+                window.patterns.topK(), last.patterns.topK(), recentBigValues);
+    }
+
+    /**
+     * 将Key归一化为模式：以:分段，含数字或长度不小于16的分段（openId、UUID、IP等）替换为*
+     * 例如 jwt-openid:oAbC...xyz:access -> jwt-openid:*:access
+     *
+     * @param key 键
+     * @return Key模式
+     */
+    public static String normalize(String key) {
+        var segments = key.split(RedisConstants.REDIS_KEY_CONNECTOR, -1);
+        for (int i = 0; i < segments.length; i++) {
+            var segment = segments[i];
+            if (segment.length() >= ID_SEGMENT_MIN_LENGTH || CONTAINS_DIGIT.matcher(segment).matches()) {
+                segments[i] = WILDCARD;
+            }
+        }
+        return String.join(RedisConstants.REDIS_KEY_CONNECTOR, segments);
+    }
+
+    private void track(String key) {
+        currentWindow().patterns.add(normalize(key), sampleWeight);
+    }
+
+    private void checkSize(String operation, String key, Object value) {
+        var size = sizeOf(value);
+        if (size <= bigValueThreshold) {
+            return;
+        }
+        var pattern = normalize(key);
+        var counter = bigValueCounters.computeIfAbsent(operation + "#" + pattern,
+                name -> Counter.builder(METRIC_PREFIX + ".big-value")
+                        .description("值大小超过阈值的操作次数")
+                        .tag("operation", operation)
+                        .tag("pattern", pattern)
+                        .register(meterRegistry));
+        counter.increment();
+        bigValues.put(pattern, new BigValue(pattern, operation, size, Instant.now()));
+    }
+
+    private Window currentWindow() {
+        var window = current;
+        var now = System.currentTimeMillis();
+        if (now - window.startMillis < windowLength.toMillis()) {
+            return window;
+        }
+        synchronized (this) {
+            if (current == window) {
+                previous = window;
+                current = new Window(now, topK);
+            }
+            return current;
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private Timer timer(String operation) {
+        return timers.computeIfAbsent(operation, name -> Timer.builder(METRIC_PREFIX + ".command")
+                .description("Redis命令耗时")
+                .tag("operation", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * 估算值大小（字节）：字符串按字符数近似，集合按元素数量累加
+     */
+    private static long sizeOf(Object value) {
+        if (value == null) {
+            return 0L;
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (value instanceof CharSequence chars) {
+            return chars.length();
+        }
+        if (value instanceof Collection<?> collection) {
+            var size = 0L;
+            for (var element : collection) {
+                size += sizeOf(element);
+            }
+            return size;
+        }
+        if (value instanceof Map<?, ?> map) {
+            var size = 0L;
+            for (var entry : map.entrySet()) {
+                size += sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+            }
+            return size;
+        }
+        return String.valueOf(value).length();
+    }
+
+    /**
+     * 统计窗口
+     */
+    private static final class Window {
+        private final long startMillis;
+
+        private final TopKSketch patterns;
+
+        private Window(long startMillis, int topK) {
+            this.startMillis = startMillis;
+            this.patterns = new TopKSketch(topK);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis.monitor;
+
+import com.family.diary.common.models.redis.RedisKeyReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis Key访问统计端点：/actuator/rediskeys
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Component
+@Endpoint(id = "rediskeys")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class RedisKeysEndpoint {
+    private final RedisKeyMonitor redisKeyMonitor;
+
+    @ReadOperation
+    public RedisKeyReport report() {
+        return redisKeyMonitor.report();
+    }
+}
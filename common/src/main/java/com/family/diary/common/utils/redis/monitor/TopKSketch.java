@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.redis.monitor;
+
+import com.family.diary.common.models.redis.HeavyHitter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Top-K高频元素草图：Count-Min Sketch估算频次，候选表保留估算频次最高的K个元素
+ * 内存占用固定（depth * width个计数器 + K个候选），适合在高基数的Key流上统计热点
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public final class TopKSketch {
+
+    private static final int DEPTH = 4;
+
+    /**
+     * 每行计数器数量的以2为底的对数（2048列）
+     */
+    private static final int WIDTH_BITS = 11;
+
+    private static final int WIDTH = 1 << WIDTH_BITS;
+
+    /**
+     * 各行哈希的种子（互不相同的奇数）
+     */
+    private static final int[] SEEDS = {0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F};
+
+    private final int k;
+
+    private final AtomicLongArray counters = new AtomicLongArray(DEPTH * WIDTH);
+
+    /**
+     * 候选元素 -> 估算频次，由this同步保护
+     */
+    private final Map<String, Long> candidates;
+
+    public TopKSketch(int k) {
+        this.k = k;
+        this.candidates = new HashMap<>(k * 2);
+    }
+
+    /**
+     * 累加元素频次
+     *
+     * @param item  元素
+     * @param count 增量
+     */
+    public void add(String item, long count) {
+        var hash = mix(item.hashCode());
+        var estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            // 乘法哈希取高位作为列下标
+            var index = row * WIDTH + ((hash * SEEDS[row]) >>> (Integer.SIZE - WIDTH_BITS));
+            estimate = Math.min(estimate, counters.addAndGet(index, count));
+        }
+        offer(item, estimate);
+    }
+
+    /**
+     * 按估算频次降序返回候选元素
+     *
+     * @return 高频元素列表
+     */
+    public synchronized List<HeavyHitter> topK() {
+        var hitters = new ArrayList<HeavyHitter>(candidates.size());
+        candidates.forEach((item, count) -> hitters.add(new HeavyHitter(item, count)));
+        hitters.sort(Comparator.comparingLong(HeavyHitter::estimatedCount).reversed());
+        return hitters;
+    }
+
+    private synchronized void offer(String item, long estimate) {
+        if (candidates.containsKey(item) || candidates.size() < k) {
+            candidates.put(item, estimate);
+            return;
+        }
+        // K较小（默认20），线性查找最小候选的开销低于维护堆与索引
+        String minItem = null;
+        var minCount = Long.MAX_VALUE;
+        for (var entry : candidates.entrySet()) {
+            if (entry.getValue() < minCount) {
+                minCount = entry.getValue();
+                minItem = entry.getKey();
+            }
+        }
+        if (estimate > minCount) {
+            candidates.remove(minItem);
+            candidates.put(item, estimate);
+        }
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.tencentcloud;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * COS预签名URL离线签名器，无需COSClient
+ * <ul>
+ *     <li>按COS XML API的q-sign-algorithm=sha1规则在本地计算签名，直接生成自定义域名（tencent-cloud.cos.host）的GET链接</li>
+ *     <li>签名起始时间按60秒窗口对齐，同一窗口、同一有效期共用预先计算的SignKey；结束时间顺延一个窗口，保证链接至少有效expirationSeconds秒</li>
+ *     <li>每个线程复用MessageDigest、Mac与缓冲区，单个URL只分配结果字符串</li>
+ * </ul>
+ * 同一窗口内同一对象的URL保持不变，客户端与CDN可以复用缓存
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Component
+public class CosUrlSigner {
+
+    private static final String HMAC_SHA1 = "HmacSHA1";
+
+    private static final long SIGN_WINDOW_SECONDS = 60L;
+
+    private static final int SHA1_LENGTH = 20;
+
+    private static final byte[] HTTP_STRING_PREFIX = "get\n/".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * HttpString的参数与头部均为空
+     */
+    private static final byte[] HTTP_STRING_SUFFIX = "\n\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] LOWER_HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final char[] UPPER_HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * URL路径中无需编码的ASCII字符：unreserved字符与路径分隔符/
+     */
+    private static final boolean[] PATH_SAFE = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            PATH_SAFE[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            PATH_SAFE[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            PATH_SAFE[c] = true;
+        }
+        for (char c : "-_.~/".toCharArray()) {
+            PATH_SAFE[c] = true;
+        }
+    }
+
+    private final String urlPrefix;
+
+    private final String secretId;
+
+    private final SecretKeySpec secretKey;
+
+    /**
+     * 有效期（秒） -> 当前窗口的SignKey，调用方使用的有效期通常只有少数几种
+     */
+    private final Map<Long, SigningKey> signingKeys = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Signer> signers = ThreadLocal.withInitial(Signer::new);
+
+    @Autowired
+    public CosUrlSigner(@Value("${tencent-cloud.api-secret-id}") String secretId,
+                        @Value("${tencent-cloud.api-secret-key}") String secretKey,
+                        @Value("${tencent-cloud.cos.host}") String host) {
+        this.urlPrefix = "https://" + host + "/";
+        this.secretId = secretId;
+        this.secretKey = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), HMAC_SHA1);
+    }
+
+    /**
+     * 生成对象的预签名GET URL
+     *
+     * @param objectKey         对象在COS中的路径
+     * @param expirationSeconds 有效期（秒）
+     * @return 预签名URL
+     */
+    public String sign(String objectKey, long expirationSeconds) {
+        return signers.get().sign(signingKey(expirationSeconds), objectKey);
+    }
+
+    /**
+     * 批量生成预签名GET URL，共用同一个SignKey与线程内的签名器
+     *
+     * @param objectKeys        对象路径列表
+     * @param expirationSeconds 有效期（秒）
+     * @return 与objectKeys顺序一致的预签名URL列表
+     */
+    public List<String> signAll(Collection<String> objectKeys, long expirationSeconds) {
+        var signingKey = signingKey(expirationSeconds);
+        var signer = signers.get();
+        var urls = new ArrayList<String>(objectKeys.size());
+        for (var objectKey : objectKeys) {
+            urls.add(signer.sign(signingKey, objectKey));
+        }
+        return urls;
+    }
+
+    private SigningKey signingKey(long expirationSeconds) {
+        var windowStart = System.currentTimeMillis() / 1000L / SIGN_WINDOW_SECONDS * SIGN_WINDOW_SECONDS;
+        var cached = signingKeys.get(expirationSeconds);
+        if (cached != null && cached.windowStart() == windowStart) {
+            return cached;
+        }
+        var keyTime = windowStart + ";" + (windowStart + SIGN_WINDOW_SECONDS + expirationSeconds);
+        var signKey = new String(hex(hmac(secretKey, keyTime.getBytes(StandardCharsets.US_ASCII))),
+                StandardCharsets.US_ASCII);
+        var encodedKeyTime = keyTime.replace(";", "%3B");
+        var created = new SigningKey(
+                windowStart,
+                new SecretKeySpec(signKey.getBytes(StandardCharsets.US_ASCII), HMAC_SHA1),
+                ("sha1\n" + keyTime + "\n").getBytes(StandardCharsets.US_ASCII),
+                "?q-sign-algorithm=sha1&q-ak=" + secretId
+                        + "&q-sign-time=" + encodedKeyTime
+                        + "&q-key-time=" + encodedKeyTime
+                        + "&q-header-list=&q-url-param-list=&q-signature=");
+        signingKeys.put(expirationSeconds, created);
+        return created;
+    }
+
+    private static byte[] hmac(SecretKeySpec key, byte[] data) {
+        try {
+            var mac = Mac.getInstance(HMAC_SHA1);
+            mac.init(key);
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA1不可用", e);
+        }
+    }
+
+    private static byte[] hex(byte[] bytes) {
+        var hex = new byte[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = LOWER_HEX[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = LOWER_HEX[bytes[i] & 0xF];
+        }
+        return hex;
+    }
+
+    /**
+     * 某一窗口与有效期下的签名材料
+     *
+     * @param windowStart         窗口起始时间（秒）
+     * @param signKey             以KeyTime计算出的SignKey
+     * @param stringToSignPrefix  StringToSign中HttpString摘要之前的部分
+     * @param queryPrefix         URL中q-signature之前的查询串
+     */
+    private record SigningKey(long windowStart, SecretKeySpec signKey, byte[] stringToSignPrefix,
+                              String queryPrefix) {
+    }
+
+    /**
+     * 线程内复用的签名器
+     */
+    private final class Signer {
+
+        private final MessageDigest sha1;
+
+        private final Mac mac;
+
+        private final byte[] digest = new byte[SHA1_LENGTH];
+
+        private final byte[] digestHex = new byte[SHA1_LENGTH * 2 + 1];
+
+        private byte[] keyBuffer = new byte[256];
+
+        private SigningKey initializedFor;
+
+        private Signer() {
+            try {
+                this.sha1 = MessageDigest.getInstance("SHA-1");
+                this.mac = Mac.getInstance(HMAC_SHA1);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-1不可用", e);
+            }
+            digestHex[SHA1_LENGTH * 2] = '\n';
+        }
+
+        private String sign(SigningKey signingKey, String objectKey) {
+            var offset = objectKey.startsWith("/") ? 1 : 0;
+            try {
+                // HttpString = get\n/{key}\n\n\n，路径参与签名时不编码
+                sha1.update(HTTP_STRING_PREFIX);
+                var length = utf8(objectKey, offset);
+                sha1.update(keyBuffer, 0, length);
+                sha1.update(HTTP_STRING_SUFFIX);
+                sha1.digest(digest, 0, SHA1_LENGTH);
+                hexInto(digest, digestHex);
+
+                // StringToSign = sha1\n{KeyTime}\n{sha1(HttpString)}\n
+                if (initializedFor != signingKey) {
+                    mac.init(signingKey.signKey());
+                    initializedFor = signingKey;
+                }
+                mac.update(signingKey.stringToSignPrefix());
+                mac.update(digestHex);
+                mac.doFinal(digest, 0);
+            } catch (DigestException | InvalidKeyException | ShortBufferException e) {
+                throw new IllegalStateException("COS URL签名失败", e);
+            }
+
+            var url = new StringBuilder(urlPrefix.length() + objectKey.length() * 3
+                    + signingKey.queryPrefix().length() + SHA1_LENGTH * 2);
+            url.append(urlPrefix);
+            appendEncodedPath(url, objectKey, offset);
+            url.append(signingKey.queryPrefix());
+            for (byte b : digest) {
+                url.append((char) LOWER_HEX[(b >> 4) & 0xF]).append((char) LOWER_HEX[b & 0xF]);
+            }
+            return url.toString();
+        }
+
+        /**
+         * 将key编码为UTF-8写入复用的缓冲区
+         *
+         * @return 写入的字节数
+         */
+        private int utf8(String key, int offset) {
+            var required = (key.length() - offset) * 3;
+            if (keyBuffer.length < required) {
+                keyBuffer = new byte[required];
+            }
+            var position = 0;
+            for (int i = offset; i < key.length(); i++) {
+                var c = key.charAt(i);
+                if (c < 0x80) {
+                    keyBuffer[position++] = (byte) c;
+                } else {
+                    // 非ASCII字符较少，直接交给JDK编码
+                    var bytes = key.substring(i, i + Character.charCount(key.codePointAt(i)))
+                            .getBytes(StandardCharsets.UTF_8);
+                    System.arraycopy(bytes, 0, keyBuffer, position, bytes.length);
+                    position += bytes.length;
+                    i += Character.charCount(key.codePointAt(i)) - 1;
+                }
+            }
+            return position;
+        }
+
+        private void hexInto(byte[] bytes, byte[] target) {
+            for (int i = 0; i < bytes.length; i++) {
+                target[i * 2] = LOWER_HEX[(bytes[i] >> 4) & 0xF];
+                target[i * 2 + 1] = LOWER_HEX[bytes[i] & 0xF];
+            }
+        }
+
+        private void appendEncodedPath(StringBuilder url, String key, int offset) {
+            for (int i = offset; i < key.length(); i++) {
+                var c = key.charAt(i);
+                if (c < 0x80 && PATH_SAFE[c]) {
+                    url.append(c);
+                    continue;
+                }
+                var length = utf8Char(key, i);
+                for (int b = 0; b < length; b++) {
+                    var value = keyBuffer[b];
+                    url.append('%').append(UPPER_HEX[(value >> 4) & 0xF]).append(UPPER_HEX[value & 0xF]);
+                }
+                i += Character.charCount(key.codePointAt(i)) - 1;
+            }
+        }
+
+        /**
+         * 将位于index的单个字符编码为UTF-8写入缓冲区开头
+         *
+         * @return 写入的字节数
+         */
+        private int utf8Char(String key, int index) {
+            var c = key.charAt(index);
+            if (c < 0x80) {
+                keyBuffer[0] = (byte) c;
+                return 1;
+            }
+            var bytes = key.substring(index, index + Character.charCount(key.codePointAt(index)))
+                    .getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(bytes, 0, keyBuffer, 0, bytes.length);
+            return bytes.length;
+        }
+    }
+}
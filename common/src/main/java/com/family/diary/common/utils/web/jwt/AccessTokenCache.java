@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.web.jwt;
+
+import com.family.diary.common.models.jwt.VerifiedToken;
+import com.family.diary.common.utils.redis.invalidation.LocalCacheInvalidationBus;
+import com.family.diary.common.utils.redis.invalidation.LocalCacheInvalidationListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 已校验Access Token的本地缓存
+ * 以Token摘要为Key，条目最晚在Token过期时失效；Token被替换或登出时通过本地缓存失效总线按openId失效所有节点
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Component
+public class AccessTokenCache {
+
+    private static final String CACHE_NAME = "jwt.access-token";
+
+    private final LocalCacheInvalidationBus invalidationBus;
+
+    private final boolean enabled;
+
+    private final Cache<String, CachedAccessToken> cache;
+
+    /**
+     * 失效版本号：每次失效自增，用于丢弃失效期间并发写入的旧条目
+     */
+    private final AtomicLong invalidationVersion = new AtomicLong();
+
+    public AccessTokenCache(LocalCacheInvalidationBus invalidationBus,
+                            MeterRegistry meterRegistry,
+                            @Value("${jwt.access-token-cache.enabled:true}") boolean enabled,
+                            @Value("${jwt.access-token-cache.maximum-size:10000}") long maximumSize) {
+        this.invalidationBus = invalidationBus;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 注册到本地缓存失效总线，Key为Token所属用户的openId
+     */
+    @PostConstruct
+    public void register() {
+        if (enabled) {
+            invalidationBus.register(CACHE_NAME, new OpenIdInvalidation());
+        }
+    }
+
+    /**
+     * 获取当前失效版本号，需在读取Redis之前调用并在写入缓存时传回
+     *
+     * @return 失效版本号
+     */
+    public long currentVersion() {
+        return invalidationVersion.get();
+    }
+
+    /**
+     * 判断Token是否已在本地校验通过
+     *
+     * @param verifiedToken 已验签的Access Token
+     * @return 是：命中 / 否：未命中
+     */
+    public boolean contains(VerifiedToken verifiedToken) {
+        if (!enabled) {
+            return false;
+        }
+        var cached = cache.getIfPresent(TokenDigestUtil.digest(verifiedToken.token()));
+        return cached != null && cached.openId().equals(verifiedToken.subject());
+    }
+
+    /**
+     * 缓存已通过Redis校验的Token
+     *
+     * @param verifiedToken 已验签的Access Token
+     * @param version       读取Redis前获取的失效版本号
+     */
+    public void put(VerifiedToken verifiedToken, long version) {
+        if (!enabled || verifiedToken.expiration() == null || invalidationVersion.get() != version) {
+            return;
+        }
+        var digest = TokenDigestUtil.digest(verifiedToken.token());
+        cache.put(digest, new CachedAccessToken(verifiedToken.subject(), verifiedToken.expiration().toEpochMilli()));
+        // 写入期间发生了失效，回滚本次写入
+        if (invalidationVersion.get() != version) {
+            cache.invalidate(digest);
+        }
+    }
+
+    /**
+     * 失效用户的本地缓存并通知其他节点
+     *
+     * @param openId 微信OpenID
+     */
+    public void invalidate(String openId) {
+        if (!enabled) {
+            return;
+        }
+        invalidationBus.invalidate(CACHE_NAME, openId);
+    }
+
+    /**
+     * 缓存条目
+     *
+     * @param openId    Token所属用户
+     * @param expiresAt Token过期时间（毫秒时间戳）
+     */
+    private record CachedAccessToken(String openId, long expiresAt) {
+    }
+
+    /**
+     * 按openId失效条目：缓存Key为Token摘要，需遍历条目匹配所属用户
+     */
+    private class OpenIdInvalidation implements LocalCacheInvalidationListener {
+        @Override
+        public void invalidate(String openId) {
+            invalidationVersion.incrementAndGet();
+            cache.asMap().values().removeIf(cached -> cached.openId().equals(openId));
+        }
+
+        @Override
+        public void invalidatePrefix(String prefix) {
+            invalidationVersion.incrementAndGet();
+            cache.asMap().values().removeIf(cached -> cached.openId().startsWith(prefix));
+        }
+
+        @Override
+        public void invalidateAll() {
+            invalidationVersion.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * 按Token自身的exp设置条目过期时间
+     */
+    private static class TokenExpiry implements Expiry<String, CachedAccessToken> {
+        @Override
+        public long expireAfterCreate(String key, CachedAccessToken value, long currentTime) {
+            return remainingNanos(value);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedAccessToken value, long currentTime,
+                                      long currentDuration) {
+            return remainingNanos(value);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedAccessToken value, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+
+        private long remainingNanos(CachedAccessToken value) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, value.expiresAt() - System.currentTimeMillis()));
+        }
+    }
+}
@@ -18,21 +18,34 @@ package com.family.diary.common.utils.web.jwt;
 import com.family.diary.common.constants.common.JWTConstants;
 import com.family.diary.common.constants.redis.RedisConstants;
 import com.family.diary.common.enums.jwt.TokenType;
+import com.family.diary.common.exceptions.TokenStoreUnavailableException;
+import com.family.diary.common.enums.jwt.TokenRevocationMode;
+import com.family.diary.common.enums.jwt.TokenRotationStatus;
+import com.family.diary.common.models.jwt.StoredToken;
+import com.family.diary.common.models.jwt.TokenRotationResult;
+import com.family.diary.common.models.jwt.VerifiedToken;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
-import java.nio.charset.StandardCharsets;
 
 /**
  * JWT Token处理工具类
@@ -47,12 +60,49 @@ public class JwtUtil {
 
     private final TokenStore tokenStore;
 
+    private final AccessTokenCache accessTokenCache;
+
+    private final TokenGenerationStore tokenGenerationStore;
+
     @Value("${jwt.secret-key}")
     private String SECRET_KEY;
 
     @Value("${jwt.token-redis-prefix}")
     private String JWT_REDIS_KEY_PREFIX;
 
+    /**
+     * Refresh Token轮换后的宽限期，期间携带旧Refresh Token的重复请求获得同一新Token对
+     */
+    @Value("${jwt.refresh-grace-period:10s}")
+    private Duration refreshGracePeriod;
+
+    /**
+     * Token吊销模式：TOKEN保存完整Token字符串；GENERATION仅保存每个用户的整数代数
+     */
+    @Value("${jwt.revocation-mode:TOKEN}")
+    private TokenRevocationMode revocationMode;
+
+    /**
+     * 签名密钥（启动时构建一次）
+     */
+    private SecretKey signInKey;
+
+    /**
+     * JWT解析器（不可变且线程安全，启动时构建一次）
+     */
+    private JwtParser jwtParser;
+
+    /**
+     * 初始化签名密钥与解析器，避免每次解析都重新派生HMAC密钥
+     */
+    @PostConstruct
+    public void init() {
+        this.signInKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+    }
+
     // ==================== 公开API（门面方法） ====================
 
     /**
@@ -75,6 +125,87 @@ public class JwtUtil {
         return generateToken(openId, TokenType.REFRESH);
     }
 
+    /**
+     * 一次性生成用户的全部类型Token，并在一次Redis往返中写入
+     *
+     * @param openId 微信OpenID
+     * @return Token类型 -> Token String
+     */
+    public Map<TokenType, String> generateTokens(String openId) {
+        var tokens = new EnumMap<TokenType, String>(TokenType.class);
+        if (isGenerationMode()) {
+            // 登录即开启新一代Token，旧会话随之失效
+            var generation = tokenGenerationStore.advance(openId);
+            for (TokenType tokenType : TokenType.values()) {
+                tokens.put(tokenType, buildToken(openId, tokenType, generation));
+            }
+            return tokens;
+        }
+
+        var storedTokens = new ArrayList<StoredToken>(TokenType.values().length);
+        for (TokenType tokenType : TokenType.values()) {
+            var token = buildToken(openId, tokenType, null);
+            tokens.put(tokenType, token);
+            storedTokens.add(new StoredToken(buildTokenRedisKey(openId, tokenType), token, tokenType.getExpiration()));
+        }
+        tokenStore.saveAll(storedTokens);
+        accessTokenCache.invalidate(openId);
+        return tokens;
+    }
+
+    /**
+     * 使用已验签的Refresh Token轮换Token对
+     * 比较并交换在Redis中原子完成；宽限期内同一旧Refresh Token的并发请求返回同一新Token对
+     *
+     * @param refreshToken 已验签的Refresh Token
+     * @return 轮换结果
+     */
+    public TokenRotationResult rotateTokens(VerifiedToken refreshToken) {
+        var openId = refreshToken.subject();
+        if (openId == null || !refreshToken.isType(TokenType.REFRESH) || refreshToken.isExpired()) {
+            log.warn("Refresh Token主体、类型或有效期校验失败");
+            return TokenRotationResult.rejected();
+        }
+
+        if (isGenerationMode()) {
+            return rotateGeneration(refreshToken);
+        }
+
+        var accessToken = new StoredToken(buildTokenRedisKey(openId, TokenType.ACCESS),
+                buildToken(openId, TokenType.ACCESS, null), TokenType.ACCESS.getExpiration());
+        var newRefreshToken = new StoredToken(buildTokenRedisKey(openId, TokenType.REFRESH),
+                buildToken(openId, TokenType.REFRESH, null), TokenType.REFRESH.getExpiration());
+        var result = tokenStore.rotate(refreshToken.token(), accessToken, newRefreshToken,
+                refreshGracePeriod.toMillis());
+
+        if (result.status() == TokenRotationStatus.ROTATED) {
+            accessTokenCache.invalidate(openId);
+        } else if (result.status() == TokenRotationStatus.REJECTED) {
+            log.warn("Open ID为{}的用户使用的Refresh Token无效或已被轮换", openId);
+        }
+        return result;
+    }
+
+    /**
+     * 解析并验签Token（整个校验流程只需调用一次）
+     *
+     * @param token token
+     * @return 已验签的Token
+     * @throws ExpiredJwtException         Token已过期
+     * @throws io.jsonwebtoken.JwtException Token格式或签名无效
+     */
+    public VerifiedToken parse(String token) {
+        var claims = extractAllClaims(token);
+        return new VerifiedToken(
+                token,
+                claims.getSubject(),
+                TokenType.fromType(claims.get(JWTConstants.CLAIM_TOKEN_TYPE, String.class)),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims.get(JWTConstants.CLAIM_GENERATION, Long.class)
+        );
+    }
+
     /**
      * 验证Access Token是否有效
      *
@@ -86,6 +217,16 @@ public class JwtUtil {
         return validateToken(token, openId, TokenType.ACCESS);
     }
 
+    /**
+     * 验证已验签的Access Token是否有效
+     *
+     * @param verifiedToken 已验签的Access Token
+     * @return 是：有效 / 否：无效
+     */
+    public boolean validateAccessToken(VerifiedToken verifiedToken) {
+        return validateToken(verifiedToken, TokenType.ACCESS);
+    }
+
     /**
      * 验证Refresh Token是否有效
      *
@@ -97,15 +238,32 @@ public class JwtUtil {
         return validateToken(token, openId, TokenType.REFRESH);
     }
 
+    /**
+     * 验证已验签的Refresh Token是否有效
+     *
+     * @param verifiedToken 已验签的Refresh Token
+     * @return 是：有效 / 否：无效
+     */
+    public boolean validateRefreshToken(VerifiedToken verifiedToken) {
+        return validateToken(verifiedToken, TokenType.REFRESH);
+    }
+
     /**
      * 删除用户的所有Token（用于登出）
      *
      * @param openId 微信OpenID
      */
     public void invalidateAllTokens(String openId) {
+        if (isGenerationMode()) {
+            tokenGenerationStore.revoke(openId);
+            return;
+        }
+        var keys = new ArrayList<String>(TokenType.values().length);
         for (TokenType tokenType : TokenType.values()) {
-            tokenStore.delete(buildTokenRedisKey(openId, tokenType));
+            keys.add(buildTokenRedisKey(openId, tokenType));
         }
+        tokenStore.deleteAll(keys);
+        accessTokenCache.invalidate(openId);
     }
 
     // ==================== Token信息提取 ====================
@@ -153,23 +311,77 @@ public class JwtUtil {
      * @return Token String
      */
     private String generateToken(String openId, TokenType tokenType) {
-        var token = Jwts.builder()
+        if (isGenerationMode()) {
+            // 沿用当前代数时同时续期代数Key，Key不存在时开启新一代
+            var generation = tokenGenerationStore.renew(openId);
+            return buildToken(openId, tokenType, generation > 0 ? generation : tokenGenerationStore.advance(openId));
+        }
+
+        var token = buildToken(openId, tokenType, null);
+
+        // SET PX 本身即覆盖写入，无需先删除旧Token
+        tokenStore.save(buildTokenRedisKey(openId, tokenType), token, tokenType.getExpiration());
+        if (tokenType == TokenType.ACCESS) {
+            accessTokenCache.invalidate(openId);
+        }
+
+        return token;
+    }
+
+    /**
+     * 构建并签名Token
+     *
+     * @param openId    微信OpenID
+     * @param tokenType  Token类型
+     * @param generation Token代数，为null时不写入代数claim
+     * @return Token String
+     */
+    private String buildToken(String openId, TokenType tokenType, Long generation) {
+        var now = System.currentTimeMillis();
+        // jti保证同一秒内签发的Token互不相同，轮换时的比较并交换才有意义
+        var builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(openId)
                 .claim(JWTConstants.CLAIM_TOKEN_TYPE, tokenType.getType())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + tokenType.getExpiration()))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS512)
-                .compact();
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + tokenType.getExpiration()));
+        if (generation != null) {
+            builder.claim(JWTConstants.CLAIM_GENERATION, generation);
+        }
+        return builder.signWith(signInKey, SignatureAlgorithm.HS512).compact();
+    }
 
-        var redisKey = buildTokenRedisKey(openId, tokenType);
-        tokenStore.delete(redisKey);
-        tokenStore.save(redisKey, token, tokenType.getExpiration());
+    /**
+     * generation模式下轮换Token对：仅当Refresh Token的代数恰为当前代数时原子自增代数，并以新代数签发新Token对
+     * 轮换后旧Refresh Token立即失效；并发的重复刷新请求中只有一个成功
+     *
+     * @param refreshToken 已验签的Refresh Token
+     * @return 轮换结果
+     */
+    private TokenRotationResult rotateGeneration(VerifiedToken refreshToken) {
+        var openId = refreshToken.subject();
+        var generation = refreshToken.generation();
+        var rotated = generation != null ? tokenGenerationStore.rotate(openId, generation) : 0L;
+        if (rotated <= 0) {
+            log.warn("Open ID为{}的用户使用的Refresh Token代数已失效", openId);
+            return TokenRotationResult.rejected();
+        }
+        return new TokenRotationResult(TokenRotationStatus.ROTATED,
+                buildToken(openId, TokenType.ACCESS, rotated),
+                buildToken(openId, TokenType.REFRESH, rotated));
+    }
 
-        return token;
+    /**
+     * 是否使用generation吊销模式
+     *
+     * @return 是：generation模式 / 否：token模式
+     */
+    private boolean isGenerationMode() {
+        return revocationMode == TokenRevocationMode.GENERATION;
     }
 
     /**
-     * 验证Token（核心方法）
+     * 验证Token（字符串入口，内部只解析一次）
      *
      * @param token     Token
      * @param openId    微信OpenID
@@ -177,32 +389,100 @@ public class JwtUtil {
      * @return 是：有效 / 否：无效
      */
     private Boolean validateToken(String token, String openId, TokenType tokenType) {
+        final VerifiedToken verifiedToken;
         try {
-            final var extractedOpenId = extractOpenId(token);
-            final var extractedType = extractTokenType(token);
+            verifiedToken = parse(token);
+        } catch (ExpiredJwtException e) {
+            log.warn("Open ID为{}的用户{} Token已过期", openId, tokenType.getType());
+            return false;
+        }
+        if (!openId.equals(verifiedToken.subject())) {
+            log.warn("Open ID为{}的用户使用的{} Token主体不匹配", openId, tokenType.getType());
+            return false;
+        }
+        return validateToken(verifiedToken, tokenType);
+    }
 
-            // 验证Token类型
-            if (!tokenType.getType().equals(extractedType)) {
-                log.warn("Token类型不匹配，期望: {}, 实际: {}", tokenType.getType(), extractedType);
-                return false;
-            }
+    /**
+     * 验证Token（核心方法）
+     *
+     * @param verifiedToken 已验签的Token
+     * @param tokenType     期望的Token类型
+     * @return 是：有效 / 否：无效
+     */
+    private boolean validateToken(VerifiedToken verifiedToken, TokenType tokenType) {
+        var openId = verifiedToken.subject();
+        if (openId == null) {
+            log.warn("Token缺少主体声明");
+            return false;
+        }
 
-            // 验证Redis中存储的Token
-            var storedToken = tokenStore.get(buildTokenRedisKey(openId, tokenType));
-            var isValidToken = storedToken != null
-                    && storedToken.equals(token)
-                    && extractedOpenId.equals(openId)
-                    && !isTokenExpired(token);
+        // 验证Token类型
+        if (!verifiedToken.isType(tokenType)) {
+            log.warn("Token类型不匹配，期望: {}, 实际: {}", tokenType.getType(), verifiedToken.tokenType());
+            return false;
+        }
 
+        // generation模式只比较整数代数，由代数近缓存承担本地命中
+        if (isGenerationMode()) {
+            var generation = verifiedToken.generation();
+            if (generation == null || verifiedToken.isExpired()) {
+                log.warn("Open ID为{}的用户使用的{} Token代数无效或过期", openId, tokenType.getType());
+                return false;
+            }
+            final long currentGeneration;
+            try {
+                currentGeneration = tokenGenerationStore.current(openId);
+            } catch (TokenStoreUnavailableException e) {
+                return allowDegraded(tokenGenerationStore.buildKey(openId), verifiedToken, tokenType);
+            }
+            var isValidToken = generation == currentGeneration;
             if (!isValidToken) {
-                log.warn("Open ID为{}的用户使用的{} Token无效或过期", openId, tokenType.getType());
+                log.warn("Open ID为{}的用户使用的{} Token代数无效或过期", openId, tokenType.getType());
             }
-
             return isValidToken;
-        } catch (ExpiredJwtException e) {
-            log.warn("Open ID为{}的用户{} Token已过期", openId, tokenType.getType());
-            return false;
         }
+
+        var isAccessToken = tokenType == TokenType.ACCESS;
+        if (isAccessToken && accessTokenCache.contains(verifiedToken) && !verifiedToken.isExpired()) {
+            return true;
+        }
+
+        // 验证Redis中存储的Token
+        var cacheVersion = accessTokenCache.currentVersion();
+        var tokenKey = buildTokenRedisKey(openId, tokenType);
+        final String storedToken;
+        try {
+            storedToken = tokenStore.get(tokenKey);
+        } catch (TokenStoreUnavailableException e) {
+            return allowDegraded(tokenKey, verifiedToken, tokenType);
+        }
+        var isValidToken = storedToken != null
+                && storedToken.equals(verifiedToken.token())
+                && !verifiedToken.isExpired();
+
+        if (!isValidToken) {
+            log.warn("Open ID为{}的用户使用的{} Token无效或过期", openId, tokenType.getType());
+        } else if (isAccessToken) {
+            accessTokenCache.put(verifiedToken, cacheVersion);
+        }
+
+        return isValidToken;
+    }
+
+    /**
+     * 存储不可用且本地无副本：按降级策略仅凭验签决定是否放行，两种吊销模式共用同一策略
+     *
+     * @param key           Token字符串或用户代数的存储Key
+     * @param verifiedToken 已验签的Token
+     * @param tokenType     期望的Token类型
+     * @return 是：放行 / 否：拒绝
+     */
+    private boolean allowDegraded(String key, VerifiedToken verifiedToken, TokenType tokenType) {
+        var accepted = tokenStore.allowDegraded(key, verifiedToken);
+        log.warn("Token存储不可用，Open ID为{}的用户{} Token降级校验结果: {}",
+                verifiedToken.subject(), tokenType.getType(), accepted);
+        return accepted;
     }
 
     /**
@@ -221,45 +501,12 @@ public class JwtUtil {
     // ==================== 辅助私有方法 ====================
 
     /**
-     * 解析Token获取所有声明
+     * 解析Token获取所有声明（复用启动时构建的解析器）
      *
      * @param token token
      * @return 所有声明
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * 检查Token是否过期
-     *
-     * @param token token
-     * @return 是：过期 / 否：未过期
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    /**
-     * 提取Token过期时间
-     *
-     * @param token token
-     * @return Token过期时间
-     */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    /**
-     * 获取签名密钥
-     *
-     * @return 签名密钥
-     */
-    private Key getSignInKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 }
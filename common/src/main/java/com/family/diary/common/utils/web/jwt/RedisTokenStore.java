@@ -15,11 +15,20 @@
 
 package com.family.diary.common.utils.web.jwt;
 
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.enums.jwt.TokenRotationStatus;
+import com.family.diary.common.exceptions.TokenStoreUnavailableException;
+import com.family.diary.common.models.jwt.StoredToken;
+import com.family.diary.common.models.jwt.TokenRotationResult;
+import com.family.diary.common.utils.redis.RedisScriptRegistry;
 import com.family.diary.common.utils.redis.RedisUtil;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -29,14 +38,30 @@ import java.util.concurrent.TimeUnit;
  * @since 2026-02-04
  */
 @Component
-@RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class RedisTokenStore implements TokenStore {
 
+    /**
+     * 宽限期Key的中缀，完整Key为 {refreshKey}:rotated:{旧Refresh Token摘要}
+     */
+    private static final String ROTATED_KEY_INFIX = ":rotated:";
+
     private final RedisUtil redisUtil;
 
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> rotateRefreshTokenScript;
+
+    @Autowired
+    public RedisTokenStore(RedisUtil redisUtil, RedisScriptRegistry scriptRegistry) {
+        this.redisUtil = redisUtil;
+        this.rotateRefreshTokenScript = scriptRegistry.get(RedisConstants.REDIS_ROTATE_REFRESH_TOKEN_LUA_NAME,
+                List.class);
+    }
+
     @Override
     public void save(String key, String token, long expireMs) {
-        redisUtil.setWithExpire(key, token, expireMs, TimeUnit.MILLISECONDS);
+        if (!redisUtil.setWithExpire(key, token, expireMs, TimeUnit.MILLISECONDS)) {
+            throw new TokenStoreUnavailableException("Token写入Redis失败");
+        }
     }
 
     @Override
@@ -49,4 +74,79 @@ public class RedisTokenStore implements TokenStore {
     public void delete(String key) {
         redisUtil.delete(key);
     }
+
+    /**
+     * 通过Pipeline一次往返写入所有Token（SET PX本身即覆盖写入）
+     *
+     * @param tokens 待保存的Token
+     */
+    @Override
+    public void saveAll(List<StoredToken> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        redisUtil.pipelined(batch -> tokens.forEach(
+                token -> batch.setWithExpire(token.key(), token.token(), token.expireMs(), TimeUnit.MILLISECONDS)));
+    }
+
+    /**
+     * 通过MGET一次往返获取所有Token
+     *
+     * @param keys key列表
+     * @return 与key顺序一致的token列表
+     */
+    @Override
+    public List<String> getAll(List<String> keys) {
+        var values = redisUtil.multiGet(keys);
+        var tokens = new ArrayList<String>(keys.size());
+        for (Object value : values) {
+            tokens.add(value != null ? String.valueOf(value) : null);
+        }
+        return tokens;
+    }
+
+    /**
+     * 通过单条多Key DEL一次往返删除所有Token
+     *
+     * @param keys key列表
+     */
+    @Override
+    public void deleteAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        redisUtil.delete(keys);
+    }
+
+    /**
+     * 通过Lua脚本在一次往返内完成比较并交换：旧Refresh Token匹配时原子写入新的Token对，
+     * 并记录宽限期内可重放的轮换结果，避免并发刷新互相覆盖
+     *
+     * @param oldRefreshToken 旧Refresh Token
+     * @param accessToken     新Access Token
+     * @param refreshToken    新Refresh Token
+     * @param graceMs         宽限期（毫秒）
+     * @return 轮换结果
+     */
+    @Override
+    public TokenRotationResult rotate(String oldRefreshToken, StoredToken accessToken, StoredToken refreshToken,
+                                      long graceMs) {
+        var graceKey = refreshToken.key() + ROTATED_KEY_INFIX + TokenDigestUtil.digest(oldRefreshToken);
+        List<?> result = redisUtil.executeScript(rotateRefreshTokenScript,
+                List.of(refreshToken.key(), accessToken.key(), graceKey),
+                oldRefreshToken,
+                accessToken.token(),
+                refreshToken.token(),
+                String.valueOf(accessToken.expireMs()),
+                String.valueOf(refreshToken.expireMs()),
+                String.valueOf(Math.max(graceMs, 1L)));
+        if (result == null || result.isEmpty()) {
+            return TokenRotationResult.rejected();
+        }
+        var status = TokenRotationStatus.fromCode(((Number) result.get(0)).longValue());
+        if (status == TokenRotationStatus.REJECTED || result.size() < 3) {
+            return TokenRotationResult.rejected();
+        }
+        return new TokenRotationResult(status, String.valueOf(result.get(1)), String.valueOf(result.get(2)));
+    }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.web.jwt;
+
+import com.family.diary.common.enums.jwt.TokenRotationStatus;
+import com.family.diary.common.exceptions.TokenStoreUnavailableException;
+import com.family.diary.common.models.jwt.StoredToken;
+import com.family.diary.common.models.jwt.TokenRotationResult;
+import com.family.diary.common.models.jwt.VerifiedToken;
+import com.family.diary.common.utils.redis.invalidation.LocalCacheInvalidationBus;
+import com.family.diary.common.utils.redis.invalidation.LocalCacheInvalidationListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 具备本地兜底能力的Token存储
+ * 所有写入同时写入Redis与本地有界镜像；Redis故障时由熔断器（TokenStoreGuard）快速失败并回退到本地镜像，
+ * 镜像未命中时可按配置进入降级模式，在限定时长内仅凭验签接受未过期且未在本节点吊销的Access Token。
+ * 镜像按节点维护，写入、删除与轮换时经本地缓存失效总线通知其他节点丢弃同一Key的镜像，
+ * 避免其他节点在故障期间以重新登录或登出前的旧Token应答
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Primary
+@Component
+public class ResilientTokenStore implements TokenStore {
+
+    private static final String METRIC_PREFIX = "jwt.token-store";
+
+    private static final String MIRROR_CACHE_NAME = METRIC_PREFIX + ".mirror";
+
+    private final RedisTokenStore delegate;
+
+    private final TokenStoreGuard guard;
+
+    private final LocalCacheInvalidationBus invalidationBus;
+
+    private final Cache<String, MirroredToken> mirror;
+
+    private final Counter fallbackCounter;
+
+    public ResilientTokenStore(RedisTokenStore delegate,
+                               TokenStoreGuard guard,
+                               LocalCacheInvalidationBus invalidationBus,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.token-store.mirror.maximum-size:10000}") long mirrorMaximumSize) {
+        this.delegate = delegate;
+        this.guard = guard;
+        this.invalidationBus = invalidationBus;
+        this.mirror = Caffeine.newBuilder()
+                .maximumSize(mirrorMaximumSize)
+                .expireAfter(new MirrorExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, mirror, MIRROR_CACHE_NAME);
+        this.fallbackCounter = Counter.builder(METRIC_PREFIX + ".fallback")
+                .description("Redis不可用时由本地镜像应答的读取次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 注册到本地缓存失效总线，Key为Token的存储Key
+     */
+    @PostConstruct
+    public void register() {
+        invalidationBus.register(MIRROR_CACHE_NAME, LocalCacheInvalidationListener.of(mirror, () -> {
+        }));
+    }
+
+    @Override
+    public void save(String key, String token, long expireMs) {
+        guard.call(() -> {
+            delegate.save(key, token, expireMs);
+            return null;
+        });
+        mirror(new StoredToken(key, token, expireMs));
+    }
+
+    @Override
+    public String get(String key) {
+        if (guard.tryAcquire()) {
+            try {
+                var token = delegate.get(key);
+                guard.onSuccess();
+                return token;
+            } catch (RuntimeException e) {
+                guard.onFailure();
+                log.warn("Redis读取Token失败，回退到本地镜像: {}", e.getMessage());
+            }
+        }
+        var mirrored = mirror.getIfPresent(key);
+        if (mirrored == null) {
+            throw new TokenStoreUnavailableException("Token存储不可用且本地镜像未命中");
+        }
+        fallbackCounter.increment();
+        return mirrored.token();
+    }
+
+    @Override
+    public void delete(String key) {
+        invalidationBus.invalidate(MIRROR_CACHE_NAME, key);
+        guard.revoke(key);
+        guard.call(() -> {
+            delegate.delete(key);
+            return null;
+        });
+    }
+
+    @Override
+    public void saveAll(List<StoredToken> tokens) {
+        guard.call(() -> {
+            delegate.saveAll(tokens);
+            return null;
+        });
+        tokens.forEach(this::mirror);
+    }
+
+    @Override
+    public List<String> getAll(List<String> keys) {
+        if (guard.tryAcquire()) {
+            try {
+                var tokens = delegate.getAll(keys);
+                guard.onSuccess();
+                return tokens;
+            } catch (RuntimeException e) {
+                guard.onFailure();
+                log.warn("Redis批量读取Token失败，回退到本地镜像: {}", e.getMessage());
+            }
+        }
+        fallbackCounter.increment();
+        var tokens = new ArrayList<String>(keys.size());
+        for (String key : keys) {
+            var mirrored = mirror.getIfPresent(key);
+            tokens.add(mirrored != null ? mirrored.token() : null);
+        }
+        return tokens;
+    }
+
+    @Override
+    public void deleteAll(Collection<String> keys) {
+        keys.forEach(key -> {
+            invalidationBus.invalidate(MIRROR_CACHE_NAME, key);
+            guard.revoke(key);
+        });
+        guard.call(() -> {
+            delegate.deleteAll(keys);
+            return null;
+        });
+    }
+
+    /**
+     * 轮换必须在Redis中原子完成，Redis不可用时直接拒绝而不是回退到本地
+     */
+    @Override
+    public TokenRotationResult rotate(String oldRefreshToken, StoredToken accessToken, StoredToken refreshToken,
+                                      long graceMs) {
+        var result = guard.call(() -> delegate.rotate(oldRefreshToken, accessToken, refreshToken, graceMs));
+        if (result.status() == TokenRotationStatus.ROTATED) {
+            mirror(accessToken);
+            mirror(refreshToken);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean allowDegraded(String key, VerifiedToken verifiedToken) {
+        return guard.allowDegraded(key, verifiedToken);
+    }
+
+    /**
+     * 写入本节点镜像，并通知其他节点丢弃该Key的旧镜像（失效先作用于本节点，因此先失效再写入）
+     */
+    private void mirror(StoredToken token) {
+        invalidationBus.invalidate(MIRROR_CACHE_NAME, token.key());
+        mirror.put(token.key(), new MirroredToken(token.token(), System.currentTimeMillis() + token.expireMs()));
+    }
+
+    /**
+     * 本地镜像条目
+     *
+     * @param token     Token
+     * @param expiresAt 过期时间（毫秒时间戳）
+     */
+    private record MirroredToken(String token, long expiresAt) {
+    }
+
+    /**
+     * 按写入时的过期时间设置镜像条目过期
+     */
+    private static class MirrorExpiry implements Expiry<String, MirroredToken> {
+        @Override
+        public long expireAfterCreate(String key, MirroredToken value, long currentTime) {
+            return remainingNanos(value);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, MirroredToken value, long currentTime, long currentDuration) {
+            return remainingNanos(value);
+        }
+
+        @Override
+        public long expireAfterRead(String key, MirroredToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long remainingNanos(MirroredToken value) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, value.expiresAt() - System.currentTimeMillis()));
+        }
+    }
+}
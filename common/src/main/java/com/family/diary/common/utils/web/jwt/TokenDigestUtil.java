@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.web.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Token摘要工具类
+ * 用定长摘要代替完整的JWT字符串作为缓存/存储的Key
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public final class TokenDigestUtil {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM不支持SHA-256摘要算法", e);
+        }
+    });
+
+    private TokenDigestUtil() {
+    }
+
+    /**
+     * 计算Token的SHA-256摘要
+     *
+     * @param token token
+     * @return Base64Url编码（无填充）的摘要
+     */
+    public static String digest(String token) {
+        var messageDigest = SHA_256.get();
+        messageDigest.reset();
+        var hash = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+}
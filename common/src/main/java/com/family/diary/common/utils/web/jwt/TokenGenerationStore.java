@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.web.jwt;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.enums.jwt.TokenRevocationMode;
+import com.family.diary.common.enums.jwt.TokenType;
+import com.family.diary.common.utils.redis.RedisUtil;
+import com.family.diary.common.utils.redis.invalidation.LocalCacheInvalidationBus;
+import com.family.diary.common.utils.redis.invalidation.LocalCacheInvalidationListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户Token代数存储（generation吊销模式）
+ * Redis中每个用户仅保存一个整数代数，Token以claim携带签发时的代数；代数自增即吊销该用户此前签发的所有Token。
+ * 本地近缓存按openId缓存代数，代数变化时通过本地缓存失效总线通知其他节点失效；
+ * Redis访问与Token字符串存储共用同一个熔断器（TokenStoreGuard），故障时抛出TokenStoreUnavailableException
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Component
+public class TokenGenerationStore {
+
+    private static final String CACHE_NAME = "jwt.generation";
+
+    private static final String GENERATION_KEY_SEGMENT = "gen";
+
+    private final RedisUtil redisUtil;
+
+    private final TokenStoreGuard guard;
+
+    private final LocalCacheInvalidationBus invalidationBus;
+
+    private final boolean enabled;
+
+    private final String keyPrefix;
+
+    private final Cache<String, Long> cache;
+
+    /**
+     * 失效版本号：每次失效自增，用于丢弃失效期间并发加载的旧代数
+     */
+    private final AtomicLong invalidationVersion = new AtomicLong();
+
+    public TokenGenerationStore(RedisUtil redisUtil,
+                                TokenStoreGuard guard,
+                                LocalCacheInvalidationBus invalidationBus,
+                                MeterRegistry meterRegistry,
+                                @Value("${jwt.revocation-mode:TOKEN}") TokenRevocationMode revocationMode,
+                                @Value("${jwt.token-redis-prefix}") String keyPrefix,
+                                @Value("${jwt.generation-cache.maximum-size:10000}") long maximumSize,
+                                @Value("${jwt.generation-cache.local-ttl:30s}") Duration localTtl) {
+        this.redisUtil = redisUtil;
+        this.guard = guard;
+        this.invalidationBus = invalidationBus;
+        this.enabled = revocationMode == TokenRevocationMode.GENERATION;
+        this.keyPrefix = keyPrefix;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 注册到本地缓存失效总线，Key为openId
+     */
+    @PostConstruct
+    public void register() {
+        if (enabled) {
+            invalidationBus.register(CACHE_NAME,
+                    LocalCacheInvalidationListener.of(cache, invalidationVersion::incrementAndGet));
+        }
+    }
+
+    /**
+     * 获取用户当前代数，优先读取本地近缓存
+     *
+     * @param openId 微信OpenID
+     * @return 当前代数，Redis中不存在时为0（签发的Token代数始终从1开始）
+     * @throws com.family.diary.common.exceptions.TokenStoreUnavailableException 近缓存未命中且Redis不可用
+     */
+    public long current(String openId) {
+        var cached = cache.getIfPresent(openId);
+        if (cached != null) {
+            return cached;
+        }
+        var version = invalidationVersion.get();
+        var value = guard.call(() -> redisUtil.get(buildKey(openId)));
+        var generation = value != null ? Long.parseLong(String.valueOf(value)) : 0L;
+        if (invalidationVersion.get() == version) {
+            cache.put(openId, generation);
+        }
+        return generation;
+    }
+
+    /**
+     * 以当前代数签发Token前续期代数Key，GET与续期在一次Pipeline往返中完成
+     * 保证Key的有效期不短于新签发的Token，Token有效期内代数不会因Key过期回落为0而被误判为吊销
+     *
+     * @param openId 微信OpenID
+     * @return 当前代数，Redis中不存在时为0
+     */
+    public long renew(String openId) {
+        var key = buildKey(openId);
+        var results = guard.call(() -> redisUtil.pipelined(batch -> batch
+                .get(key)
+                .expire(key, TokenType.REFRESH.getExpiration(), TimeUnit.MILLISECONDS)));
+        var value = results.get(0);
+        return value != null ? Long.parseLong(String.valueOf(value)) : 0L;
+    }
+
+    /**
+     * 自增用户代数，使此前签发的所有Token失效
+     * INCR与续期在一次Pipeline往返中完成，Key有效期与Refresh Token一致
+     *
+     * @param openId 微信OpenID
+     * @return 自增后的代数
+     */
+    public long advance(String openId) {
+        var key = buildKey(openId);
+        var results = guard.call(() -> redisUtil.pipelined(batch -> batch
+                .increment(key)
+                .expire(key, TokenType.REFRESH.getExpiration(), TimeUnit.MILLISECONDS)));
+        var generation = ((Number) results.get(0)).longValue();
+
+        invalidationBus.invalidate(CACHE_NAME, openId);
+        cache.put(openId, generation);
+        return generation;
+    }
+
+    /**
+     * 吊销用户的全部Token（登出）：先在本节点记录吊销，Redis不可用时降级校验同样拒绝此前签发的Token，再自增代数
+     *
+     * @param openId 微信OpenID
+     * @return 自增后的代数
+     */
+    public long revoke(String openId) {
+        guard.revoke(buildKey(openId));
+        return advance(openId);
+    }
+
+    /**
+     * 以Refresh Token携带的代数轮换用户代数：仅当其恰为当前代数时原子自增，
+     * 自增后旧代数签发的全部Token（包括本次使用的Refresh Token）立即失效，无法被重放
+     *
+     * @param openId     微信OpenID
+     * @param generation Refresh Token携带的代数
+     * @return 自增后的代数；代数不是当前代数时为0
+     */
+    public long rotate(String openId, long generation) {
+        var key = buildKey(openId);
+        var rotated = guard.call(() -> redisUtil.executeScript(RedisConstants.REDIS_ROTATE_GENERATION_LUA_NAME,
+                Long.class, List.of(key), String.valueOf(generation),
+                String.valueOf(TokenType.REFRESH.getExpiration())));
+        if (rotated == null || rotated <= 0) {
+            return 0L;
+        }
+
+        invalidationBus.invalidate(CACHE_NAME, openId);
+        cache.put(openId, rotated);
+        return rotated;
+    }
+
+    /**
+     * 构建用户代数的Redis Key，同时作为降级校验时的吊销记录Key
+     *
+     * @param openId 微信OpenID
+     * @return Redis Key
+     */
+    public String buildKey(String openId) {
+        return keyPrefix
+                + RedisConstants.REDIS_KEY_CONNECTOR + GENERATION_KEY_SEGMENT
+                + RedisConstants.REDIS_KEY_CONNECTOR + openId;
+    }
+}
@@ -15,6 +15,15 @@
 
 package com.family.diary.common.utils.web.jwt;
 
+import com.family.diary.common.enums.jwt.TokenRotationStatus;
+import com.family.diary.common.models.jwt.StoredToken;
+import com.family.diary.common.models.jwt.TokenRotationResult;
+import com.family.diary.common.models.jwt.VerifiedToken;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Token存储接口
  *
@@ -46,4 +55,64 @@ public interface TokenStore {
      * @param key key
      */
     void delete(String key);
+
+    /**
+     * 批量保存Token（覆盖写入，无需预先删除）
+     *
+     * @param tokens 待保存的Token
+     */
+    default void saveAll(List<StoredToken> tokens) {
+        tokens.forEach(token -> save(token.key(), token.token(), token.expireMs()));
+    }
+
+    /**
+     * 批量获取Token
+     *
+     * @param keys key列表
+     * @return 与key顺序一致的token列表，不存在的位置为null
+     */
+    default List<String> getAll(List<String> keys) {
+        var tokens = new ArrayList<String>(keys.size());
+        keys.forEach(key -> tokens.add(get(key)));
+        return tokens;
+    }
+
+    /**
+     * 批量删除Token
+     *
+     * @param keys key列表
+     */
+    default void deleteAll(Collection<String> keys) {
+        keys.forEach(this::delete);
+    }
+
+    /**
+     * 轮换Refresh Token：仅当当前存储的Refresh Token与旧Token一致时写入新的Token对
+     * 默认实现非原子且不支持宽限期，仅用于非Redis的存储实现
+     *
+     * @param oldRefreshToken 旧Refresh Token
+     * @param accessToken     新Access Token
+     * @param refreshToken    新Refresh Token（key即Refresh Token的存储Key）
+     * @param graceMs         宽限期（毫秒），宽限期内使用旧Token的重复请求获得同一新Token对
+     * @return 轮换结果
+     */
+    default TokenRotationResult rotate(String oldRefreshToken, StoredToken accessToken, StoredToken refreshToken,
+                                       long graceMs) {
+        if (!oldRefreshToken.equals(get(refreshToken.key()))) {
+            return TokenRotationResult.rejected();
+        }
+        saveAll(List.of(accessToken, refreshToken));
+        return new TokenRotationResult(TokenRotationStatus.ROTATED, accessToken.token(), refreshToken.token());
+    }
+
+    /**
+     * 存储不可用时，是否接受仅通过验签且未过期的Token（降级模式）
+     *
+     * @param key           Token的存储Key
+     * @param verifiedToken 已验签的Token
+     * @return 是：接受 / 否：拒绝
+     */
+    default boolean allowDegraded(String key, VerifiedToken verifiedToken) {
+        return false;
+    }
 }
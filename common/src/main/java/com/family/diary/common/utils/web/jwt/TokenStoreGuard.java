@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.common.utils.web.jwt;
+
+import com.family.diary.common.enums.jwt.TokenType;
+import com.family.diary.common.exceptions.TokenStoreUnavailableException;
+import com.family.diary.common.models.jwt.VerifiedToken;
+import com.family.diary.common.utils.common.CircuitBreaker;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Token存储的Redis访问保护
+ * Token字符串存储与代数存储共用同一个熔断器与降级策略：Redis故障时快速失败并统一映射为TokenStoreUnavailableException，
+ * 由调用方按降级策略决定是否仅凭验签放行
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Component
+public class TokenStoreGuard {
+
+    private static final String METRIC_PREFIX = "jwt.token-store";
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final boolean degradedModeEnabled;
+
+    /**
+     * 单次Redis故障期间降级模式的最长持续时间（毫秒），超过后拒绝仅凭验签的Token
+     */
+    private final long degradedMaxDurationMs;
+
+    /**
+     * 本次降级开始时间（毫秒时间戳），0表示当前未处于降级
+     */
+    private final AtomicLong degradedSince = new AtomicLong();
+
+    /**
+     * 本节点的吊销记录：存储Key -> 吊销时间（毫秒时间戳），降级时拒绝吊销前签发的Token
+     */
+    private final Cache<String, Long> revocations;
+
+    private final Counter degradedAcceptedCounter;
+
+    public TokenStoreGuard(MeterRegistry meterRegistry,
+                           @Value("${jwt.token-store.mirror.maximum-size:10000}") long maximumSize,
+                           @Value("${jwt.token-store.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                           @Value("${jwt.token-store.circuit-breaker.open-duration:10s}") Duration openDuration,
+                           @Value("${jwt.token-store.degraded-mode.enabled:false}") boolean degradedModeEnabled,
+                           @Value("${jwt.token-store.degraded-mode.max-duration:5m}") Duration degradedMaxDuration) {
+        this.circuitBreaker = new CircuitBreaker("redis-token-store", failureThreshold, openDuration);
+        this.degradedModeEnabled = degradedModeEnabled;
+        this.degradedMaxDurationMs = degradedMaxDuration.toMillis();
+        // 降级只接受Access Token，吊销记录保留一个Access Token有效期即可
+        this.revocations = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(TokenType.ACCESS.getExpiration()))
+                .build();
+        Gauge.builder(METRIC_PREFIX + ".circuit.open", circuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .description("Redis Token存储熔断器是否打开")
+                .register(meterRegistry);
+        this.degradedAcceptedCounter = Counter.builder(METRIC_PREFIX + ".degraded.accepted")
+                .description("降级模式下仅凭验签接受的Access Token次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 经熔断器调用Redis，熔断打开或调用失败时抛出TokenStoreUnavailableException
+     *
+     * @param action Redis操作
+     * @param <T>    返回类型
+     * @return 操作结果
+     */
+    public <T> T call(Supplier<T> action) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new TokenStoreUnavailableException("Token存储熔断中，请稍后重试");
+        }
+        try {
+            var result = action.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            throw new TokenStoreUnavailableException("Token存储不可用", e);
+        }
+    }
+
+    /**
+     * 判断熔断器是否允许本次调用，供需要自行处理失败（如回退到本地镜像）的调用方使用
+     *
+     * @return 是：允许调用 / 否：熔断中
+     */
+    public boolean tryAcquire() {
+        return circuitBreaker.tryAcquire();
+    }
+
+    /**
+     * Redis调用成功：关闭熔断器并结束本次降级计时
+     */
+    public void onSuccess() {
+        circuitBreaker.onSuccess();
+        degradedSince.set(0L);
+    }
+
+    /**
+     * Redis调用失败
+     */
+    public void onFailure() {
+        circuitBreaker.onFailure();
+    }
+
+    /**
+     * 记录本节点吊销了指定Key，降级期间拒绝此前签发的Token
+     *
+     * @param key 存储Key
+     */
+    public void revoke(String key) {
+        revocations.put(key, System.currentTimeMillis());
+    }
+
+    /**
+     * 降级模式需显式开启；自本次故障首次降级起超过最长持续时间后不再放行，
+     * 本节点吊销过（登出等）的Key，在吊销时间之前签发的Token一律拒绝
+     *
+     * @param key           Token的存储Key
+     * @param verifiedToken 已验签的Token
+     * @return 是：接受 / 否：拒绝
+     */
+    public boolean allowDegraded(String key, VerifiedToken verifiedToken) {
+        if (!degradedModeEnabled
+                || !verifiedToken.isType(TokenType.ACCESS)
+                || verifiedToken.isExpired()
+                || isRevoked(key, verifiedToken)) {
+            return false;
+        }
+        var now = System.currentTimeMillis();
+        degradedSince.compareAndSet(0L, now);
+        if (now - degradedSince.get() > degradedMaxDurationMs) {
+            log.warn("Token存储降级已超过{}ms，拒绝仅凭验签的Token", degradedMaxDurationMs);
+            return false;
+        }
+        degradedAcceptedCounter.increment();
+        return true;
+    }
+
+    /**
+     * Token是否在本节点吊销该Key之前签发（签发时间精度为秒，同一秒内签发的Token按已吊销处理）
+     *
+     * @param key           Token的存储Key
+     * @param verifiedToken 已验签的Token
+     * @return 是：已吊销 / 否：未吊销
+     */
+    private boolean isRevoked(String key, VerifiedToken verifiedToken) {
+        var revokedAt = revocations.getIfPresent(key);
+        return revokedAt != null
+                && (verifiedToken.issuedAt() == null || verifiedToken.issuedAt().toEpochMilli() <= revokedAt);
+    }
+}
@@ -0,0 +1,13 @@
+-- lock_acquire.lua
+-- KEYS[1]: 锁Key
+-- KEYS[2]: 栅栏令牌计数Key（每次获取时续期，有效期远大于租约，期间同一把锁的令牌单调递增）
+-- ARGV[1]: 持有者标识
+-- ARGV[2]: 租约时长（毫秒）
+-- ARGV[3]: 栅栏令牌计数Key有效期（毫秒）
+-- 返回: {1, 栅栏令牌} 获取成功; {0, 锁剩余租约毫秒} 锁被其他持有者占用
+if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+    local fence = redis.call('incr', KEYS[2])
+    redis.call('pexpire', KEYS[2], ARGV[3])
+    return {1, fence}
+end
+return {0, redis.call('pttl', KEYS[1])}
@@ -0,0 +1,11 @@
+-- lock_release.lua
+-- KEYS[1]: 锁Key
+-- ARGV[1]: 持有者标识
+-- ARGV[2]: 锁释放通知频道
+-- 返回: 1 释放成功并通知等待者; 0 锁已不属于该持有者
+if redis.call('get', KEYS[1]) == ARGV[1] then
+    redis.call('del', KEYS[1])
+    redis.call('publish', ARGV[2], KEYS[1])
+    return 1
+end
+return 0
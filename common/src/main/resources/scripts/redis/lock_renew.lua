@@ -0,0 +1,9 @@
+-- lock_renew.lua
+-- KEYS[1]: 锁Key
+-- ARGV[1]: 持有者标识
+-- ARGV[2]: 租约时长（毫秒）
+-- 返回: 1 续期成功; 0 锁已不属于该持有者
+if redis.call('get', KEYS[1]) == ARGV[1] then
+    return redis.call('pexpire', KEYS[1], ARGV[2])
+end
+return 0
@@ -0,0 +1,12 @@
+-- rotate_generation.lua
+-- KEYS[1]: 用户代数Key
+-- ARGV[1]: Refresh Token携带的代数
+-- ARGV[2]: 代数Key过期时间（毫秒）
+-- 返回: 自增后的代数 轮换成功; 0 代数不是当前代数，拒绝
+local current = tonumber(redis.call('get', KEYS[1]) or '0')
+if current == 0 or current ~= tonumber(ARGV[1]) then
+    return 0
+end
+local generation = redis.call('incr', KEYS[1])
+redis.call('pexpire', KEYS[1], ARGV[2])
+return generation
@@ -0,0 +1,24 @@
+-- rotate_refresh_token.lua
+-- KEYS[1]: Refresh Token Key
+-- KEYS[2]: Access Token Key
+-- KEYS[3]: 宽限期Key（记录旧Refresh Token轮换出的新Token对）
+-- ARGV[1]: 旧Refresh Token
+-- ARGV[2]: 新Access Token
+-- ARGV[3]: 新Refresh Token
+-- ARGV[4]: Access Token过期时间（毫秒）
+-- ARGV[5]: Refresh Token过期时间（毫秒）
+-- ARGV[6]: 宽限期（毫秒）
+-- 返回: {1, access, refresh} 轮换成功; {2, access, refresh} 宽限期内的重复请求; {0} 拒绝
+local current = redis.call('get', KEYS[1])
+if current == ARGV[1] then
+    redis.call('set', KEYS[2], ARGV[2], 'PX', ARGV[4])
+    redis.call('set', KEYS[1], ARGV[3], 'PX', ARGV[5])
+    redis.call('hset', KEYS[3], 'access', ARGV[2], 'refresh', ARGV[3])
+    redis.call('pexpire', KEYS[3], ARGV[6])
+    return {1, ARGV[2], ARGV[3]}
+end
+local rotated = redis.call('hmget', KEYS[3], 'access', 'refresh')
+if rotated[1] and rotated[2] and current == rotated[2] then
+    return {2, rotated[1], rotated[2]}
+end
+return {0}
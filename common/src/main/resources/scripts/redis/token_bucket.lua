@@ -0,0 +1,41 @@
+-- token_bucket.lua
+-- KEYS[1]: 令牌桶Key（Hash: tokens, ts）
+-- ARGV[1]: 桶容量
+-- ARGV[2]: 每毫秒补充的令牌数
+-- ARGV[3]: 本次请求需要的令牌数
+-- ARGV[4]: 本地预检已放行、尚未扣减的令牌数（无条件扣减，最少扣到0）
+-- 返回: {是否放行(1/0), 剩余令牌数(向下取整), 需等待的毫秒数}
+-- 脚本先读取TIME再写入：Redis 5之前需开启效果复制，否则拒绝非确定性写入（Redis 5起为默认行为）
+redis.replicate_commands()
+
+local capacity = tonumber(ARGV[1])
+local refill_per_ms = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+local deferred = tonumber(ARGV[4])
+
+local time = redis.call('time')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local bucket = redis.call('hmget', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(bucket[1])
+local ts = tonumber(bucket[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * refill_per_ms)
+tokens = math.max(0, tokens - deferred)
+
+local allowed = 0
+local retry_after = 0
+if tokens >= requested then
+    tokens = tokens - requested
+    allowed = 1
+else
+    retry_after = math.ceil((requested - tokens) / refill_per_ms)
+end
+
+redis.call('hset', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+redis.call('pexpire', KEYS[1], math.ceil(capacity / refill_per_ms) + 1000)
+return {allowed, math.floor(tokens), retry_after}
@@ -0,0 +1,75 @@
+package com.family.diary.common.clients.cos;
+
+import com.family.diary.common.models.tencentcloud.COSTempInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StsCredentialsProviderTest {
+
+    private final TestProvider provider = new TestProvider();
+
+    @AfterEach
+    void tearDown() {
+        provider.shutdown();
+    }
+
+    @Test
+    void cachedCredentialsAreReusedUntilCloseToExpiry() {
+        provider.responses.add(tempInfo("first", Duration.ofHours(2)));
+
+        assertEquals("first", provider.getCredentials().getCOSAccessKeyId());
+        assertEquals("first", provider.getCredentials().getCOSAccessKeyId());
+        assertEquals(1, provider.requests);
+    }
+
+    @Test
+    void expiringCredentialsAreReloadedOnRequestThread() {
+        provider.responses.add(tempInfo("expiring", Duration.ofSeconds(30)));
+        // 即将过期的密钥会立即触发后台刷新，为其准备相同的响应
+        provider.responses.add(tempInfo("fresh", Duration.ofHours(2)));
+        provider.responses.add(tempInfo("fresh", Duration.ofHours(2)));
+
+        assertEquals("expiring", provider.getCredentials().getCOSAccessKeyId());
+        assertEquals("fresh", provider.getCredentials().getCOSAccessKeyId());
+    }
+
+    @Test
+    void refreshForcesNewCredentials() {
+        provider.responses.add(tempInfo("first", Duration.ofHours(2)));
+        provider.responses.add(tempInfo("second", Duration.ofHours(2)));
+
+        provider.getCredentials();
+        provider.refresh();
+
+        assertEquals("second", provider.getCredentials().getCOSAccessKeyId());
+    }
+
+    private static COSTempInfo tempInfo(String secretId, Duration validity) {
+        return new COSTempInfo(secretId, "key", "token", Instant.now().plus(validity));
+    }
+
+    private static final class TestProvider extends StsCredentialsProvider {
+
+        private final Deque<COSTempInfo> responses = new ArrayDeque<>();
+
+        private int requests;
+
+        private TestProvider() {
+            super(new SimpleMeterRegistry(), "app", "id", "key", "ap-guangzhou", "bucket", Duration.ofMinutes(10));
+        }
+
+        @Override
+        protected synchronized COSTempInfo requestTempInfo() {
+            requests++;
+            return responses.poll();
+        }
+    }
+}
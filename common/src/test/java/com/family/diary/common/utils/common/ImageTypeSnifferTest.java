@@ -0,0 +1,51 @@
+package com.family.diary.common.utils.common;
+
+import com.family.diary.common.constants.common.ImageConstants;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ImageTypeSnifferTest {
+
+    @Test
+    void sniffRecognizesSupportedImageSignatures() {
+        assertEquals(ImageConstants.IMAGE_PNG, sniff(new byte[]{
+                (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13}));
+        assertEquals(ImageConstants.IMAGE_JPEG, sniff(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}));
+        assertEquals(ImageConstants.IMAGE_GIF, sniff(ascii("GIF89a")));
+        assertEquals(ImageConstants.IMAGE_GIF, sniff(ascii("GIF87a")));
+        assertEquals(ImageConstants.IMAGE_WEBP, sniff(ascii("RIFF\0\0\0\0WEBP")));
+        assertEquals(ImageConstants.IMAGE_BMP, sniff(ascii("BM\0\0")));
+    }
+
+    @Test
+    void sniffRejectsUnknownOrTruncatedHeaders() {
+        assertNull(sniff(ascii("<svg xmlns=")));
+        assertNull(sniff(ascii("RIFF\0\0\0\0WAVE")));
+        assertNull(sniff(new byte[]{(byte) 0x89, 'P', 'N'}));
+        assertNull(sniff(new byte[0]));
+    }
+
+    @Test
+    void sniffStreamReadsOnlyHeader() throws IOException {
+        var body = new byte[1024];
+        System.arraycopy(ascii("GIF89a"), 0, body, 0, 6);
+        var inputStream = new ByteArrayInputStream(body);
+
+        assertEquals(ImageConstants.IMAGE_GIF, ImageTypeSniffer.sniff(inputStream));
+        assertEquals(body.length - ImageTypeSniffer.HEADER_LENGTH, inputStream.available());
+    }
+
+    private static String sniff(byte[] header) {
+        return ImageTypeSniffer.sniff(header, header.length);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
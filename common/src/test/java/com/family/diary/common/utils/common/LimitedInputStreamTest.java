@@ -0,0 +1,41 @@
+package com.family.diary.common.utils.common;
+
+import com.family.diary.common.enums.errors.ExceptionErrorCode;
+import com.family.diary.common.exceptions.BaseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LimitedInputStreamTest {
+
+    @Test
+    void readsContentExactlyAtLimit() throws IOException {
+        var data = new byte[]{1, 2, 3, 4};
+        try (var inputStream = new LimitedInputStream(new ByteArrayInputStream(data), data.length)) {
+            assertArrayEquals(data, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void failsWhileStreamingOnceLimitExceeded() {
+        var inputStream = new LimitedInputStream(new ByteArrayInputStream(new byte[10]), 4);
+
+        var ex = assertThrows(BaseException.class, inputStream::readAllBytes);
+
+        assertEquals(ExceptionErrorCode.PAYLOAD_TOO_LARGE, ex.getErrorCode());
+    }
+
+    @Test
+    void singleByteReadsAreCounted() throws IOException {
+        var inputStream = new LimitedInputStream(new ByteArrayInputStream(new byte[]{1, 2, 3}), 2);
+
+        assertEquals(1, inputStream.read());
+        assertEquals(2, inputStream.read());
+        assertThrows(BaseException.class, inputStream::read);
+    }
+}
@@ -0,0 +1,58 @@
+package com.family.diary.common.utils.common;
+
+import com.family.diary.common.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordUtilTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PasswordUtil passwordUtil;
+
+    @AfterEach
+    void tearDown() {
+        passwordUtil.shutdown();
+    }
+
+    @Test
+    void encodeAndMatchesRunOnHashExecutor() {
+        passwordUtil = new PasswordUtil(meterRegistry, 4, 1, 4, Duration.ofSeconds(5));
+
+        var encoded = passwordUtil.encode("secret");
+
+        assertTrue(passwordUtil.matches("secret", encoded));
+        assertFalse(passwordUtil.matches("other", encoded));
+        assertEquals(2L, meterRegistry.get("password.hash.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void needsRehashWhenConfiguredCostChanges() {
+        passwordUtil = new PasswordUtil(meterRegistry, 5, 1, 4, Duration.ofSeconds(5));
+        var oldCost = new PasswordUtil(new SimpleMeterRegistry(), 4, 1, 4, Duration.ofSeconds(5));
+
+        try {
+            assertTrue(passwordUtil.needsRehash(oldCost.encode("secret")));
+            assertFalse(passwordUtil.needsRehash(passwordUtil.encode("secret")));
+            assertFalse(passwordUtil.needsRehash("not-bcrypt"));
+        } finally {
+            oldCost.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsWhenHashDoesNotCompleteInTime() {
+        passwordUtil = new PasswordUtil(meterRegistry, 14, 1, 1, Duration.ofMillis(1));
+
+        assertThrows(TooManyRequestsException.class, () -> passwordUtil.encode("secret"));
+        assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+    }
+}
@@ -0,0 +1,61 @@
+package com.family.diary.common.utils.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryEventBusTest {
+
+    private static final EventTopic<String> TOPIC = new EventTopic<>("test", String.class);
+
+    private final InMemoryEventBus eventBus = new InMemoryEventBus();
+
+    @Test
+    void everyGroupReceivesEveryEvent() {
+        var audit = new ArrayList<String>();
+        var counter = new ArrayList<String>();
+        eventBus.subscribe(TOPIC, "audit", audit::add);
+        eventBus.subscribe(TOPIC, "counter", counter::add);
+
+        eventBus.publish(TOPIC, "a");
+        eventBus.publish(TOPIC, "b");
+
+        assertEquals(List.of("a", "b"), audit);
+        assertEquals(List.of("a", "b"), counter);
+        assertEquals(List.of("a", "b"), eventBus.published(TOPIC));
+    }
+
+    @Test
+    void subscribersInSameGroupShareEvents() {
+        var first = new ArrayList<String>();
+        var second = new ArrayList<String>();
+        eventBus.subscribe(TOPIC, "workers", first::add);
+        eventBus.subscribe(TOPIC, "workers", second::add);
+
+        eventBus.publish(TOPIC, "a");
+        eventBus.publish(TOPIC, "b");
+
+        assertEquals(List.of("a"), first);
+        assertEquals(List.of("b"), second);
+    }
+
+    @Test
+    void closedSubscriptionStopsReceivingAndFailuresAreIsolated() {
+        var received = new ArrayList<String>();
+        var subscription = eventBus.subscribe(TOPIC, "audit", received::add);
+        eventBus.subscribe(TOPIC, "failing", event -> {
+            throw new IllegalStateException("boom");
+        });
+
+        eventBus.publish(TOPIC, "a");
+        subscription.close();
+        eventBus.publish(TOPIC, "b");
+
+        assertEquals(List.of("a"), received);
+        assertTrue(eventBus.published(TOPIC).contains("b"));
+    }
+}
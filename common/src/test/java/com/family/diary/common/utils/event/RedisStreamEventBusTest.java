@@ -0,0 +1,77 @@
+package com.family.diary.common.utils.event;
+
+import com.family.diary.common.models.event.EventBusProperties;
+import com.family.diary.common.models.redis.LettuceProperties;
+import com.family.diary.common.models.redis.RedisProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+class RedisStreamEventBusTest {
+
+    record UserRegistered(String openId, int attempt) {
+    }
+
+    private static final EventTopic<UserRegistered> TOPIC = new EventTopic<>("user-registered", UserRegistered.class);
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+    private final StreamOperations<String, Object, Object> streamOperations = mock(StreamOperations.class);
+
+    @Test
+    void publishAppendsJsonPayloadWithApproximateTrimming() {
+        when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+        when(streamOperations.add(eq("event-stream:user-registered"), anyMap(), any(XAddOptions.class)))
+                .thenReturn(RecordId.of("1-0"));
+        var properties = new EventBusProperties();
+        properties.setMaxLength(1000);
+        var eventBus = new RedisStreamEventBus(redisTemplate, new ObjectMapper(), properties,
+                redisProperties(Duration.ofSeconds(2)), new SimpleMeterRegistry());
+
+        var id = eventBus.publish(TOPIC, new UserRegistered("open-id", 1));
+
+        var fields = ArgumentCaptor.forClass(Map.class);
+        var options = ArgumentCaptor.forClass(XAddOptions.class);
+        verify(streamOperations).add(eq("event-stream:user-registered"), fields.capture(), options.capture());
+        assertEquals("1-0", id);
+        assertEquals("{\"openId\":\"open-id\",\"attempt\":1}", fields.getValue().get("payload"));
+        assertEquals(1000L, options.getValue().getMaxlen());
+        assertTrue(options.getValue().isApproximateTrimming());
+    }
+
+    @Test
+    void blockTimeoutMustStayWellBelowCommandTimeout() {
+        var properties = new EventBusProperties();
+        properties.setBlockTimeout(Duration.ofSeconds(2));
+
+        assertThrows(IllegalStateException.class, () -> new RedisStreamEventBus(redisTemplate, new ObjectMapper(),
+                properties, redisProperties(Duration.ofSeconds(2)), new SimpleMeterRegistry()));
+    }
+
+    private static RedisProperties redisProperties(Duration commandTimeout) {
+        var lettuce = new LettuceProperties();
+        lettuce.setCommandTimeout(commandTimeout);
+        var redisProperties = new RedisProperties();
+        redisProperties.setLettuce(lettuce);
+        return redisProperties;
+    }
+}
@@ -0,0 +1,150 @@
+package com.family.diary.common.utils.image;
+
+import com.family.diary.common.enums.errors.ExceptionErrorCode;
+import com.family.diary.common.enums.image.ImageVariant;
+import com.family.diary.common.exceptions.BaseException;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageVariantProcessorTest {
+
+    private static final byte[] EXIF_ROTATE_90 = {
+            'E', 'x', 'i', 'f', 0, 0, 'M', 'M', 0, 42, 0, 0, 0, 8,
+            0, 1, 0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, 6, 0, 0
+    };
+
+    private final ImageVariantProcessor processor = new ImageVariantProcessor();
+
+    @Test
+    void processScalesEachVariantWithinBounds() throws IOException {
+        var variants = processor.process(new ByteArrayInputStream(encode(new BufferedImage(4032, 3024,
+                BufferedImage.TYPE_INT_ARGB), "png")));
+
+        assertSize(variants, ImageVariant.LARGE, 1440, 1080);
+        assertSize(variants, ImageVariant.MEDIUM, 720, 540);
+        assertSize(variants, ImageVariant.THUMBNAIL, 200, 150);
+    }
+
+    @Test
+    void processNeverUpscalesSmallImages() throws IOException {
+        var variants = processor.process(new ByteArrayInputStream(encode(new BufferedImage(120, 80,
+                BufferedImage.TYPE_INT_RGB), "png")));
+
+        assertSize(variants, ImageVariant.LARGE, 120, 80);
+        assertSize(variants, ImageVariant.THUMBNAIL, 120, 80);
+    }
+
+    @Test
+    void processAppliesExifOrientation() throws IOException {
+        var image = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+        var graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 400, 200);
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 200, 100);
+        graphics.dispose();
+
+        var variants = processor.process(new ByteArrayInputStream(withApp1(encode(image, "jpeg"), EXIF_ROTATE_90)));
+
+        var large = decode(variants.get(ImageVariant.LARGE));
+        assertEquals(200, large.getWidth());
+        assertEquals(400, large.getHeight());
+        // 顺时针旋转90度后，原图左上角的红色区域位于右上角
+        assertTrue(isClose(Color.RED, large.getRGB(150, 50)));
+        assertTrue(isClose(Color.WHITE, large.getRGB(50, 50)));
+    }
+
+    @Test
+    void processRejectsUnknownFormat() {
+        var ex = assertThrows(BaseException.class,
+                () -> processor.process(new ByteArrayInputStream("not an image".getBytes())));
+
+        assertEquals(ExceptionErrorCode.UNSUPPORTED_MEDIA_TYPE, ex.getErrorCode());
+    }
+
+    @Test
+    void parseExifOrientationHandlesBothByteOrders() {
+        byte[] littleEndian = {
+                'E', 'x', 'i', 'f', 0, 0, 'I', 'I', 42, 0, 8, 0, 0, 0,
+                1, 0, 0x12, 0x01, 3, 0, 1, 0, 0, 0, 8, 0, 0, 0
+        };
+
+        assertEquals(6, ImageVariantProcessor.parseExifOrientation(EXIF_ROTATE_90));
+        assertEquals(8, ImageVariantProcessor.parseExifOrientation(littleEndian));
+        assertEquals(1, ImageVariantProcessor.parseExifOrientation(new byte[]{'E', 'x'}));
+    }
+
+    @Test
+    void deriveKeyReplacesExtensionAndCarriesVersion() {
+        assertEquals("images/user/avatars/o1_v3_medium.jpeg",
+                ImageVariant.MEDIUM.deriveKey("images/user/avatars/o1.png", 3L));
+        assertEquals("a.b/o1_v1_thumbnail.jpeg", ImageVariant.THUMBNAIL.deriveKey("a.b/o1", 1L));
+    }
+
+    @Test
+    void variantCodesRoundTrip() {
+        var codes = ImageVariant.joinCodes(List.of(ImageVariant.THUMBNAIL, ImageVariant.LARGE));
+
+        assertEquals("large,thumbnail", codes);
+        assertEquals(EnumSet.of(ImageVariant.LARGE, ImageVariant.THUMBNAIL), ImageVariant.parseCodes(codes));
+        assertTrue(ImageVariant.parseCodes(null).isEmpty());
+        assertEquals(EnumSet.of(ImageVariant.MEDIUM), ImageVariant.parseCodes("medium,unknown"));
+    }
+
+    private static void assertSize(Map<ImageVariant, byte[]> variants, ImageVariant variant, int width, int height)
+            throws IOException {
+        var image = decode(variants.get(variant));
+        assertEquals(width, image.getWidth(), variant + " width");
+        assertEquals(height, image.getHeight(), variant + " height");
+    }
+
+    /**
+     * JPEG有损压缩，颜色按容差比较
+     */
+    private static boolean isClose(Color expected, int rgb) {
+        var actual = new Color(rgb);
+        return Math.abs(expected.getRed() - actual.getRed()) < 40
+                && Math.abs(expected.getGreen() - actual.getGreen()) < 40
+                && Math.abs(expected.getBlue() - actual.getBlue()) < 40;
+    }
+
+    private static BufferedImage decode(byte[] data) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(data));
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        var output = new ByteArrayOutputStream();
+        ImageIO.write(image, format, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * 在JFIF APP0段之后插入APP1段
+     */
+    private static byte[] withApp1(byte[] jpeg, byte[] app1) {
+        var app0End = 4 + (((jpeg[4] & 0xFF) << 8) | (jpeg[5] & 0xFF));
+        var length = app1.length + 2;
+        var output = new ByteArrayOutputStream();
+        output.write(jpeg, 0, app0End);
+        output.write(0xFF);
+        output.write(0xE1);
+        output.write(length >> 8);
+        output.write(length & 0xFF);
+        output.write(app1, 0, app1.length);
+        output.write(jpeg, app0End, jpeg.length - app0End);
+        return output.toByteArray();
+    }
+}
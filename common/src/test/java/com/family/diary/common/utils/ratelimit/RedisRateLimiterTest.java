@@ -0,0 +1,91 @@
+package com.family.diary.common.utils.ratelimit;
+
+import com.family.diary.common.models.ratelimit.RateLimitPolicy;
+import com.family.diary.common.models.ratelimit.RateLimitProperties;
+import com.family.diary.common.utils.redis.RedisScriptRegistry;
+import com.family.diary.common.utils.redis.RedisUtil;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisRateLimiterTest {
+
+    private final RedisUtil redisUtil = mock(RedisUtil.class);
+
+    private RedisRateLimiter rateLimiter;
+
+    private RateLimitPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        var scriptRegistry = new RedisScriptRegistry(mock(RedisTemplate.class), new SimpleMeterRegistry(),
+                mock(ClientResources.class));
+        rateLimiter = new RedisRateLimiter(redisUtil, scriptRegistry, new SimpleMeterRegistry(),
+                new RateLimitProperties(), 2, Duration.ofMinutes(1));
+        policy = new RateLimitPolicy();
+        policy.setName("login");
+        policy.setCapacity(10);
+        policy.setRefillTokens(10);
+        policy.setRefillPeriod(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void localPreCheckSkipsRedisForClearlyUnderLimitCallers() {
+        when(redisUtil.executeScript(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(1L, 9L, 0L));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimiter.tryAcquire(policy, "ip:1.1.1.1").allowed());
+        }
+
+        // 第1次访问Redis得到剩余9，随后4次（floor(9 * 0.5)）在本地放行
+        verify(redisUtil, times(1)).executeScript(any(RedisScript.class), anyList(), any(Object[].class));
+
+        rateLimiter.tryAcquire(policy, "ip:1.1.1.1");
+
+        // 第6次访问Redis时携带本地已放行的4个令牌
+        verify(redisUtil).executeScript(any(RedisScript.class), anyList(), eq("10"), any(), eq("1"), eq("4"));
+    }
+
+    @Test
+    void rejectionIsReturnedWithRetryAfter() {
+        when(redisUtil.executeScript(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(0L, 0L, 6000L));
+
+        var decision = rateLimiter.tryAcquire(policy, "ip:1.1.1.1");
+
+        assertFalse(decision.allowed());
+        assertEquals(6000L, decision.retryAfterMs());
+    }
+
+    @Test
+    void failsOpenWhenRedisIsUnavailable() {
+        when(redisUtil.executeScript(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimiter.tryAcquire(policy, "ip:1.1.1.1").allowed());
+        }
+
+        // 连续失败2次后熔断，不再访问Redis
+        verify(redisUtil, times(2)).executeScript(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+}
@@ -0,0 +1,114 @@
+package com.family.diary.common.utils.redis;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisLoadingCacheTest {
+
+    private final RedisUtil redisUtil = mock(RedisUtil.class);
+
+    private final RedisNearCache redisNearCache = mock(RedisNearCache.class);
+
+    private final RedisLoadingCache loadingCache = new RedisLoadingCache(redisUtil, redisNearCache,
+            new SimpleMeterRegistry(), Duration.ofMinutes(5), Duration.ofSeconds(10), Duration.ofSeconds(5),
+            1.0, 1, 10);
+
+    @AfterEach
+    void tearDown() {
+        loadingCache.shutdown();
+    }
+
+    @Test
+    void concurrentMissesRunLoaderOnce() throws Exception {
+        when(redisUtil.tryLock(anyString(), anyString(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+        when(redisUtil.setWithExpire(anyString(), anyString(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+        var loads = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var results = new ArrayList<Future<String>>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return loadingCache.getOrLoad("avatar:url:openid", Duration.ofHours(1), () -> {
+                        loads.incrementAndGet();
+                        sleep(200);
+                        return "https://cos/avatar.png";
+                    });
+                }));
+            }
+            start.countDown();
+            for (var result : results) {
+                assertEquals("https://cos/avatar.png", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        verify(redisUtil).setWithExpire(eq("avatar:url:openid"), startsWith("v1|"), anyLong(),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void expiredEntryIsServedStaleWhileRefreshingInBackground() {
+        var expiredAt = System.currentTimeMillis() - 1000;
+        when(redisNearCache.get("avatar:url:openid")).thenReturn("v1|" + expiredAt + "|5|https://cos/old.png");
+        when(redisUtil.tryLock(anyString(), anyString(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+        when(redisUtil.setWithExpire(anyString(), anyString(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+
+        var value = loadingCache.getOrLoad("avatar:url:openid", Duration.ofHours(1), () -> "https://cos/new.png");
+
+        assertEquals("https://cos/old.png", value);
+        verify(redisUtil, timeout(2000)).setWithExpire(eq("avatar:url:openid"), endsWith("|https://cos/new.png"),
+                anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void foregroundMissLoadsWhenJoinedRefreshGivesUp() {
+        var expiredAt = System.currentTimeMillis() - 1000;
+        when(redisNearCache.get("avatar:meta:openid"))
+                .thenReturn("v1|" + expiredAt + "|5|old", (Object) null);
+        // 后台刷新未抢到互斥锁（其他节点持有）而放弃，前台请求随后抢到锁
+        when(redisUtil.tryLock(anyString(), anyString(), anyLong(), eq(TimeUnit.MILLISECONDS)))
+                .thenAnswer(invocation -> {
+                    sleep(300);
+                    return false;
+                })
+                .thenReturn(true);
+        when(redisUtil.setWithExpire(anyString(), anyString(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+
+        assertEquals("old", loadingCache.getOrLoad("avatar:meta:openid", Duration.ofHours(1), () -> "new"));
+        sleep(50);
+
+        assertEquals("new", loadingCache.getOrLoad("avatar:meta:openid", Duration.ofHours(1), () -> "new"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.family.diary.common.utils.redis;
+
+import com.family.diary.common.models.redis.NearCacheProperties;
+import com.family.diary.common.models.redis.RedisProperties;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisNearCacheTest {
+
+    private final RedisUtil redisUtil = mock(RedisUtil.class);
+
+    private RedisNearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new NearCacheProperties();
+        properties.setEnabled(true);
+        properties.setPrefixes(List.of("avatar:url:"));
+        var redisProperties = new RedisProperties();
+        redisProperties.setVersion("5.0.14");
+        nearCache = new RedisNearCache(redisUtil, properties, redisProperties, mock(ClientResources.class),
+                new SimpleMeterRegistry());
+        nearCache.start();
+    }
+
+    @Test
+    void servesMatchingKeysFromLocalMemory() {
+        when(redisUtil.get("avatar:url:openid")).thenReturn("https://cos/avatar.png");
+
+        assertEquals("https://cos/avatar.png", nearCache.get("avatar:url:openid"));
+        assertEquals("https://cos/avatar.png", nearCache.get("avatar:url:openid"));
+
+        verify(redisUtil, times(1)).get("avatar:url:openid");
+    }
+
+    @Test
+    void bypassesKeysOutsideConfiguredPrefixes() {
+        when(redisUtil.get("jwt-openid:openid")).thenReturn("token");
+
+        nearCache.get("jwt-openid:openid");
+        nearCache.get("jwt-openid:openid");
+
+        verify(redisUtil, times(2)).get("jwt-openid:openid");
+    }
+
+    @Test
+    void invalidationPushEvictsLocalEntry() {
+        when(redisUtil.get("avatar:url:openid")).thenReturn("old", "new");
+        nearCache.get("avatar:url:openid");
+
+        var message = mock(PushMessage.class);
+        when(message.getType()).thenReturn("invalidate");
+        when(message.getContent(any())).thenReturn(List.of("invalidate", List.of("avatar:url:openid")));
+        nearCache.onPushMessage(message);
+
+        assertEquals("new", nearCache.get("avatar:url:openid"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.family.diary.common.utils.redis;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+class RedisScriptRegistryTest {
+
+    private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RedisScriptRegistry registry = new RedisScriptRegistry(redisTemplate, meterRegistry,
+            mock(ClientResources.class));
+
+    @Test
+    void discoversScriptsAndCachesTypedInstances() {
+        var script = registry.get(RedisConstants.REDIS_TOKEN_BUCKET_LUA_NAME, List.class);
+
+        assertSame(script, registry.get(RedisConstants.REDIS_TOKEN_BUCKET_LUA_NAME, List.class));
+        assertEquals(40, script.getSha1().length());
+        assertThrows(IllegalArgumentException.class, () -> registry.get("missing", Long.class));
+    }
+
+    @Test
+    void executeRecordsLatencyPerScript() {
+        RedisScript<Long> script = registry.get(RedisConstants.REDIS_RELEASE_LOCK_LUA_NAME, Long.class);
+        when(redisTemplate.execute(eq(script), anyList(), eq("request"))).thenReturn(1L);
+
+        assertEquals(1L, registry.execute(script, List.of("lock"), "request"));
+        assertEquals(1L, meterRegistry.get("redis.script")
+                .tag("script", RedisConstants.REDIS_RELEASE_LOCK_LUA_NAME)
+                .tag("result", "success")
+                .timer()
+                .count());
+    }
+}
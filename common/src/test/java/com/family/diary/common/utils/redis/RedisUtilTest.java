@@ -0,0 +1,56 @@
+package com.family.diary.common.utils.redis;
+
+import com.family.diary.common.models.redis.RedisProperties;
+import com.family.diary.common.utils.redis.monitor.RedisKeyMonitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+class RedisUtilTest {
+
+    private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+
+    private final ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+
+    private RedisUtil redisUtil;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new RedisProperties();
+        properties.setBatchSize(2);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        redisUtil = new RedisUtil(redisTemplate, mock(RedisTemplate.class), properties, mock(RedisScriptRegistry.class),
+                mock(RedisKeyMonitor.class));
+    }
+
+    @Test
+    void multiGetWithinBatchSizeUsesSingleMget() {
+        when(valueOperations.multiGet(List.of("a", "b"))).thenReturn(Arrays.asList("1", null));
+
+        assertEquals(Arrays.asList("1", null), redisUtil.multiGet(List.of("a", "b")));
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void multiGetSplitsIntoChunksAndKeepsInputOrder() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(Arrays.asList("1", null), List.of("3")));
+
+        var values = redisUtil.multiGet(List.of("a", "b", "c"));
+
+        assertEquals(Arrays.asList("1", null, "3"), values);
+    }
+}
@@ -0,0 +1,100 @@
+package com.family.diary.common.utils.redis.invalidation;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.utils.redis.RedisUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class LocalCacheInvalidationBusTest {
+
+    private static final String CACHE_NAME = "users";
+
+    private final RedisUtil redisUtil = mock(RedisUtil.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Cache<String, String> cache = Caffeine.newBuilder().build();
+
+    private LocalCacheInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        bus = new LocalCacheInvalidationBus(redisUtil, mock(RedisMessageListenerContainer.class),
+                mock(ClientResources.class), objectMapper, new SimpleMeterRegistry(), Duration.ofMillis(200), 3);
+        bus.register(CACHE_NAME, LocalCacheInvalidationListener.of(cache, () -> {
+        }));
+        cache.put("user:1", "a");
+        cache.put("user:2", "b");
+        cache.put("role:1", "c");
+    }
+
+    @Test
+    void invalidationsAreAppliedLocallyAndCoalescedIntoOneMessage() throws Exception {
+        bus.invalidate(CACHE_NAME, "user:1");
+        bus.invalidate(CACHE_NAME, "user:1");
+        bus.invalidatePrefix(CACHE_NAME, "role:");
+
+        assertNull(cache.getIfPresent("user:1"));
+        assertNull(cache.getIfPresent("role:1"));
+        assertEquals("b", cache.getIfPresent("user:2"));
+
+        var payload = ArgumentCaptor.forClass(Object.class);
+        verify(redisUtil, timeout(1000)).publish(eq(RedisConstants.LOCAL_CACHE_INVALIDATION_CHANNEL),
+                payload.capture());
+        var message = objectMapper.readValue((String) payload.getValue(),
+                LocalCacheInvalidationBus.InvalidationMessage.class);
+        var invalidation = message.caches().get(CACHE_NAME);
+        assertEquals(Set.of("user:1"), invalidation.keys());
+        assertEquals(Set.of("role:"), invalidation.prefixes());
+    }
+
+    @Test
+    void tooManyKeysCollapseIntoFullFlush() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            bus.invalidate(CACHE_NAME, "key:" + i);
+        }
+
+        var payload = ArgumentCaptor.forClass(Object.class);
+        verify(redisUtil, timeout(1000)).publish(eq(RedisConstants.LOCAL_CACHE_INVALIDATION_CHANNEL),
+                payload.capture());
+        var message = objectMapper.readValue((String) payload.getValue(),
+                LocalCacheInvalidationBus.InvalidationMessage.class);
+        assertTrue(message.caches().get(CACHE_NAME).all());
+    }
+
+    @Test
+    void remoteMessagesAreAppliedToRegisteredCache() throws Exception {
+        var remote = new LocalCacheInvalidationBus.InvalidationMessage("other-node", Map.of(CACHE_NAME,
+                new LocalCacheInvalidationBus.CacheInvalidation(false, Set.of("user:2"), Set.of())));
+        bus.onMessage(new DefaultMessage(new byte[0], objectMapper.writeValueAsBytes(remote)), null);
+
+        assertNull(cache.getIfPresent("user:2"));
+        assertEquals("a", cache.getIfPresent("user:1"));
+
+        var flushAll = new LocalCacheInvalidationBus.InvalidationMessage("other-node", Map.of(CACHE_NAME,
+                new LocalCacheInvalidationBus.CacheInvalidation(true, Set.of(), Set.of())));
+        bus.onMessage(new DefaultMessage(new byte[0], objectMapper.writeValueAsBytes(flushAll)), null);
+
+        assertTrue(cache.asMap().isEmpty());
+    }
+}
@@ -0,0 +1,79 @@
+package com.family.diary.common.utils.redis.lock;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.utils.redis.RedisScriptRegistry;
+import com.family.diary.common.utils.redis.RedisUtil;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisLockManagerTest {
+
+    private final RedisUtil redisUtil = mock(RedisUtil.class);
+
+    private final RedisScriptRegistry scriptRegistry = new RedisScriptRegistry(mock(RedisTemplate.class),
+            new SimpleMeterRegistry(), mock(ClientResources.class));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RedisLockManager lockManager = new RedisLockManager(redisUtil, scriptRegistry,
+            mock(RedisMessageListenerContainer.class), meterRegistry, Duration.ofSeconds(30), Duration.ofDays(7));
+
+    @AfterEach
+    void tearDown() {
+        lockManager.shutdown();
+    }
+
+    @Test
+    void reentrantAcquireHitsRedisOnceAndReleasesOnOutermostUnlock() {
+        var acquireScript = scriptRegistry.get(RedisConstants.REDIS_LOCK_ACQUIRE_LUA_NAME, List.class);
+        var releaseScript = scriptRegistry.get(RedisConstants.REDIS_LOCK_RELEASE_LUA_NAME, Long.class);
+        when(redisUtil.executeScript(eq(acquireScript), anyList(), any(Object[].class))).thenReturn(List.of(1L, 7L));
+        when(redisUtil.executeScript(eq(releaseScript), anyList(), any(Object[].class))).thenReturn(1L);
+        var lock = lockManager.getLock("avatar:openid");
+
+        assertTrue(lock.tryLock(Duration.ZERO));
+        assertTrue(lock.tryLock(Duration.ZERO));
+        assertEquals(7L, lock.getFencingToken());
+
+        lock.unlock();
+        assertTrue(lock.isHeldByCurrentThread());
+        verify(redisUtil, times(0)).executeScript(eq(releaseScript), anyList(), any(Object[].class));
+
+        lock.unlock();
+        assertFalse(lock.isHeldByCurrentThread());
+        verify(redisUtil, times(1)).executeScript(eq(acquireScript), anyList(), any(Object[].class));
+        verify(redisUtil, times(1)).executeScript(eq(releaseScript), anyList(), any(Object[].class));
+        assertThrows(IllegalMonitorStateException.class, lock::unlock);
+    }
+
+    @Test
+    void contendedLockTimesOutAfterWaiting() {
+        var acquireScript = scriptRegistry.get(RedisConstants.REDIS_LOCK_ACQUIRE_LUA_NAME, List.class);
+        when(redisUtil.executeScript(eq(acquireScript), anyList(), any(Object[].class))).thenReturn(List.of(0L, 20L));
+        var lock = lockManager.getLock("avatar:openid");
+
+        assertFalse(lock.tryLock(Duration.ofMillis(100)));
+        assertFalse(lock.isHeldByCurrentThread());
+        assertTrue(meterRegistry.get("redis.lock.contention").counter().count() >= 2);
+        assertEquals(1L, meterRegistry.get("redis.lock.acquire").tag("result", "timeout").timer().count());
+    }
+}
@@ -0,0 +1,57 @@
+package com.family.diary.common.utils.redis.monitor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisKeyMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RedisKeyMonitor monitor = new RedisKeyMonitor(meterRegistry, true, 1.0, 3, Duration.ofMinutes(1), 8);
+
+    @Test
+    void normalizeReplacesIdSegments() {
+        assertEquals("jwt-openid:*:access", RedisKeyMonitor.normalize("jwt-openid:oAbCdEfGhIjKlMnOpQr:access"));
+        assertEquals("user:*:profile", RedisKeyMonitor.normalize("user:42:profile"));
+        assertEquals("avatar:url:", RedisKeyMonitor.normalize("avatar:url:"));
+        assertEquals("rate-limit:login:ip:*", RedisKeyMonitor.normalize("rate-limit:login:ip:10.0.0.1"));
+    }
+
+    @Test
+    void topKSketchKeepsHeaviestItems() {
+        var sketch = new TopKSketch(2);
+        sketch.add("a", 10);
+        sketch.add("b", 5);
+        sketch.add("c", 1);
+        sketch.add("b", 10);
+
+        var hitters = sketch.topK();
+        assertEquals(2, hitters.size());
+        assertEquals("b", hitters.get(0).key());
+        assertEquals("a", hitters.get(1).key());
+        assertTrue(hitters.get(0).estimatedCount() >= 15);
+    }
+
+    @Test
+    void reportContainsOnlyNormalizedPatterns() {
+        for (int i = 0; i < 5; i++) {
+            monitor.record("get", "user:1:profile", "v", 1_000L);
+        }
+        monitor.record("get", List.of("user:2:profile", "token:x"), 1_000L);
+        monitor.record("set", "avatar:url:1", "0123456789", 1_000L);
+
+        var report = monitor.report();
+        assertEquals("user:*:profile", report.hotPatterns().get(0).key());
+        assertEquals(6, report.hotPatterns().get(0).estimatedCount());
+        assertEquals(1, report.bigValues().size());
+        assertEquals("avatar:url:*", report.bigValues().get(0).pattern());
+        assertEquals(1.0, meterRegistry.get("redis.big-value").tag("pattern", "avatar:url:*").counter().count());
+        assertEquals(6, meterRegistry.get("redis.command").tag("operation", "get").timer().count());
+    }
+}
@@ -0,0 +1,56 @@
+package com.family.diary.common.utils.tencentcloud;
+
+import com.qcloud.cos.auth.BasicCOSCredentials;
+import com.qcloud.cos.auth.COSSigner;
+import com.qcloud.cos.http.HttpMethodName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CosUrlSignerTest {
+
+    private static final String SECRET_ID = "AKIDtest";
+
+    private static final String SECRET_KEY = "secretKeyTest";
+
+    private final CosUrlSigner signer = new CosUrlSigner(SECRET_ID, SECRET_KEY, "cos.example.com");
+
+    @ParameterizedTest
+    @ValueSource(strings = {"images/user/avatars/open-id.png", "images/a b+c.png", "/images/头像/x.jpg"})
+    void signatureMatchesCosSdk(String objectKey) {
+        var url = signer.sign(objectKey, 7200);
+
+        var query = url.substring(url.indexOf('?') + 1);
+        var keyTime = query.split("q-sign-time=")[1].split("&")[0].split("%3B");
+        var start = new Date(Long.parseLong(keyTime[0]) * 1000);
+        var end = new Date(Long.parseLong(keyTime[1]) * 1000);
+        var path = objectKey.startsWith("/") ? objectKey : "/" + objectKey;
+        var authorization = new COSSigner().buildAuthorizationStr(HttpMethodName.GET, path, new HashMap<>(),
+                new HashMap<>(), new BasicCOSCredentials(SECRET_ID, SECRET_KEY), start, end, false);
+
+        assertEquals(authorization.split("q-signature=")[1], query.split("q-signature=")[1]);
+        assertTrue(end.getTime() - System.currentTimeMillis() >= 7200 * 1000L);
+    }
+
+    @Test
+    void urlUsesCustomHostAndEncodesPath() {
+        var url = signer.sign("images/头像 1.png", 60);
+
+        assertTrue(url.startsWith("https://cos.example.com/images/%E5%A4%B4%E5%83%8F%201.png?q-sign-algorithm=sha1"));
+    }
+
+    @Test
+    void signAllKeepsOrder() {
+        var urls = signer.signAll(List.of("a.png", "b.png"), 60);
+
+        assertEquals(signer.sign("a.png", 60), urls.get(0));
+        assertEquals(signer.sign("b.png", 60), urls.get(1));
+    }
+}
@@ -0,0 +1,224 @@
+package com.family.diary.common.utils.web.jwt;
+
+import com.family.diary.common.constants.redis.RedisConstants;
+import com.family.diary.common.enums.jwt.TokenRevocationMode;
+import com.family.diary.common.enums.jwt.TokenRotationStatus;
+import com.family.diary.common.enums.jwt.TokenType;
+import com.family.diary.common.exceptions.TokenStoreUnavailableException;
+import com.family.diary.common.models.jwt.VerifiedToken;
+import com.family.diary.common.utils.redis.RedisUtil;
+import com.family.diary.common.utils.redis.invalidation.LocalCacheInvalidationBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private final Map<String, String> storage = new HashMap<>();
+
+    private final RedisUtil redisUtil = mock(RedisUtil.class);
+
+    private LocalCacheInvalidationBus invalidationBus;
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        invalidationBus = new LocalCacheInvalidationBus(redisUtil, mock(RedisMessageListenerContainer.class),
+                mock(ClientResources.class), new ObjectMapper(), new SimpleMeterRegistry(), Duration.ofMillis(5), 100);
+        var accessTokenCache = new AccessTokenCache(invalidationBus, new SimpleMeterRegistry(), true, 100);
+        var guard = new TokenStoreGuard(new SimpleMeterRegistry(), 100, 5, Duration.ofMinutes(1), true,
+                Duration.ofMinutes(5));
+        var tokenGenerationStore = new TokenGenerationStore(redisUtil, guard, invalidationBus,
+                new SimpleMeterRegistry(), TokenRevocationMode.GENERATION, "jwt-openid", 100, Duration.ofSeconds(30));
+        accessTokenCache.register();
+        tokenGenerationStore.register();
+        jwtUtil = new JwtUtil(new InMemoryTokenStore(storage, guard), accessTokenCache, tokenGenerationStore);
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "JWT_REDIS_KEY_PREFIX", "jwt-openid");
+        ReflectionTestUtils.setField(jwtUtil, "refreshGracePeriod", Duration.ofSeconds(10));
+        jwtUtil.init();
+    }
+
+    @Test
+    void parseReturnsAllClaimsFromSingleVerification() {
+        var token = jwtUtil.generateAccessToken("openid");
+
+        var verified = jwtUtil.parse(token);
+
+        assertEquals(token, verified.token());
+        assertEquals("openid", verified.subject());
+        assertEquals(TokenType.ACCESS, verified.tokenType());
+        assertFalse(verified.isExpired());
+    }
+
+    @Test
+    void validateAccessTokenRejectsWrongTypeAndReplacedToken() {
+        var access = jwtUtil.generateAccessToken("openid");
+        var refresh = jwtUtil.generateRefreshToken("openid");
+
+        assertTrue(jwtUtil.validateAccessToken(jwtUtil.parse(access)));
+        assertFalse(jwtUtil.validateAccessToken(jwtUtil.parse(refresh)));
+
+        jwtUtil.invalidateAllTokens("openid");
+
+        assertFalse(jwtUtil.validateAccessToken(jwtUtil.parse(access)));
+    }
+
+    @Test
+    void generateTokensIssuesAndStoresEveryType() {
+        var tokens = jwtUtil.generateTokens("openid");
+
+        assertEquals(TokenType.values().length, storage.size());
+        assertTrue(jwtUtil.validateAccessToken(jwtUtil.parse(tokens.get(TokenType.ACCESS))));
+        assertTrue(jwtUtil.validateRefreshToken(jwtUtil.parse(tokens.get(TokenType.REFRESH))));
+    }
+
+    @Test
+    void rotateTokensSwapsRefreshTokenOnlyOnce() {
+        var refresh = jwtUtil.parse(jwtUtil.generateTokens("openid").get(TokenType.REFRESH));
+
+        var rotated = jwtUtil.rotateTokens(refresh);
+
+        assertEquals(TokenRotationStatus.ROTATED, rotated.status());
+        assertTrue(jwtUtil.validateRefreshToken(jwtUtil.parse(rotated.refreshToken())));
+        assertTrue(jwtUtil.validateAccessToken(jwtUtil.parse(rotated.accessToken())));
+        assertFalse(jwtUtil.rotateTokens(refresh).isSuccessful());
+        assertFalse(jwtUtil.rotateTokens(jwtUtil.parse(rotated.accessToken())).isSuccessful());
+    }
+
+    @Test
+    void generationModeRevokesTokensWithSingleIncrement() {
+        ReflectionTestUtils.setField(jwtUtil, "revocationMode", TokenRevocationMode.GENERATION);
+        when(redisUtil.pipelined(any())).thenReturn(List.of(1L, true), List.of(3L, true));
+        when(redisUtil.executeScript(eq(RedisConstants.REDIS_ROTATE_GENERATION_LUA_NAME), eq(Long.class),
+                anyList(), any(Object[].class))).thenReturn(2L, 0L);
+
+        var tokens = jwtUtil.generateTokens("openid");
+        var access = jwtUtil.parse(tokens.get(TokenType.ACCESS));
+        var refresh = jwtUtil.parse(tokens.get(TokenType.REFRESH));
+
+        assertEquals(1L, access.generation());
+        assertTrue(storage.isEmpty());
+        assertTrue(jwtUtil.validateAccessToken(access));
+
+        var rotated = jwtUtil.rotateTokens(refresh);
+        var rotatedAccess = jwtUtil.parse(rotated.accessToken());
+
+        assertTrue(rotated.isSuccessful());
+        assertEquals(2L, rotatedAccess.generation());
+        assertTrue(jwtUtil.validateAccessToken(rotatedAccess));
+        // 轮换即自增代数：旧Token立即失效，旧Refresh Token无法重放
+        assertFalse(jwtUtil.validateAccessToken(access));
+        assertFalse(jwtUtil.rotateTokens(refresh).isSuccessful());
+
+        jwtUtil.invalidateAllTokens("openid");
+
+        assertFalse(jwtUtil.validateAccessToken(rotatedAccess));
+    }
+
+    @Test
+    void generationModeRenewsKeyWhenIssuingAgainstCurrentGeneration() {
+        ReflectionTestUtils.setField(jwtUtil, "revocationMode", TokenRevocationMode.GENERATION);
+        // 依次为：续期命中当前代数4；续期时Key已过期；自增得到新代数5
+        when(redisUtil.pipelined(any())).thenReturn(Arrays.asList(4L, true), Arrays.asList(null, false),
+                List.of(5L, true));
+
+        assertEquals(4L, jwtUtil.parse(jwtUtil.generateAccessToken("openid")).generation());
+        assertEquals(5L, jwtUtil.parse(jwtUtil.generateAccessToken("openid")).generation());
+        verify(redisUtil, times(3)).pipelined(any());
+    }
+
+    @Test
+    void generationModeDegradesThroughGuardWhenRedisFails() {
+        ReflectionTestUtils.setField(jwtUtil, "revocationMode", TokenRevocationMode.GENERATION);
+        when(redisUtil.pipelined(any())).thenReturn(List.of(1L, true))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        when(redisUtil.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        var tokens = jwtUtil.generateTokens("openid");
+        var access = jwtUtil.parse(tokens.get(TokenType.ACCESS));
+        // 近缓存未命中时读取Redis失败，按降级策略仅凭验签放行Access Token
+        invalidationBus.invalidate("jwt.generation", "openid");
+
+        assertTrue(jwtUtil.validateAccessToken(access));
+        assertFalse(jwtUtil.validateRefreshToken(jwtUtil.parse(tokens.get(TokenType.REFRESH))));
+
+        // 故障期间登出：Redis自增失败，但本节点已记录吊销，降级校验拒绝此前签发的Token
+        assertThrows(TokenStoreUnavailableException.class, () -> jwtUtil.invalidateAllTokens("openid"));
+
+        assertFalse(jwtUtil.validateAccessToken(access));
+    }
+
+    @Test
+    void validateAccessTokenIsServedFromLocalCacheUntilInvalidated() {
+        var access = jwtUtil.parse(jwtUtil.generateAccessToken("openid"));
+        assertTrue(jwtUtil.validateAccessToken(access));
+
+        // 本地缓存命中后不再依赖存储
+        storage.clear();
+        assertTrue(jwtUtil.validateAccessToken(access));
+
+        jwtUtil.invalidateAllTokens("openid");
+
+        assertFalse(jwtUtil.validateAccessToken(access));
+        // 签发与登出各发布一次跨节点失效通知
+        verify(redisUtil, times(2)).publish(anyString(), eq("openid"));
+    }
+
+    @Test
+    void parseRejectsTamperedToken() {
+        var token = jwtUtil.generateAccessToken("openid");
+
+        assertThrows(JwtException.class, () -> jwtUtil.parse(token.substring(0, token.length() - 2) + "xx"));
+    }
+
+    private record InMemoryTokenStore(Map<String, String> storage, TokenStoreGuard guard) implements TokenStore {
+        @Override
+        public void save(String key, String token, long expireMs) {
+            storage.put(key, token);
+        }
+
+        @Override
+        public String get(String key) {
+            return storage.get(key);
+        }
+
+        @Override
+        public void delete(String key) {
+            storage.remove(key);
+        }
+
+        @Override
+        public boolean allowDegraded(String key, VerifiedToken verifiedToken) {
+            return guard.allowDegraded(key, verifiedToken);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.family.diary.common.utils.web.jwt;
+
+import com.family.diary.common.enums.errors.ExceptionErrorCode;
+import com.family.diary.common.enums.jwt.TokenType;
+import com.family.diary.common.exceptions.TokenStoreUnavailableException;
+import com.family.diary.common.models.jwt.VerifiedToken;
+import com.family.diary.common.utils.redis.RedisUtil;
+import com.family.diary.common.utils.redis.invalidation.LocalCacheInvalidationBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResilientTokenStoreTest {
+
+    private final RedisTokenStore delegate = mock(RedisTokenStore.class);
+
+    private LocalCacheInvalidationBus invalidationBus;
+
+    private ResilientTokenStore tokenStore;
+
+    @BeforeEach
+    void setUp() {
+        tokenStore = store(true, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void getFallsBackToMirrorWhenRedisFails() {
+        tokenStore.save("key", "token", 60_000L);
+        when(delegate.get("key")).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertEquals("token", tokenStore.get("key"));
+        assertThrows(TokenStoreUnavailableException.class, () -> tokenStore.get("missing"));
+    }
+
+    @Test
+    void mirrorIsDroppedWhenAnotherNodeReplacesToken() {
+        tokenStore.save("key", "token", 60_000L);
+        // 其他节点重新登录或登出后广播的失效通知
+        var remote = """
+                {"origin":"other-node","caches":{"jwt.token-store.mirror":{"all":false,"keys":["key"],"prefixes":[]}}}
+                """;
+        invalidationBus.onMessage(new DefaultMessage(new byte[0], remote.getBytes(StandardCharsets.UTF_8)), null);
+        when(delegate.get("key")).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThrows(TokenStoreUnavailableException.class, () -> tokenStore.get("key"));
+    }
+
+    @Test
+    void openCircuitStopsCallingRedis() {
+        when(delegate.get("key")).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThrows(TokenStoreUnavailableException.class, () -> tokenStore.get("key"));
+        assertThrows(TokenStoreUnavailableException.class, () -> tokenStore.get("key"));
+        assertThrows(TokenStoreUnavailableException.class, () -> tokenStore.get("key"));
+
+        verify(delegate, times(2)).get("key");
+    }
+
+    @Test
+    void degradedModeAcceptsOnlyUnexpiredAccessTokens() {
+        var now = Instant.now();
+
+        assertTrue(tokenStore.allowDegraded("access",
+                new VerifiedToken("a", "openid", TokenType.ACCESS, now, now.plusSeconds(60))));
+        assertFalse(tokenStore.allowDegraded("refresh",
+                new VerifiedToken("r", "openid", TokenType.REFRESH, now, now.plusSeconds(60))));
+        assertFalse(tokenStore.allowDegraded("access",
+                new VerifiedToken("e", "openid", TokenType.ACCESS, now.minusSeconds(120), now.minusSeconds(60))));
+    }
+
+    @Test
+    void degradedModeIsOffByDefaultAndBoundedInTime() {
+        var now = Instant.now();
+        var token = new VerifiedToken("a", "openid", TokenType.ACCESS, now, now.plusSeconds(60));
+        var disabled = store(false, Duration.ofMinutes(5));
+        var expiring = store(true, Duration.ofMillis(-1));
+
+        assertFalse(disabled.allowDegraded("access", token));
+        assertFalse(expiring.allowDegraded("access", token));
+    }
+
+    @Test
+    void degradedModeRejectsTokensRevokedDuringOutage() {
+        var issuedAt = Instant.now().minusSeconds(5);
+        doThrow(new RedisConnectionFailureException("down")).when(delegate).deleteAll(anyCollection());
+
+        assertThrows(TokenStoreUnavailableException.class, () -> tokenStore.deleteAll(List.of("access")));
+
+        assertFalse(tokenStore.allowDegraded("access",
+                new VerifiedToken("a", "openid", TokenType.ACCESS, issuedAt, issuedAt.plusSeconds(60))));
+        assertTrue(tokenStore.allowDegraded("other",
+                new VerifiedToken("b", "other", TokenType.ACCESS, issuedAt, issuedAt.plusSeconds(60))));
+    }
+
+    @Test
+    void unavailableStoreMapsToServiceUnavailable() {
+        when(delegate.get("key")).thenThrow(new RedisConnectionFailureException("down"));
+        doThrow(new RedisConnectionFailureException("down")).when(delegate).delete("key");
+
+        var e = assertThrows(TokenStoreUnavailableException.class, () -> tokenStore.get("key"));
+        assertEquals(ExceptionErrorCode.SERVICE_UNAVAILABLE, e.getErrorCode());
+        var wrapped = assertThrows(TokenStoreUnavailableException.class, () -> tokenStore.delete("key"));
+        assertEquals(ExceptionErrorCode.SERVICE_UNAVAILABLE, wrapped.getErrorCode());
+    }
+
+    private ResilientTokenStore store(boolean degradedModeEnabled, Duration degradedMaxDuration) {
+        var registry = new SimpleMeterRegistry();
+        var guard = new TokenStoreGuard(registry, 100, 2, Duration.ofMinutes(1), degradedModeEnabled,
+                degradedMaxDuration);
+        invalidationBus = new LocalCacheInvalidationBus(mock(RedisUtil.class),
+                mock(RedisMessageListenerContainer.class), mock(ClientResources.class), new ObjectMapper(), registry,
+                Duration.ofMillis(5), 100);
+        var store = new ResilientTokenStore(delegate, guard, invalidationBus, registry, 100);
+        store.register();
+        return store;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.domain.repository.tencentcloud.cos;
+
+import com.family.diary.domain.entity.tencentcloud.cos.AvatarEntity;
+
+/**
+ * AvatarRepository接口类
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+public interface AvatarRepository {
+    /**
+     * 通过微信OpenID查询头像元数据
+     *
+     * @param openId 微信用户OpenID
+     * @return 头像元数据，用户未上传过头像时返回null
+     */
+    AvatarEntity findByOpenId(String openId);
+
+    /**
+     * 保存头像元数据：不存在时以版本1新建，已存在时更新对象Key与格式、递增版本号并清空已生成的规格
+     *
+     * @param openId    微信用户OpenID
+     * @param objectKey 头像在COS中的对象Key
+     * @param format    图片格式
+     * @return 保存后的头像元数据
+     */
+    AvatarEntity upsert(String openId, String objectKey, String format);
+
+    /**
+     * 记录指定版本已生成的规格；版本号已变化（期间重新上传）时不更新
+     *
+     * @param openId   微信用户OpenID
+     * @param version  生成规格时的头像版本号
+     * @param variants 规格编码，逗号分隔
+     * @return 是：已记录 / 否：版本已过期
+     */
+    boolean updateVariants(String openId, long version, String variants);
+}
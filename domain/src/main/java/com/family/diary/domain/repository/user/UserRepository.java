@@ -47,4 +47,13 @@ public interface UserRepository {
      * @return 用户实体
      */
     UserEntity findByOpenId(String openId);
+
+    /**
+     * 更新用户密文密码
+     *
+     * @param openId          微信用户OpenID
+     * @param encodedPassword 密文密码
+     * @return 更新的记录数
+     */
+    int updatePassword(String openId, String encodedPassword);
 }
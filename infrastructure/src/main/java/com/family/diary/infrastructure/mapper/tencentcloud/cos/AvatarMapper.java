@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.infrastructure.mapper.tencentcloud.cos;
+
+import com.family.diary.domain.entity.tencentcloud.cos.AvatarEntity;
+import com.family.diary.infrastructure.po.tencentcloud.cos.AvatarPo;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * 用户头像元数据持久化与实体映射接口类
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Mapper(componentModel = "spring")
+public interface AvatarMapper {
+    AvatarMapper INSTANCE = Mappers.getMapper(AvatarMapper.class);
+
+    /**
+     * AvatarEntity -> AvatarPo
+     *
+     * @param avatarEntity AvatarEntity
+     * @return AvatarPo
+     */
+    AvatarPo toAvatarPo(AvatarEntity avatarEntity);
+
+    /**
+     * AvatarPo -> AvatarEntity
+     *
+     * @param avatarPo AvatarPo
+     * @return AvatarEntity
+     */
+    AvatarEntity toAvatarEntity(AvatarPo avatarPo);
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.infrastructure.po.tencentcloud.cos;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.family.diary.infrastructure.po.BasePo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * 用户头像元数据持久化对象，open_id上建有唯一索引
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@TableName("user_avatar")
+public class AvatarPo extends BasePo {
+    /**
+     * 微信账户OpenID
+     */
+    private String openId;
+
+    /**
+     * 头像在COS中的对象Key
+     */
+    private String objectKey;
+
+    /**
+     * 图片格式
+     */
+    private String format;
+
+    /**
+     * 头像版本号
+     */
+    private Long version;
+
+    /**
+     * 当前版本已生成的规格编码，逗号分隔
+     */
+    private String variants;
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2024 Richard Zhang (richard.jih.zhang@gmail.com).
+ * Website: https://zhang-jihao.com
+ * All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.family.diary.infrastructure.repository.tencentcloud.cos;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.family.diary.common.exceptions.database.InsertException;
+import com.family.diary.domain.entity.tencentcloud.cos.AvatarEntity;
+import com.family.diary.domain.repository.tencentcloud.cos.AvatarRepository;
+import com.family.diary.infrastructure.dao.tencentcloud.cos.AvatarDAO;
+import com.family.diary.infrastructure.mapper.tencentcloud.cos.AvatarMapper;
+import com.family.diary.infrastructure.po.tencentcloud.cos.AvatarPo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+/**
+ * AvatarRepository实现类
+ *
+ * @author Richard Zhang
+ * @since 2026-10-17
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class AvatarRepositoryImpl implements AvatarRepository {
+    private static final long INITIAL_VERSION = 1L;
+
+    private final AvatarDAO avatarDAO;
+
+    private final AvatarMapper avatarMapper;
+
+    @Override
+    public AvatarEntity findByOpenId(String openId) {
+        var queryWrapper = new QueryWrapper<AvatarPo>().lambda().eq(AvatarPo::getOpenId, openId);
+        var avatarPo = avatarDAO.selectOne(queryWrapper);
+        return avatarPo != null ? avatarMapper.toAvatarEntity(avatarPo) : null;
+    }
+
+    @Override
+    public AvatarEntity upsert(String openId, String objectKey, String format) {
+        if (update(openId, objectKey, format) == 0) {
+            try {
+                avatarDAO.insert(AvatarPo.builder()
+                        .openId(openId)
+                        .objectKey(objectKey)
+                        .format(format)
+                        .version(INITIAL_VERSION)
+                        .build());
+            } catch (DuplicateKeyException e) {
+                // 并发的首次上传已插入记录，改为更新
+                log.info("OpenId {} 的头像元数据已被并发创建，改为更新", openId);
+                update(openId, objectKey, format);
+            }
+        }
+
+        var avatar = findByOpenId(openId);
+        if (avatar == null) {
+            throw new InsertException("头像元数据保存失败");
+        }
+        return avatar;
+    }
+
+    @Override
+    public boolean updateVariants(String openId, long version, String variants) {
+        var updateWrapper = new LambdaUpdateWrapper<AvatarPo>()
+                .eq(AvatarPo::getOpenId, openId)
+                .eq(AvatarPo::getVersion, version)
+                .set(AvatarPo::getVariants, variants);
+        return avatarDAO.update(null, updateWrapper) > 0;
+    }
+
+    /**
+     * 更新对象Key与格式，版本号在数据库内原子递增，并发上传不会得到相同的版本号；
+     * 旧版本的规格图不再适用，一并清空
+     */
+    private int update(String openId, String objectKey, String format) {
+        var updateWrapper = new LambdaUpdateWrapper<AvatarPo>()
+                .eq(AvatarPo::getOpenId, openId)
+                .set(AvatarPo::getObjectKey, objectKey)
+                .set(AvatarPo::getFormat, format)
+                .set(AvatarPo::getVariants, null)
+                .setSql("version = version + 1");
+        return avatarDAO.update(null, updateWrapper);
+    }
+}
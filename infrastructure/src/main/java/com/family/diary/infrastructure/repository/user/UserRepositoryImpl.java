@@ -16,6 +16,7 @@
 package com.family.diary.infrastructure.repository.user;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.family.diary.common.exceptions.ConflictException;
 import com.family.diary.domain.entity.user.UserEntity;
 import com.family.diary.domain.repository.user.UserRepository;
@@ -64,4 +65,12 @@ public class UserRepositoryImpl implements UserRepository {
             throw new ConflictException("OpenId重复!");
         }
     }
+
+    @Override
+    public int updatePassword(String openId, String encodedPassword) {
+        var updateWrapper = new LambdaUpdateWrapper<UserPo>()
+                .eq(UserPo::getOpenId, openId)
+                .set(UserPo::getPassword, encodedPassword);
+        return userDAO.update(null, updateWrapper);
+    }
 }